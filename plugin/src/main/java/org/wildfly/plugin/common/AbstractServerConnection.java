@@ -5,8 +5,12 @@
 
 package org.wildfly.plugin.common;
 
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.UnknownHostException;
 
 import javax.inject.Inject;
 
@@ -186,6 +190,35 @@ public abstract class AbstractServerConnection extends AbstractMojo {
         return hostname;
     }
 
+    /**
+     * Checks whether the server is running on this machine, meaning the management host name resolves to a loopback
+     * address or an address of one of the network interfaces of this machine. A server on this machine can read the
+     * content of a deployment directly from the file system.
+     * <p>
+     * Only the address is checked. A server running in a container, or on another machine, whose management port is
+     * forwarded to {@code localhost} is detected as a local server even though it cannot read the files of this machine.
+     * </p>
+     *
+     * @return {@code true} if the server runs on this machine, otherwise {@code false}
+     */
+    protected boolean isLocalServer() {
+        final String hostName = getManagementHostName();
+        if (hostName == null || hostName.isBlank()) {
+            return false;
+        }
+        try {
+            for (InetAddress address : InetAddress.getAllByName(hostName)) {
+                if (address.isLoopbackAddress() || address.isAnyLocalAddress()
+                        || NetworkInterface.getByInetAddress(address) != null) {
+                    return true;
+                }
+            }
+        } catch (UnknownHostException | SocketException e) {
+            getLog().debug(String.format("Failed to resolve the address of %s: %s", hostName, e));
+        }
+        return false;
+    }
+
     private String decrypt(final Server server) {
         SettingsDecryptionResult decrypt = settingsDecrypter.decrypt(new DefaultSettingsDecryptionRequest(server));
         return decrypt.getServer().getPassword();
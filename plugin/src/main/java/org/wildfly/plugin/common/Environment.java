@@ -14,6 +14,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import org.jboss.logging.Logger;
@@ -34,6 +36,8 @@ public class Environment {
     };
     private static final Logger LOGGER = Logger.getLogger(Environment.class);
     private static final boolean WINDOWS;
+    // Checking for a modular JVM requires launching the JVM, only do it once for each Java Home
+    private static final Map<String, Boolean> MODULAR_JVMS = new ConcurrentHashMap<>();
 
     static {
         final String os = System.getProperty("os.name").toLowerCase(Locale.ROOT);
@@ -48,9 +52,24 @@ public class Environment {
      * @return {@code true} if this is a modular environment
      */
     public static boolean isModularJvm(final Path javaHome) {
-        boolean result;
+        final String javaCommand = getJavaCommand(javaHome);
+        final Boolean cached = MODULAR_JVMS.get(javaCommand);
+        if (cached != null) {
+            return cached;
+        }
+        final Boolean result = checkModularJvm(javaCommand);
+        if (result == null) {
+            return false;
+        }
+        MODULAR_JVMS.put(javaCommand, result);
+        return result;
+    }
+
+    // Returns null if the result is not known as the process failed or timed out
+    private static Boolean checkModularJvm(final String javaCommand) {
+        Boolean result;
         final List<String> cmd = new ArrayList<>();
-        cmd.add(getJavaCommand(javaHome));
+        cmd.add(javaCommand);
         cmd.add("--add-modules=java.se");
         cmd.add("-version");
         final ProcessBuilder builder = new ProcessBuilder(cmd);
@@ -68,13 +87,13 @@ public class Environment {
                 if (LOGGER.isDebugEnabled()) {
                     LOGGER.debug(getStdoutMessage("The process timed out waiting for the response.", stdout));
                 }
-                result = false;
+                result = null;
             }
         } catch (IOException | InterruptedException e) {
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug(getStdoutMessage("The process ended in error.", stdout), e);
             }
-            result = false;
+            result = null;
         } finally {
             if (process != null && process.isAlive()) {
                 process.destroyForcibly();
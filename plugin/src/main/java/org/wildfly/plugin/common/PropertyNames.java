@@ -40,6 +40,8 @@ public interface PropertyNames {
 
     String DEPLOYMENT_TARGET_DIR = "wildfly.deployment.targetDir";
 
+    String DEPLOYMENT_UNMANAGED = "wildfly.deployment.unmanaged";
+
     String DOMAIN_CONFIG = "wildfly.domainConfig";
 
     String FAIL_ON_ERROR = "wildfly.failOnError";
@@ -114,12 +116,16 @@ public interface PropertyNames {
 
     String WILDFLY_PACKAGING_EXTRA_CONTENT_DIRS = "wildfly.packaging.extra.dirs";
 
+    String WILDFLY_PROVISIONING_CHANNEL_RESOLUTION_CACHE = "wildfly.provisioning.channel-resolution-cache";
+
     String WILDFLY_PROVISIONING_DIR = "wildfly.provisioning.dir";
 
     String WILDFLY_PROVISIONING_FEATURE_PACKS = "wildfly.provisioning.feature-packs";
 
     String WILDFLY_PROVISIONING_FILE = "wildfly.provisioning.file";
 
+    String WILDFLY_PROVISIONING_FINGERPRINT = "wildfly.provisioning.fingerprint";
+
     String WILDFLY_PROVISIONING_LAYERS = "wildfly.provisioning.layers";
 
     String WILDFLY_PROVISIONING_LAYERS_EXCLUDED = "wildfly.provisioning.layers.excluded";
@@ -130,7 +136,15 @@ public interface PropertyNames {
 
     String WILDFLY_PROVISIONING_OVERWRITE_PROVISIONED_SERVER = "wildfly.provisioning.overwrite-provisioned-server";
 
+    String WILDFLY_PROVISIONING_RESOLUTION_THREADS = "wildfly.provisioning.resolution.threads";
+
     String WILDFLY_PROVISIONING_RECORD_STATE = "wildfly.provisioning.record.state";
 
+    String WILDFLY_PROVISIONING_SERVER_CACHE = "wildfly.provisioning.server.cache";
+
+    String WILDFLY_PROVISIONING_SERVER_CACHE_DIR = "wildfly.provisioning.server.cache.dir";
+
+    String WILDFLY_PROVISIONING_SERVER_CACHE_MAX_SIZE = "wildfly.provisioning.server.cache.max-size";
+
     String WILDFLY_VERSION = "wildfly.version";
 }
@@ -63,6 +63,26 @@ abstract class AbstractDeployment extends AbstractServerConnection {
     @Parameter(defaultValue = "false", property = PropertyNames.SKIP)
     private boolean skip;
 
+    /**
+     * Set to {@code true} to deploy the content as an unmanaged deployment. The server reads the content from its
+     * location, for example the {@code target} directory, instead of a copy uploaded to the content repository of the
+     * server. Redeploying the content only makes the server read it again from the same location.
+     * <p>
+     * This option is ignored, and the content is uploaded, if the server does not run on this machine. Note that on
+     * Windows the server may lock an unmanaged archive, which can prevent the archive from being rebuilt.
+     * </p>
+     * <p>
+     * Whether the server runs on this machine is determined from its host name only. A server in a container whose
+     * management port is forwarded to {@code localhost} is considered local, but it cannot read the content in the
+     * {@code target} directory. Do not enable this option for such a server, unless the directory is mounted at the
+     * same path in the container.
+     * </p>
+     *
+     * @since 6.0
+     */
+    @Parameter(defaultValue = "false", property = PropertyNames.DEPLOYMENT_UNMANAGED)
+    private boolean unmanaged;
+
     /**
      * The archive file.
      *
@@ -109,6 +129,14 @@ abstract class AbstractDeployment extends AbstractServerConnection {
             throws IOException, MojoDeploymentException;
 
     protected Deployment createDeployment() {
+        if (unmanaged) {
+            if (isLocalServer()) {
+                getLog().debug(String.format("Deploying %s as an unmanaged deployment", file()));
+                return Deployment.local(file().toPath());
+            }
+            getLog().info(String.format("The server %s is not running on this machine, the content will be uploaded.",
+                    getManagementHostName()));
+        }
         return Deployment.of(file());
     }
 
@@ -0,0 +1,128 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.plugin.dev;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Hands the changes collected by the watcher over to the build worker. Changes offered while the worker is idle or
+ * busy are merged into a single pending set, so the worker always builds the latest state of the sources. Changes
+ * offered while the worker is building mark the current cycle as superseded, the worker can then stop the cycle and
+ * {@linkplain #requeue(ChangeSet) requeue} its changes to be built together with the newer changes.
+ */
+class ChangeQueue {
+    private ChangeSet pending;
+    private ChangeSet current;
+    private long pendingDetected;
+    private long detected;
+    private boolean building;
+    private boolean superseded;
+
+    /**
+     * Adds the changes to the pending changes.
+     *
+     * @param changes  the changes
+     * @param detected the {@linkplain System#nanoTime() time} the first change was detected
+     */
+    synchronized void offer(final ChangeSet changes, final long detected) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (pending == null) {
+            pending = changes;
+            pendingDetected = detected;
+        } else {
+            pending.addAll(changes);
+        }
+        if (building) {
+            superseded = true;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Waits for pending changes and marks the worker as building them.
+     *
+     * @return the changes to build
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    synchronized ChangeSet take() throws InterruptedException {
+        while (pending == null) {
+            wait();
+        }
+        final ChangeSet result = pending;
+        detected = pendingDetected;
+        pending = null;
+        current = result;
+        building = true;
+        superseded = false;
+        return result;
+    }
+
+    /**
+     * The {@linkplain System#nanoTime() time} the first change of the set last {@linkplain #take() taken} was
+     * detected.
+     *
+     * @return the time the changes were detected
+     */
+    synchronized long detected() {
+        return detected;
+    }
+
+    /**
+     * Indicates whether changes have been offered since the current changes were taken.
+     *
+     * @return {@code true} if the current build is stale
+     */
+    synchronized boolean isSuperseded() {
+        return superseded;
+    }
+
+    /**
+     * Puts the changes of a stopped build back in front of the pending changes.
+     *
+     * @param changes  the changes which were not built
+     * @param detected the time the changes were detected
+     */
+    synchronized void requeue(final ChangeSet changes, final long detected) {
+        if (pending != null) {
+            changes.addAll(pending);
+        }
+        pending = changes;
+        pendingDetected = detected;
+        current = null;
+        building = false;
+        notifyAll();
+    }
+
+    /**
+     * Marks the current build as done.
+     */
+    synchronized void done() {
+        current = null;
+        building = false;
+        superseded = false;
+    }
+
+    /**
+     * The files of the pending changes and of the changes being built, which have not been deployed yet.
+     *
+     * @return the changed files not deployed yet
+     */
+    synchronized Set<Path> unfinished() {
+        final Set<Path> files = new HashSet<>();
+        if (pending != null) {
+            files.addAll(pending.changes().keySet());
+        }
+        if (current != null) {
+            files.addAll(current.changes().keySet());
+        }
+        return files;
+    }
+}
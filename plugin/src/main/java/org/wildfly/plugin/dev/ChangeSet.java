@@ -0,0 +1,159 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.plugin.dev;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A set of file changes collected during a quiet period. The {@linkplain WatchHandler.Result results} of each change
+ * are merged so a single build and deploy cycle can be executed for the whole set.
+ */
+class ChangeSet implements WatchHandler.Result {
+
+    private final Map<Path, WatchEvent.Kind<Path>> changes = new LinkedHashMap<>();
+    private boolean requiresRecompile;
+    private boolean requiresRedeploy;
+    private boolean requiresCopyResources;
+    private boolean requiresRepackage;
+    private boolean requiresModuleRebuild;
+    private boolean redeployRequiredByOther;
+    private boolean repackageRequiredByOther;
+    private boolean redeployRequiredWithoutDirectCopy;
+
+    /**
+     * Adds a change to this set and merges the result of handling the change.
+     *
+     * @param kind   the kind of the change
+     * @param file   the absolute path of the changed file
+     * @param result the result of handling the change
+     */
+    void add(final WatchEvent.Kind<Path> kind, final Path file, final WatchHandler.Result result) {
+        changes.merge(file, kind, ChangeSet::mergeKind);
+        requiresRecompile |= result.requiresRecompile();
+        requiresRedeploy |= result.requiresRedeploy();
+        requiresCopyResources |= result.requiresCopyResources();
+        requiresRepackage |= result.requiresRepackage();
+        requiresModuleRebuild |= result.requiresModuleRebuild();
+        redeployRequiredByOther |= result.requiresRedeploy() && !result.allowsClassRedefinition();
+        repackageRequiredByOther |= result.requiresRepackage() && !result.allowsDirectCopy();
+        redeployRequiredWithoutDirectCopy |= result.requiresRedeploy() && !result.allowsDirectCopy();
+    }
+
+    /**
+     * Adds all changes of the other set to this set. The changes of the other set are considered to have happened
+     * after the changes of this set.
+     *
+     * @param other the changes to add
+     */
+    void addAll(final ChangeSet other) {
+        other.changes.forEach((file, kind) -> changes.merge(file, kind, ChangeSet::mergeKind));
+        requiresRecompile |= other.requiresRecompile;
+        requiresRedeploy |= other.requiresRedeploy;
+        requiresCopyResources |= other.requiresCopyResources;
+        requiresRepackage |= other.requiresRepackage;
+        requiresModuleRebuild |= other.requiresModuleRebuild;
+        redeployRequiredByOther |= other.redeployRequiredByOther;
+        repackageRequiredByOther |= other.repackageRequiredByOther;
+        redeployRequiredWithoutDirectCopy |= other.redeployRequiredWithoutDirectCopy;
+    }
+
+    /**
+     * Indicates whether any file was deleted in this set of changes.
+     *
+     * @return {@code true} if at least one file was deleted
+     */
+    boolean hasDeletions() {
+        return changes.containsValue(ENTRY_DELETE);
+    }
+
+    /**
+     * Indicates whether this set has any changes.
+     *
+     * @return {@code true} if no changes have been added
+     */
+    boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * The number of distinct files changed.
+     *
+     * @return the number of files changed
+     */
+    int size() {
+        return changes.size();
+    }
+
+    /**
+     * An unmodifiable view of the changed files and the effective kind of change for each file.
+     *
+     * @return the changes
+     */
+    Map<Path, WatchEvent.Kind<Path>> changes() {
+        return Collections.unmodifiableMap(changes);
+    }
+
+    @Override
+    public boolean requiresRecompile() {
+        return requiresRecompile;
+    }
+
+    @Override
+    public boolean requiresRedeploy() {
+        return requiresRedeploy;
+    }
+
+    @Override
+    public boolean requiresCopyResources() {
+        return requiresCopyResources;
+    }
+
+    @Override
+    public boolean requiresRepackage() {
+        return requiresRepackage;
+    }
+
+    @Override
+    public boolean requiresModuleRebuild() {
+        return requiresModuleRebuild;
+    }
+
+    @Override
+    public boolean allowsClassRedefinition() {
+        // Only if each change requiring a redeploy allows redefinition, deleted classes always require a redeploy
+        return requiresRedeploy && !redeployRequiredByOther && !hasDeletions();
+    }
+
+    @Override
+    public boolean allowsDirectCopy() {
+        // Only if each change requiring a repackage allows a direct copy, deleted files always require a repackage.
+        // Changes which are not copied, such as rebuilt reactor modules, may still require a redeploy.
+        return requiresRepackage && !repackageRequiredByOther && !redeployRequiredWithoutDirectCopy
+                && !requiresModuleRebuild && !hasDeletions();
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeSet[files=" + changes.size() + ", recompile=" + requiresRecompile + ", copyResources="
+                + requiresCopyResources + ", repackage=" + requiresRepackage + ", moduleRebuild="
+                + requiresModuleRebuild + ", redeploy=" + requiresRedeploy + "]";
+    }
+
+    private static WatchEvent.Kind<Path> mergeKind(final WatchEvent.Kind<Path> previous, final WatchEvent.Kind<Path> current) {
+        // A file created then modified is still a new file, any other sequence is represented by the last event
+        if (previous == ENTRY_CREATE && current != ENTRY_DELETE) {
+            return ENTRY_CREATE;
+        }
+        return current;
+    }
+}
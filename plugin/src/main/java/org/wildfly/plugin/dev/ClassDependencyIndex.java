@@ -0,0 +1,162 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.plugin.dev;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An index of the compiled classes of a project. The index tracks which classes reference which other classes and the
+ * source file each class was compiled from.
+ */
+class ClassDependencyIndex {
+    private final Map<String, ClassFileInfo> classes = new HashMap<>();
+    // Class name -> the classes which reference the class
+    private final Map<String, Set<String>> dependents = new HashMap<>();
+    // Source path -> the classes compiled from the source file
+    private final Map<String, Set<String>> classesBySource = new HashMap<>();
+
+    /**
+     * Creates an index of the class files found in the directory.
+     *
+     * @param outputDirectory the directory containing the compiled classes
+     *
+     * @return the index
+     *
+     * @throws IOException if an error occurs reading the class files
+     */
+    static ClassDependencyIndex build(final Path outputDirectory) throws IOException {
+        final ClassDependencyIndex index = new ClassDependencyIndex();
+        if (Files.isDirectory(outputDirectory)) {
+            final List<Path> classFiles;
+            try (Stream<Path> files = Files.walk(outputDirectory)) {
+                classFiles = files.filter(f -> f.getFileName().toString().endsWith(".class"))
+                        .collect(Collectors.toList());
+            }
+            for (Path classFile : classFiles) {
+                index.add(ClassFileInfo.read(classFile));
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Adds, or replaces, the class in the index.
+     *
+     * @param info the class to add
+     */
+    void add(final ClassFileInfo info) {
+        remove(info.name());
+        classes.put(info.name(), info);
+        for (String referenced : info.referencedClasses()) {
+            dependents.computeIfAbsent(referenced, (key) -> new HashSet<>()).add(info.name());
+        }
+        final String sourcePath = info.sourcePath();
+        if (sourcePath != null) {
+            classesBySource.computeIfAbsent(sourcePath, (key) -> new HashSet<>()).add(info.name());
+        }
+    }
+
+    /**
+     * Removes the class from the index.
+     *
+     * @param name the internal name of the class
+     *
+     * @return the class removed or {@code null} if the class was not in the index
+     */
+    ClassFileInfo remove(final String name) {
+        final ClassFileInfo info = classes.remove(name);
+        if (info != null) {
+            for (String referenced : info.referencedClasses()) {
+                final Set<String> names = dependents.get(referenced);
+                if (names != null) {
+                    names.remove(name);
+                    if (names.isEmpty()) {
+                        dependents.remove(referenced);
+                    }
+                }
+            }
+            final String sourcePath = info.sourcePath();
+            if (sourcePath != null) {
+                final Set<String> names = classesBySource.get(sourcePath);
+                if (names != null) {
+                    names.remove(name);
+                    if (names.isEmpty()) {
+                        classesBySource.remove(sourcePath);
+                    }
+                }
+            }
+        }
+        return info;
+    }
+
+    /**
+     * Returns the class from the index.
+     *
+     * @param name the internal name of the class
+     *
+     * @return the class or {@code null} if the class is not in the index
+     */
+    ClassFileInfo get(final String name) {
+        return classes.get(name);
+    }
+
+    /**
+     * Indicates whether the index is empty.
+     *
+     * @return {@code true} if there are no classes in the index
+     */
+    boolean isEmpty() {
+        return classes.isEmpty();
+    }
+
+    /**
+     * Returns the names of the classes compiled from the source file.
+     *
+     * @param sourcePath the path of the source file relative to its source root
+     *
+     * @return the names of the classes compiled from the source
+     */
+    Set<String> classesOf(final String sourcePath) {
+        return Set.copyOf(classesBySource.getOrDefault(sourcePath, Set.of()));
+    }
+
+    /**
+     * Returns the classes which directly or indirectly reference any of the classes.
+     *
+     * @param names the internal names of the classes
+     *
+     * @return the dependent classes, not including the classes passed in
+     */
+    Set<ClassFileInfo> dependentsOf(final Collection<String> names) {
+        final Set<String> seen = new HashSet<>(names);
+        final Deque<String> queue = new ArrayDeque<>(names);
+        final Set<ClassFileInfo> result = new HashSet<>();
+        while (!queue.isEmpty()) {
+            for (String dependent : dependents.getOrDefault(queue.poll(), Set.of())) {
+                if (seen.add(dependent)) {
+                    queue.add(dependent);
+                    final ClassFileInfo info = classes.get(dependent);
+                    if (info != null) {
+                        result.add(info);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,524 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.plugin.dev;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A minimal view of a class file. Only the information required by the dev goal is read, method bodies are skipped.
+ */
+class ClassFileInfo {
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+    private static final String RUNTIME_INVISIBLE_ANNOTATIONS = "RuntimeInvisibleAnnotations";
+    private static final String RUNTIME_VISIBLE_PARAMETER_ANNOTATIONS = "RuntimeVisibleParameterAnnotations";
+    private static final String RUNTIME_INVISIBLE_PARAMETER_ANNOTATIONS = "RuntimeInvisibleParameterAnnotations";
+    private static final Pattern ANNOTATION_TYPE = Pattern.compile("@L([^;(]+);\\(");
+
+    private final String name;
+    private final String superName;
+    private final int access;
+    private final List<String> interfaces;
+    private final Set<String> fields;
+    private final Set<String> methods;
+    private final Set<String> classAttributes;
+    private final String sourceFile;
+    private final Set<String> referencedClasses;
+    private final Set<String> referencedPackages;
+
+    private ClassFileInfo(final String name, final String superName, final int access, final List<String> interfaces,
+            final Set<String> fields, final Set<String> methods, final Set<String> classAttributes,
+            final String sourceFile, final Set<String> referencedClasses) {
+        this.name = name;
+        this.superName = superName;
+        this.access = access;
+        this.interfaces = interfaces;
+        this.fields = fields;
+        this.methods = methods;
+        this.classAttributes = classAttributes;
+        this.sourceFile = sourceFile;
+        this.referencedClasses = referencedClasses;
+        final Set<String> referencedPackages = new TreeSet<>();
+        for (String referencedClass : referencedClasses) {
+            final int slash = referencedClass.lastIndexOf('/');
+            if (slash > 0) {
+                referencedPackages.add(referencedClass.substring(0, slash));
+            }
+        }
+        this.referencedPackages = Collections.unmodifiableSet(referencedPackages);
+    }
+
+    /**
+     * Reads the class file.
+     *
+     * @param file the class file to read
+     *
+     * @return the class information
+     *
+     * @throws IOException if the file cannot be read or is not a valid class file
+     */
+    static ClassFileInfo read(final Path file) throws IOException {
+        return read(Files.readAllBytes(file));
+    }
+
+    /**
+     * Reads the class file.
+     *
+     * @param bytes the bytes of the class file
+     *
+     * @return the class information
+     *
+     * @throws IOException if the bytes are not a valid class file
+     */
+    static ClassFileInfo read(final byte[] bytes) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a valid class file");
+            }
+            // minor and major version
+            in.readUnsignedShort();
+            in.readUnsignedShort();
+            final int poolSize = in.readUnsignedShort();
+            // Holds the UTF-8 and numeric constants as strings
+            final String[] constants = new String[poolSize];
+            final int[] classIndexes = new int[poolSize];
+            final int[] stringIndexes = new int[poolSize];
+            for (int i = 1; i < poolSize; i++) {
+                final int tag = in.readUnsignedByte();
+                switch (tag) {
+                    case CONSTANT_UTF8:
+                        constants[i] = in.readUTF();
+                        break;
+                    case CONSTANT_CLASS:
+                        classIndexes[i] = in.readUnsignedShort();
+                        break;
+                    case CONSTANT_STRING:
+                        stringIndexes[i] = in.readUnsignedShort();
+                        break;
+                    case CONSTANT_MODULE:
+                    case CONSTANT_PACKAGE:
+                        // Only used by module-info, the names of modules and packages are not classes
+                    case CONSTANT_METHOD_TYPE:
+                        in.readUnsignedShort();
+                        break;
+                    case CONSTANT_METHOD_HANDLE:
+                        in.readUnsignedByte();
+                        in.readUnsignedShort();
+                        break;
+                    case CONSTANT_INTEGER:
+                        constants[i] = Integer.toString(in.readInt());
+                        break;
+                    case CONSTANT_FLOAT:
+                        constants[i] = Float.toString(in.readFloat());
+                        break;
+                    case CONSTANT_FIELDREF:
+                    case CONSTANT_METHODREF:
+                    case CONSTANT_INTERFACE_METHODREF:
+                    case CONSTANT_NAME_AND_TYPE:
+                    case CONSTANT_DYNAMIC:
+                    case CONSTANT_INVOKE_DYNAMIC:
+                        in.readInt();
+                        break;
+                    case CONSTANT_LONG:
+                        constants[i] = Long.toString(in.readLong());
+                        // Long and double entries take two slots
+                        i++;
+                        break;
+                    case CONSTANT_DOUBLE:
+                        constants[i] = Double.toString(in.readDouble());
+                        i++;
+                        break;
+                    default:
+                        throw new IOException("Unknown constant pool tag " + tag);
+                }
+            }
+            final ConstantPool pool = new ConstantPool(constants, classIndexes, stringIndexes);
+            final int access = in.readUnsignedShort();
+            final String name = pool.className(in.readUnsignedShort());
+            final String superName = pool.className(in.readUnsignedShort());
+            final int interfaceCount = in.readUnsignedShort();
+            final List<String> interfaces = new ArrayList<>(interfaceCount);
+            for (int i = 0; i < interfaceCount; i++) {
+                interfaces.add(pool.className(in.readUnsignedShort()));
+            }
+            final Set<String> referencedClasses = new TreeSet<>();
+            for (int i = 1; i < poolSize; i++) {
+                if (classIndexes[i] > 0) {
+                    final String className = constants[classIndexes[i]];
+                    if (className.charAt(0) == '[') {
+                        addDescriptorClasses(className, referencedClasses);
+                    } else {
+                        addClass(className, referencedClasses);
+                    }
+                }
+            }
+            final Set<String> fields = readMembers(in, pool, referencedClasses);
+            final Set<String> methods = readMembers(in, pool, referencedClasses);
+            String sourceFile = null;
+            final Set<String> classAttributes = new TreeSet<>();
+            final int attributeCount = in.readUnsignedShort();
+            for (int i = 0; i < attributeCount; i++) {
+                final String attributeName = pool.utf8(in.readUnsignedShort());
+                final int length = in.readInt();
+                switch (attributeName) {
+                    case "NestHost":
+                        classAttributes.add("NestHost " + pool.className(in.readUnsignedShort()));
+                        break;
+                    case "NestMembers":
+                    case "PermittedSubclasses": {
+                        final int count = in.readUnsignedShort();
+                        for (int j = 0; j < count; j++) {
+                            classAttributes.add(attributeName + " " + pool.className(in.readUnsignedShort()));
+                        }
+                        break;
+                    }
+                    case "Record": {
+                        final int count = in.readUnsignedShort();
+                        for (int j = 0; j < count; j++) {
+                            classAttributes.add("Record " + pool.utf8(in.readUnsignedShort()) + " "
+                                    + pool.utf8(in.readUnsignedShort()));
+                            skipAttributes(in);
+                        }
+                        break;
+                    }
+                    case RUNTIME_VISIBLE_ANNOTATIONS:
+                    case RUNTIME_INVISIBLE_ANNOTATIONS:
+                        readAnnotations(in, pool, classAttributes, referencedClasses);
+                        break;
+                    case "SourceFile":
+                        sourceFile = pool.utf8(in.readUnsignedShort());
+                        break;
+                    default:
+                        in.skipNBytes(Integer.toUnsignedLong(length));
+                }
+            }
+            return new ClassFileInfo(name, superName, access, Collections.unmodifiableList(interfaces),
+                    Collections.unmodifiableSet(fields), Collections.unmodifiableSet(methods),
+                    Collections.unmodifiableSet(classAttributes), sourceFile, referencedClasses);
+        }
+    }
+
+    /**
+     * The internal name of the class, e.g. {@code org/example/Foo}.
+     *
+     * @return the internal name of the class
+     */
+    String name() {
+        return name;
+    }
+
+    /**
+     * The binary name of the class, e.g. {@code org.example.Foo}.
+     *
+     * @return the binary name of the class
+     */
+    String binaryName() {
+        return name.replace('/', '.');
+    }
+
+    /**
+     * The path of the source file, relative to the source root, the class was compiled from.
+     *
+     * @return the relative path of the source file or {@code null} if the class file has no source file attribute
+     */
+    String sourcePath() {
+        if (sourceFile == null) {
+            return null;
+        }
+        final int slash = name.lastIndexOf('/');
+        return slash > 0 ? name.substring(0, slash + 1) + sourceFile : sourceFile;
+    }
+
+    /**
+     * Checks whether this class defines fields with a constant value. Compilers inline constant values into the
+     * classes using them, which means there is no reference to this class in those classes.
+     *
+     * @return {@code true} if this class defines fields with constant values
+     */
+    boolean hasConstants() {
+        for (String field : fields) {
+            if (field.contains(" = ")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The internal names of the types referenced by this class, not including the class itself. This includes types
+     * used in method bodies, member signatures and annotations.
+     *
+     * @return the referenced classes
+     */
+    Set<String> referencedClasses() {
+        final Set<String> result = new TreeSet<>(referencedClasses);
+        result.remove(name);
+        return result;
+    }
+
+    /**
+     * The packages, in internal form, of the types referenced by this class. This includes types used in method bodies,
+     * member signatures and annotations.
+     *
+     * @return the referenced packages
+     */
+    Set<String> referencedPackages() {
+        return referencedPackages;
+    }
+
+    /**
+     * The internal names of the annotation types used on this class, its members and their parameters.
+     *
+     * @return the annotation types
+     */
+    Set<String> annotationTypes() {
+        final Set<String> result = new TreeSet<>();
+        for (Set<String> values : List.of(classAttributes, fields, methods)) {
+            for (String value : values) {
+                final Matcher matcher = ANNOTATION_TYPE.matcher(value);
+                while (matcher.find()) {
+                    result.add(matcher.group(1));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The internal name of the super class.
+     *
+     * @return the super class or {@code null} for {@code java.lang.Object}
+     */
+    String superName() {
+        return superName;
+    }
+
+    /**
+     * The internal names of the interfaces this class implements.
+     *
+     * @return the interfaces
+     */
+    List<String> interfaces() {
+        return Collections.unmodifiableList(interfaces);
+    }
+
+    /**
+     * Checks whether the structure of this class, everything except the method bodies, is the same as the structure of
+     * the other class. Two classes with the same structure can be redefined in a running JVM. The values of constant
+     * fields are part of the structure, as they are inlined into the classes using them.
+     *
+     * @param other the class to compare
+     *
+     * @return {@code true} if only method bodies may differ between the two classes
+     */
+    boolean hasSameStructure(final ClassFileInfo other) {
+        return access == other.access
+                && name.equals(other.name)
+                && Objects.equals(superName, other.superName)
+                && interfaces.equals(other.interfaces)
+                && fields.equals(other.fields)
+                && methods.equals(other.methods)
+                && classAttributes.equals(other.classAttributes);
+    }
+
+    @Override
+    public String toString() {
+        return "ClassFileInfo[name=" + name + "]";
+    }
+
+    private static Set<String> readMembers(final DataInputStream in, final ConstantPool pool, final Set<String> classes)
+            throws IOException {
+        final Set<String> members = new TreeSet<>();
+        final int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            final int access = in.readUnsignedShort();
+            final String name = pool.utf8(in.readUnsignedShort());
+            final String descriptor = pool.utf8(in.readUnsignedShort());
+            addDescriptorClasses(descriptor, classes);
+            // Annotations are part of the member as a change in an annotation generally requires a redeploy
+            final Set<String> annotations = new TreeSet<>();
+            String constantValue = null;
+            final int attributeCount = in.readUnsignedShort();
+            for (int j = 0; j < attributeCount; j++) {
+                final String attributeName = pool.utf8(in.readUnsignedShort());
+                final long length = Integer.toUnsignedLong(in.readInt());
+                switch (attributeName) {
+                    case RUNTIME_VISIBLE_ANNOTATIONS:
+                    case RUNTIME_INVISIBLE_ANNOTATIONS:
+                        readAnnotations(in, pool, annotations, classes);
+                        break;
+                    case "ConstantValue":
+                        constantValue = pool.constant(in.readUnsignedShort());
+                        break;
+                    case RUNTIME_VISIBLE_PARAMETER_ANNOTATIONS:
+                    case RUNTIME_INVISIBLE_PARAMETER_ANNOTATIONS: {
+                        final int parameters = in.readUnsignedByte();
+                        for (int p = 0; p < parameters; p++) {
+                            final Set<String> parameterAnnotations = new TreeSet<>();
+                            readAnnotations(in, pool, parameterAnnotations, classes);
+                            for (String annotation : parameterAnnotations) {
+                                annotations.add(p + ":" + annotation);
+                            }
+                        }
+                        break;
+                    }
+                    default:
+                        in.skipNBytes(length);
+                }
+            }
+            members.add(access + " " + name + descriptor + (constantValue == null ? "" : " = " + constantValue)
+                    + (annotations.isEmpty() ? "" : " " + annotations));
+        }
+        return members;
+    }
+
+    private static void readAnnotations(final DataInputStream in, final ConstantPool pool, final Set<String> annotations,
+            final Set<String> classes) throws IOException {
+        final int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            final StringBuilder annotation = new StringBuilder();
+            readAnnotation(in, pool, annotation, classes);
+            annotations.add(annotation.toString());
+        }
+    }
+
+    private static void readAnnotation(final DataInputStream in, final ConstantPool pool, final StringBuilder annotation,
+            final Set<String> classes) throws IOException {
+        final String type = pool.utf8(in.readUnsignedShort());
+        addDescriptorClasses(type, classes);
+        annotation.append('@').append(type).append('(');
+        final int pairs = in.readUnsignedShort();
+        for (int i = 0; i < pairs; i++) {
+            if (i > 0) {
+                annotation.append(',');
+            }
+            annotation.append(pool.utf8(in.readUnsignedShort())).append('=');
+            readElementValue(in, pool, annotation, classes);
+        }
+        annotation.append(')');
+    }
+
+    private static void readElementValue(final DataInputStream in, final ConstantPool pool, final StringBuilder value,
+            final Set<String> classes) throws IOException {
+        final int tag = in.readUnsignedByte();
+        switch (tag) {
+            case 'e': {
+                final String type = pool.utf8(in.readUnsignedShort());
+                addDescriptorClasses(type, classes);
+                value.append(type).append('.').append(pool.utf8(in.readUnsignedShort()));
+                break;
+            }
+            case 'c': {
+                final String type = pool.utf8(in.readUnsignedShort());
+                addDescriptorClasses(type, classes);
+                value.append('c').append(type);
+                break;
+            }
+            case '@':
+                readAnnotation(in, pool, value, classes);
+                break;
+            case '[': {
+                final int count = in.readUnsignedShort();
+                value.append('{');
+                for (int i = 0; i < count; i++) {
+                    if (i > 0) {
+                        value.append(',');
+                    }
+                    readElementValue(in, pool, value, classes);
+                }
+                value.append('}');
+                break;
+            }
+            default:
+                // Constants and strings reference a constant pool entry we have a value for
+                value.append((char) tag).append(pool.utf8(in.readUnsignedShort()));
+        }
+    }
+
+    private static void addDescriptorClasses(final String descriptor, final Set<String> classes) {
+        int i = 0;
+        while (i < descriptor.length()) {
+            if (descriptor.charAt(i) == 'L') {
+                final int end = descriptor.indexOf(';', i);
+                if (end < 0) {
+                    return;
+                }
+                addClass(descriptor.substring(i + 1, end), classes);
+                i = end + 1;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private static void addClass(final String internalName, final Set<String> classes) {
+        classes.add(internalName);
+    }
+
+    private static void skipAttributes(final DataInputStream in) throws IOException {
+        final int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            in.readUnsignedShort();
+            in.skipNBytes(Integer.toUnsignedLong(in.readInt()));
+        }
+    }
+
+    private static class ConstantPool {
+        private final String[] constants;
+        private final int[] classIndexes;
+        private final int[] stringIndexes;
+
+        private ConstantPool(final String[] constants, final int[] classIndexes, final int[] stringIndexes) {
+            this.constants = constants;
+            this.classIndexes = classIndexes;
+            this.stringIndexes = stringIndexes;
+        }
+
+        String constant(final int index) {
+            return stringIndexes[index] > 0 ? '"' + constants[stringIndexes[index]] + '"' : constants[index];
+        }
+
+        String utf8(final int index) {
+            return constants[index];
+        }
+
+        String className(final int index) {
+            // Index 0 is used for java/lang/Object's super class
+            return index == 0 ? null : constants[classIndexes[index]];
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.plugin.dev;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.plugin.logging.Log;
+
+import com.sun.jdi.Bootstrap;
+import com.sun.jdi.ReferenceType;
+import com.sun.jdi.VirtualMachine;
+import com.sun.jdi.connect.AttachingConnector;
+import com.sun.jdi.connect.Connector;
+import com.sun.jdi.connect.IllegalConnectorArgumentsException;
+
+/**
+ * Redefines classes in a running server over JDWP. A connection is only held for the duration of a redefinition,
+ * which allows a debugger to be attached to the server in between.
+ * <p>
+ * This class should only be loaded if hot swapping has been enabled as it requires the {@code jdk.jdi} module.
+ * </p>
+ */
+class ClassRedefiner {
+    private static final String SOCKET_TRANSPORT = "dt_socket";
+
+    private final Log log;
+    private final String host;
+    private final int port;
+
+    ClassRedefiner(final Log log, final String host, final int port) {
+        this.log = log;
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Redefines the classes in the running server. Classes which are not yet loaded are ignored as the new definition
+     * will be loaded from the deployment.
+     *
+     * @param classes a map of binary class names to the new class bytes
+     *
+     * @return {@code true} if the classes were redefined, {@code false} if the classes could not be redefined and the
+     *             deployment must be redeployed
+     */
+    boolean redefine(final Map<String, byte[]> classes) {
+        final VirtualMachine vm;
+        try {
+            vm = attach();
+        } catch (IOException | IllegalConnectorArgumentsException e) {
+            log.debug(String.format("[WATCH] Failed to attach to %s:%d, a debugger may already be attached: %s", host, port,
+                    e));
+            return false;
+        }
+        try {
+            if (!vm.canRedefineClasses()) {
+                log.debug("[WATCH] The server JVM does not support redefining classes");
+                return false;
+            }
+            final Map<ReferenceType, byte[]> toRedefine = new HashMap<>();
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                // The same class may be loaded by more than one class loader, e.g. a previous deployment
+                for (ReferenceType type : vm.classesByName(entry.getKey())) {
+                    toRedefine.put(type, entry.getValue());
+                }
+            }
+            if (!toRedefine.isEmpty()) {
+                vm.redefineClasses(toRedefine);
+            }
+            log.info(String.format("Redefined %d of %d changed classes in the running server", toRedefine.size(),
+                    classes.size()));
+            return true;
+        } catch (RuntimeException | LinkageError e) {
+            // UnsupportedOperationException, VerifyError, ClassFormatError etc. all indicate a redeploy is required
+            log.info(String.format("Classes could not be redefined, redeploying: %s", e));
+            return false;
+        } finally {
+            vm.dispose();
+        }
+    }
+
+    private VirtualMachine attach() throws IOException, IllegalConnectorArgumentsException {
+        final List<AttachingConnector> connectors = Bootstrap.virtualMachineManager().attachingConnectors();
+        for (AttachingConnector connector : connectors) {
+            if (SOCKET_TRANSPORT.equals(connector.transport().name())) {
+                final Map<String, Connector.Argument> arguments = connector.defaultArguments();
+                arguments.get("hostname").setValue(host);
+                arguments.get("port").setValue(Integer.toString(port));
+                return connector.attach(arguments);
+            }
+        }
+        throw new IOException("No socket attaching connector found");
+    }
+}
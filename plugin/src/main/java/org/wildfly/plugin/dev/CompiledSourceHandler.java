@@ -34,6 +34,11 @@ class CompiledSourceHandler implements WatchHandler {
             public boolean requiresRepackage() {
                 return true;
             }
+
+            @Override
+            public boolean allowsClassRedefinition() {
+                return true;
+            }
         };
     }
 }
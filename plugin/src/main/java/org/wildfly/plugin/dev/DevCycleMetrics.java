@@ -0,0 +1,309 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.plugin.dev;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.logging.Log;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Records the time spent in each stage of the dev mode cycles and the latency from the detection of a change until
+ * the change has been deployed.
+ * <p>
+ * A cycle is started with {@link #begin(long)}, each call to {@link #enter(Stage)} ends the current stage and starts
+ * the next one. The cycle is ended with {@link #complete(boolean)}. All times are taken from
+ * {@link System#nanoTime()}.
+ * </p>
+ * <p>
+ * If a metrics file is configured, the metrics are written to it once each cycle is completed. Dev mode ends when the
+ * JVM is terminated, so the file must be up-to-date at any time rather than written when the goal ends.
+ * </p>
+ */
+class DevCycleMetrics {
+
+    /**
+     * The stages of a dev mode cycle.
+     */
+    enum Stage {
+        DETECT,
+        RESOURCES,
+        COMPILE,
+        PACKAGE,
+        HOT_SWAP,
+        PROVISION,
+        DEPLOY;
+
+        private final String key = name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    private final Path file;
+    private final Log log;
+    private final Map<Stage, LatencyHistogram> stageHistograms = new EnumMap<>(Stage.class);
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final long[] current = new long[Stage.values().length];
+    private int cycles;
+    private int failures;
+    private long cycleStart = -1L;
+    private Stage stage;
+    private long stageStart;
+
+    /**
+     * Creates metrics which are not written to a file.
+     */
+    DevCycleMetrics() {
+        this(null, null);
+    }
+
+    /**
+     * Creates metrics which are written to the file after each cycle.
+     *
+     * @param file the metrics file
+     * @param log  the log used to report a failure to write the file
+     */
+    DevCycleMetrics(final Path file, final Log log) {
+        this.file = file;
+        this.log = log;
+    }
+
+    /**
+     * Starts a new cycle.
+     *
+     * @param detected the time the first change of the cycle was detected
+     */
+    void begin(final long detected) {
+        Arrays.fill(current, 0L);
+        cycleStart = detected;
+        stage = Stage.DETECT;
+        stageStart = detected;
+    }
+
+    /**
+     * Ends the current stage and starts the stage passed. Does nothing if no cycle has been started.
+     *
+     * @param next the stage being entered
+     */
+    void enter(final Stage next) {
+        if (cycleStart < 0L) {
+            return;
+        }
+        final long now = System.nanoTime();
+        current[stage.ordinal()] += now - stageStart;
+        stage = next;
+        stageStart = now;
+    }
+
+    /**
+     * Discards the current cycle, for example if no files changed.
+     */
+    void discard() {
+        cycleStart = -1L;
+    }
+
+    /**
+     * Ends the current cycle and records the stage times. The end-to-end latency is only recorded for successful
+     * cycles. The metrics are written to the metrics file, if any.
+     *
+     * @param successful {@code true} if the changes were deployed
+     *
+     * @return a one line summary of the cycle or {@code null} if no cycle was started
+     */
+    String complete(final boolean successful) {
+        if (cycleStart < 0L) {
+            return null;
+        }
+        final long now = System.nanoTime();
+        current[stage.ordinal()] += now - stageStart;
+        final long total = now - cycleStart;
+        cycleStart = -1L;
+        cycles++;
+        final StringJoiner stages = new StringJoiner(", ", " (", ")");
+        for (Stage s : Stage.values()) {
+            final long time = current[s.ordinal()];
+            if (time > 0L) {
+                stageHistograms.computeIfAbsent(s, k -> new LatencyHistogram()).record(toMicros(time));
+                stages.add(s.key + " " + TimeUnit.NANOSECONDS.toMillis(time) + " ms");
+            }
+        }
+        if (successful) {
+            latency.record(toMicros(total));
+        } else {
+            failures++;
+        }
+        if (file != null) {
+            try {
+                write(file);
+            } catch (IOException e) {
+                log.warn(String.format("Failed to write the dev mode cycle metrics to %s: %s", file,
+                        e.getLocalizedMessage()));
+            }
+        }
+        return String.format("%s in %d ms%s", successful ? "Changes deployed" : "Failed to deploy changes",
+                TimeUnit.NANOSECONDS.toMillis(total), stages);
+    }
+
+    /**
+     * Returns the number of completed cycles.
+     *
+     * @return the number of cycles
+     */
+    int cycles() {
+        return cycles;
+    }
+
+    /**
+     * Returns the end-to-end latency histogram of the successful cycles.
+     *
+     * @return the latency histogram
+     */
+    LatencyHistogram latency() {
+        return latency;
+    }
+
+    /**
+     * Creates a JSON representation of the recorded metrics.
+     *
+     * @return the metrics
+     */
+    ModelNode toModelNode() {
+        final ModelNode result = new ModelNode();
+        result.get("cycles").set(cycles);
+        result.get("failures").set(failures);
+        result.get("latency").set(latency.toModelNode());
+        final ModelNode stages = result.get("stages").setEmptyObject();
+        for (Map.Entry<Stage, LatencyHistogram> entry : stageHistograms.entrySet()) {
+            stages.get(entry.getKey().key).set(entry.getValue().toModelNode());
+        }
+        return result;
+    }
+
+    /**
+     * Writes the metrics as JSON to the file.
+     *
+     * @param file the file to write
+     *
+     * @throws IOException if an error occurs writing the file
+     */
+    void write(final Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, toModelNode().toJSONString(false));
+    }
+
+    private static long toMicros(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    /**
+     * A histogram with logarithmic buckets, each divided into linear sub-buckets, which keeps the relative error of
+     * the recorded values below about 6% while using a fixed amount of memory. Values are in microseconds.
+     */
+    static class LatencyHistogram {
+        private static final int SUB_BUCKET_BITS = 5;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+
+        private final long[] counts = new long[(64 - SUB_BUCKET_BITS + 1) * HALF_SUB_BUCKETS + SUB_BUCKETS];
+        private long count;
+        private long total;
+        private long min = Long.MAX_VALUE;
+        private long max;
+
+        /**
+         * Records a value.
+         *
+         * @param value the value in microseconds
+         */
+        void record(final long value) {
+            final long v = Math.max(0L, value);
+            counts[index(v)]++;
+            count++;
+            total += v;
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+
+        /**
+         * Returns the number of recorded values.
+         *
+         * @return the number of values
+         */
+        long count() {
+            return count;
+        }
+
+        /**
+         * Returns the upper bound of the bucket containing the value at the percentile.
+         *
+         * @param percentile the percentile between 0 and 100
+         *
+         * @return the value at the percentile in microseconds or 0 if no values were recorded
+         */
+        long percentile(final double percentile) {
+            if (count == 0L) {
+                return 0L;
+            }
+            final long rank = Math.max(1L, (long) Math.ceil(count * Math.min(100.0, percentile) / 100.0));
+            long seen = 0L;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(max, upperBound(i));
+                }
+            }
+            return max;
+        }
+
+        ModelNode toModelNode() {
+            final ModelNode result = new ModelNode();
+            result.get("count").set(count);
+            result.get("min-ms").set(toMillis(count == 0L ? 0L : min));
+            result.get("mean-ms").set(count == 0L ? 0.0 : toMillis(total) / count);
+            result.get("p50-ms").set(toMillis(percentile(50)));
+            result.get("p90-ms").set(toMillis(percentile(90)));
+            result.get("p99-ms").set(toMillis(percentile(99)));
+            result.get("max-ms").set(toMillis(max));
+            final ModelNode buckets = result.get("buckets").setEmptyList();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0L) {
+                    final ModelNode bucket = new ModelNode();
+                    bucket.get("upper-ms").set(toMillis(upperBound(i)));
+                    bucket.get("count").set(counts[i]);
+                    buckets.add(bucket);
+                }
+            }
+            return result;
+        }
+
+        private static int index(final long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            final int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+            return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+        }
+
+        private static long upperBound(final int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            final int shift = index / HALF_SUB_BUCKETS - 1;
+            final long subBucket = index % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+            return ((subBucket + 1L) << shift) - 1L;
+        }
+
+        private static double toMillis(final long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
@@ -9,18 +9,13 @@ import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
 import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
-import static org.twdata.maven.mojoexecutor.MojoExecutor.artifactId;
 import static org.twdata.maven.mojoexecutor.MojoExecutor.configuration;
-import static org.twdata.maven.mojoexecutor.MojoExecutor.executeMojo;
-import static org.twdata.maven.mojoexecutor.MojoExecutor.executionEnvironment;
-import static org.twdata.maven.mojoexecutor.MojoExecutor.groupId;
-import static org.twdata.maven.mojoexecutor.MojoExecutor.plugin;
-import static org.twdata.maven.mojoexecutor.MojoExecutor.version;
 import static org.wildfly.plugin.core.Constants.STANDALONE_XML;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.FileSystems;
 import java.nio.file.FileVisitResult;
@@ -28,42 +23,70 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.DosFileAttributes;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.inject.Inject;
 
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.model.PluginExecution;
 import org.apache.maven.model.Resource;
 import org.apache.maven.plugin.BuildPluginManager;
+import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.PluginParameterExpressionEvaluator;
 import org.apache.maven.plugin.descriptor.MojoDescriptor;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.DefaultProjectBuildingRequest;
 import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+import org.apache.maven.project.ProjectBuildingException;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluationException;
+import org.codehaus.plexus.configuration.PlexusConfiguration;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.resolution.DependencyRequest;
+import org.eclipse.aether.resolution.DependencyResolutionException;
 import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.helpers.ClientConstants;
+import org.jboss.as.controller.client.helpers.Operations;
+import org.jboss.dmr.ModelNode;
 import org.jboss.galleon.ProvisioningException;
 import org.jboss.galleon.api.GalleonBuilder;
 import org.jboss.galleon.api.GalleonFeaturePack;
 import org.jboss.galleon.api.Provisioning;
-import org.jboss.galleon.api.ProvisioningBuilder;
 import org.jboss.galleon.api.config.GalleonProvisioningConfig;
 import org.jboss.galleon.maven.plugin.util.MavenArtifactRepositoryManager;
 import org.jboss.galleon.maven.plugin.util.MvnMessageWriter;
@@ -72,11 +95,15 @@ import org.jboss.logging.Logger;
 import org.twdata.maven.mojoexecutor.MojoExecutor;
 import org.wildfly.channel.UnresolvedMavenArtifactException;
 import org.wildfly.core.launcher.CommandBuilder;
+import org.wildfly.core.launcher.Launcher;
+import org.wildfly.core.launcher.StandaloneCommandBuilder;
+import org.wildfly.glow.Layer;
 import org.wildfly.glow.ScanResults;
 import org.wildfly.plugin.cli.CommandConfiguration;
 import org.wildfly.plugin.cli.CommandExecutor;
 import org.wildfly.plugin.common.Environment;
 import org.wildfly.plugin.common.PropertyNames;
+import org.wildfly.plugin.common.StandardOutput;
 import org.wildfly.plugin.common.Utils;
 import org.wildfly.plugin.core.MavenJBossLogger;
 import org.wildfly.plugin.deployment.PackageType;
@@ -124,6 +151,9 @@ public class DevMojo extends AbstractServerStartMojo {
     private static final String MAVEN_WAR_GOAL = "war";
     private static final String MAVEN_RESOURCES_PLUGIN = "maven-resources-plugin";
     private static final String MAVEN_RESOURCES_GOAL = "resources";
+    private static final String SESSION_FILE = "wildfly-dev-session.json";
+    private static final String METRICS_FILE = "wildfly-dev-metrics.json";
+    private static final String SERVER_LOG_FILE = "wildfly-dev-server.log";
 
     /**
      * Executing any one of these phases means the compile phase will have been run, if these have not been run we
@@ -220,7 +250,6 @@ public class DevMojo extends AbstractServerStartMojo {
             Map.entry("webResources", ""),
             Map.entry("webXml", ""),
             Map.entry("workDirectory", ""));
-    private final Map<WatchKey, WatchContext> watchedDirectories = new HashMap<>();
 
     @Inject
     private BuildPluginManager pluginManager;
@@ -228,6 +257,9 @@ public class DevMojo extends AbstractServerStartMojo {
     @Inject
     private CommandExecutor commandExecutor;
 
+    @Inject
+    private ProjectBuilder projectBuilder;
+
     /**
      * The CLI commands to execute before the deployment is deployed.
      */
@@ -273,6 +305,120 @@ public class DevMojo extends AbstractServerStartMojo {
     @Parameter(property = "wildfly.dev.ignore.patterns", alias = "ignore-patterns")
     private List<String> ignorePatterns = new ArrayList<>();
 
+    /**
+     * The time, in milliseconds, to wait for further file changes before a build and deploy cycle is started. All the
+     * changes which happen within this quiet period are merged and processed in a single cycle. This avoids a redeploy
+     * for each file when several files are changed at once, for example when switching branches.
+     *
+     * @since 6.0
+     */
+    @Parameter(property = "wildfly.dev.quiet.period", alias = "quiet-period", defaultValue = "300")
+    private long quietPeriod;
+
+    /**
+     * Enables redefining classes in the running server when only method bodies have changed. After the sources are
+     * compiled, the changed classes are compared with the classes in the exploded deployment. If only method bodies
+     * changed, the classes are redefined in the server over JDWP instead of redeploying the application. Any other
+     * change, for example a new method, a new field or a changed annotation, results in a redeploy.
+     * <p>
+     * This requires the server to be started with debugging enabled. If {@code debug} is not enabled, it is enabled
+     * when this option is set. Note that the JVM only allows a single debugger to be attached. If a debugger is already
+     * attached, the application is redeployed instead.
+     * </p>
+     * <p>
+     * This option is ignored when deploying to a remote server.
+     * </p>
+     *
+     * @since 6.0
+     */
+    @Parameter(property = "wildfly.dev.hot.swap", alias = "hot-swap", defaultValue = "false")
+    private boolean hotSwap;
+
+    /**
+     * Enables incremental packaging of the exploded WAR. Once the exploded WAR has been created by the
+     * maven-war-plugin, only the files which changed since the last build are copied into it, and files which no longer
+     * exist in the sources are deleted. The {@code warSourceIncludes}, {@code warSourceExcludes} and
+     * {@code webResources} configuration of the war plugin is honored.
+     * <p>
+     * If the war plugin configuration requires filtering, overlays or a custom file name mapping, the war plugin is
+     * still used to package the exploded WAR.
+     * </p>
+     * <p>
+     * This option is ignored when deploying to a remote server.
+     * </p>
+     *
+     * @since 6.0
+     */
+    @Parameter(property = "wildfly.dev.incremental.packaging", alias = "incremental-packaging", defaultValue = "false")
+    private boolean incrementalPackaging;
+
+    /**
+     * Enables compiling changed Java sources in-process with the system Java compiler instead of executing the
+     * maven-compiler-plugin. The compiler is kept between builds and only the changed sources, and the sources which
+     * depend on classes whose signatures changed, are compiled. If a class declaring constants changes, all sources are
+     * compiled as constants are inlined by the compiler.
+     * <p>
+     * The {@code release}, {@code source}, {@code target}, {@code encoding}, {@code debug}, {@code parameters},
+     * {@code proc}, {@code annotationProcessors}, {@code annotationProcessorPaths}, {@code compilerArgs} and
+     * {@code generatedSourcesDirectory} configuration of the compiler plugin is honored. If the compiler plugin is
+     * configured to fork or to use a compiler other than {@code javac}, the maven-compiler-plugin is used.
+     * </p>
+     *
+     * @since 6.0
+     */
+    @Parameter(property = "wildfly.dev.incremental.compile", alias = "incremental-compile", defaultValue = "false")
+    private boolean incrementalCompile;
+
+    /**
+     * Provisions the server into a staging directory, while the current server keeps running, when WildFly Glow
+     * discovers that the required layers changed. Once the new server has been provisioned, the current server is
+     * stopped, the installation directories are swapped and the new server is started. This limits the time the server
+     * is unavailable to a restart instead of a full provisioning.
+     * <p>
+     * The staging directory is created next to the server directory and requires as much disk space as the server.
+     * </p>
+     *
+     * @since 6.0
+     */
+    @Parameter(property = "wildfly.dev.staged.provisioning", alias = "staged-provisioning", defaultValue = "false")
+    private boolean stagedProvisioning;
+
+    /**
+     * The port offset of a standby server used when WildFly Glow discovers that the required layers changed. If set to
+     * a value greater than 0, the new server is provisioned into a second directory and started with this port offset
+     * while the current server keeps running. Once the standby server has booted, the current server is stopped and
+     * the standby server is reloaded with the default ports. This limits the time the server is unavailable to a
+     * reload instead of provisioning and starting a new server.
+     * <p>
+     * The server alternates between the server directory and a {@code .standby} directory next to it. This option is
+     * ignored if {@code debug} or {@code hot-swap} is enabled, as the debug port cannot be shared by the two servers.
+     * </p>
+     * <p>
+     * The standby server is not started in advance, as the layers it requires are only known once the deployment has
+     * been scanned. It is provisioned and started by the build cycle which discovered the new layers, so changes made
+     * in the meantime are only deployed once the standby server is running.
+     * </p>
+     *
+     * @since 6.0
+     */
+    @Parameter(property = "wildfly.dev.standby.port.offset", alias = "standby-port-offset", defaultValue = "0")
+    private int standbyPortOffset;
+
+    /**
+     * Watches the sources and resources of the JAR modules of the reactor the deployment depends on. When a module
+     * changes, only the module is compiled and its library in the exploded deployment is replaced. The artifact of the
+     * module, for example the JAR in its build directory, is not replaced. If the library cannot be found in the
+     * exploded deployment, the deployment is repackaged with the artifact of the module, which may not include the
+     * changes.
+     * <p>
+     * The modules must be part of the Maven session, for example by using {@code -pl <war-module> -am}.
+     * </p>
+     *
+     * @since 6.0
+     */
+    @Parameter(property = "wildfly.dev.watch.reactor.modules", alias = "watch-reactor-modules", defaultValue = "false")
+    private boolean watchReactorModules;
+
     /**
      * If set to {@code true} a server will not be provisioned or started and the application will be deployed to a
      * remote server.
@@ -280,6 +426,57 @@ public class DevMojo extends AbstractServerStartMojo {
     @Parameter(property = "wildfly.dev.remote", defaultValue = "false")
     private boolean remote;
 
+    /**
+     * When deploying to a remote server, converts the deployment into an exploded deployment on the server and only
+     * sends the files which changed, instead of uploading the full WAR, when the application is updated. The
+     * deployment is redeployed once the content has been updated. If updating the content fails, the full WAR is
+     * uploaded again.
+     * <p>
+     * The server must support exploded managed deployments. This option is ignored if {@code remote} is not enabled.
+     * </p>
+     *
+     * @since 6.0
+     */
+    @Parameter(property = "wildfly.dev.remote.exploded", alias = "remote-exploded", defaultValue = "false")
+    private boolean remoteExploded;
+
+    /**
+     * Set to {@code true} to deploy the application as an unmanaged deployment, even if it is a WAR file. The server
+     * reads the application from the {@code target} directory instead of a copy uploaded to its content repository,
+     * and redeploying the application only makes the server read it again.
+     * <p>
+     * An exploded WAR is always deployed as an unmanaged deployment to the server started by the dev mode. When
+     * deploying to a {@code remote} server, this option is ignored if the server is not running on this machine or if
+     * {@code remote-exploded} is enabled. A containerized server whose management port is forwarded to
+     * {@code localhost} is considered to run on this machine, but it cannot read the application in the {@code target}
+     * directory unless the directory is mounted at the same path in the container.
+     * </p>
+     *
+     * @since 6.0
+     */
+    @Parameter(property = PropertyNames.DEPLOYMENT_UNMANAGED, alias = "unmanaged", defaultValue = "false")
+    private boolean unmanaged;
+
+    /**
+     * Leaves the server running, with the application deployed, when the dev mode is stopped with {@code CTRL+C}. The
+     * state of the session is written to {@code target/wildfly-dev-session.json} and the next execution of the dev
+     * goal with this option enabled re-attaches to the server. Only the sources which changed in the meantime are
+     * built and deployed, the server is not provisioned or started again and the CLI commands and scripts are not
+     * executed again.
+     * <p>
+     * The output of the server is written to {@code target/wildfly-dev-server.log}. The server is started in a new
+     * session with {@code setsid}, if available, so it does not receive the interrupt of the terminal. If the server
+     * is no longer running or was started with a different configuration, it is started again.
+     * </p>
+     * <p>
+     * This option is ignored when deploying to a remote server.
+     * </p>
+     *
+     * @since 6.0
+     */
+    @Parameter(property = "wildfly.dev.detach", alias = "detach", defaultValue = "false")
+    private boolean detach;
+
     /**
      * Arbitrary Galleon options used when provisioning the server. In case you
      * are building a large amount of server in the same maven session, it
@@ -401,8 +598,35 @@ public class DevMojo extends AbstractServerStartMojo {
 
     private String warGoal = MAVEN_EXPLODED_GOAL;
     private ScanResults results;
+    private final GlowScanClassifier glowScanClassifier = new GlowScanClassifier();
     private boolean requiresWarDeletion;
+    private boolean provisioned;
+    private Path activeJBossHome;
     private Logger mavenJBossLogger;
+    private ClassRedefiner classRedefiner;
+    private ExplodedWarSync explodedWarSync;
+    private boolean explodedWarSyncUnsupported;
+    private IncrementalCompiler incrementalCompiler;
+    private WatchRegistry watchRegistry;
+    private RemoteContentSync remoteContentSync;
+    private DevCycleMetrics cycleMetrics;
+    private volatile ChangeQueue changeQueue;
+    private ExecutorService stageExecutor;
+    private volatile MojoExecutionCache mojoExecutions;
+    private StaleOutputRemover staleOutputRemover;
+    private List<ReactorModule> reactorModules = List.of();
+    private final FileDigestCache digestCache = new FileDigestCache();
+    // The content of the output directory as of the last deployment, only accessed by the build worker
+    private final FileDigestCache outputDigests = new FileDigestCache();
+    private int acceptedEvents;
+    private int suppressedEvents;
+    private DevSession resumedSession;
+    // The layer names of the last WildFly Glow scan
+    private Set<String> scannedDecorators;
+    private Set<String> scannedExcludedLayers;
+    // The changed files of the failed build cycles, which have not been deployed
+    private final Set<Path> failedChanges = Collections.synchronizedSet(new HashSet<>());
+    private volatile boolean detaching;
 
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
@@ -413,12 +637,20 @@ public class DevMojo extends AbstractServerStartMojo {
         mavenJBossLogger = new MavenJBossLogger(getLog());
         serverConfig = serverConfig == null ? "standalone.xml" : serverConfig;
         boolean startServer = false;
+        boolean packaged = false;
         ServerContext context = null;
+        final Path sessionFile = Path.of(project.getBuild().getDirectory()).resolve(SESSION_FILE);
+        cycleMetrics = new DevCycleMetrics(Path.of(project.getBuild().getDirectory()).resolve(METRICS_FILE), getLog());
         if (remote) {
             init();
             warGoal = MAVEN_WAR_GOAL;
         } else {
-            if (isDiscoveryEnabled()) {
+            if (detach) {
+                resumedSession = resumeSession(sessionFile);
+            }
+            if (resumedSession != null) {
+                init();
+            } else if (isDiscoveryEnabled()) {
                 if (!overwriteProvisionedServer) {
                     overwriteProvisionedServer = true;
                     getLog().info("Layer discovery has been enabled, overwriteProvisionedServer has been set to true");
@@ -426,13 +658,26 @@ public class DevMojo extends AbstractServerStartMojo {
             } else {
                 startServer = true;
             }
+            if (hotSwap) {
+                enableHotSwap();
+            }
         }
+        CompletableFuture<ServerContext> serverStart = null;
         try {
             // Do we need to build first?
-            if (needsCompile()) {
+            if (resumedSession != null) {
+                // The changes made since the previous session are built once the sources are watched
+                requiresWarDeletion = !Files.isDirectory(resolveWarLocation());
+            } else if (needsCompile()) {
+                if (startServer) {
+                    // Without layer discovery the server does not depend on the deployment, start it while building
+                    serverStart = submitBootstrapTask(() -> startServer(ServerType.STANDALONE));
+                    startServer = false;
+                }
                 triggerResources();
                 triggerCompile();
                 triggerWarGoal();
+                packaged = true;
                 // If WildFly Glow is enabled, we need to provision the server
                 if (isDiscoveryEnabled()) {
                     init();
@@ -445,16 +690,37 @@ public class DevMojo extends AbstractServerStartMojo {
                 requiresWarDeletion = !remote;
             }
             // We must start the server after compilation occurred to get a deployment to scan
-            if (startServer) {
+            if (serverStart != null) {
+                context = awaitBootstrapTask(serverStart);
+            } else if (startServer) {
                 context = startServer(ServerType.STANDALONE);
             }
-            try (final WatchService watcher = FileSystems.getDefault().newWatchService()) {
+            try (final WatchService watcher = FileSystems.getDefault().newWatchService();
+                    final WatchRegistry registry = new WatchRegistry(watcher,
+                            (dir) -> project.getBuild().getOutputDirectory().equals(dir.toString()))) {
+                watchRegistry = registry;
                 final CompiledSourceHandler sourceHandler = new CompiledSourceHandler();
-                registerDir(watcher, Path.of(project.getBuild().getSourceDirectory()), sourceHandler);
+                registerDir(Path.of(project.getBuild().getSourceDirectory()), sourceHandler);
                 for (Resource resource : project.getResources()) {
-                    registerDir(watcher, Path.of(resource.getDirectory()), new ResourceHandler());
+                    registerDir(Path.of(resource.getDirectory()), new ResourceHandler());
+                }
+                registerDir(resolveWebAppSourceDir(), new WebAppResourceHandler(webExtensions));
+                // Record the content of the watched files, so changes which do not change the content can be ignored
+                if (resumedSession == null) {
+                    digestCache.seed(Path.of(project.getBuild().getSourceDirectory()));
+                    for (Resource resource : project.getResources()) {
+                        digestCache.seed(Path.of(resource.getDirectory()));
+                    }
+                    digestCache.seed(resolveWebAppSourceDir());
+                    outputDigests.seed(Path.of(project.getBuild().getOutputDirectory()));
+                } else {
+                    // The content as deployed by the previous session
+                    digestCache.load(resumedSession.digests());
                 }
-                registerDir(watcher, resolveWebAppSourceDir(), new WebAppResourceHandler(webExtensions));
+                if (watchReactorModules) {
+                    registerReactorModules();
+                }
+                prepareGoals();
                 try (ModelControllerClient client = createClient()) {
                     final StandaloneManager serverManager = ServerManager.builder().client(client).standalone();
                     if (!serverManager.isRunning()) {
@@ -464,7 +730,7 @@ public class DevMojo extends AbstractServerStartMojo {
                         final ContainerDescription description = ContainerDescription.lookup(client);
                         getLog().info(String.format("Deploying to remote %s container.", description));
                     }
-                    // Execute commands before the deployment is done
+                    // Execute commands before the deployment is done, a resumed server has already been configured
                     final CommandConfiguration.Builder builder = CommandConfiguration
                             .of(this::createClient, this::getClientConfiguration)
                             .addCommands(commands)
@@ -480,7 +746,9 @@ public class DevMojo extends AbstractServerStartMojo {
                         builder.setJBossHome(context.jbossHome())
                                 .setFork(true);
                     }
-                    commandExecutor.execute(builder.build(), mavenRepoManager);
+                    if (resumedSession == null) {
+                        commandExecutor.execute(builder.build(), mavenRepoManager);
+                    }
                     // Check the server state. We may need to restart the process, assuming we control the context
                     if (context != null) {
                         context = actOnServerState(client, context);
@@ -488,27 +756,68 @@ public class DevMojo extends AbstractServerStartMojo {
 
                     final DeploymentManager deploymentManager = serverManager.deploymentManager();
                     final Deployment deployment = getDeploymentContent();
+                    Thread sessionHook = null;
                     try {
-                        final DeploymentResult result = deploymentManager.forceDeploy(deployment);
-                        if (!result.successful()) {
-                            throw new MojoExecutionException("Failed to deploy content: " + result.getFailureMessage());
+                        ChangeSet resumedChanges = null;
+                        if (resumedSession == null) {
+                            final DeploymentResult result = deploymentManager.forceDeploy(deployment);
+                            if (!result.successful()) {
+                                throw new MojoExecutionException(
+                                        "Failed to deploy content: " + result.getFailureMessage());
+                            }
+                            if (remote) {
+                                getLog().info(String.format("Deployed %s", deployment));
+                                if (remoteExploded) {
+                                    explodeRemoteDeployment(client, deployment, packaged);
+                                }
+                            }
+                        } else {
+                            resumedChanges = collectResumedChanges();
                         }
-                        if (remote) {
-                            getLog().info(String.format("Deployed %s", deployment));
+                        if (detach && !remote) {
+                            Files.deleteIfExists(sessionFile);
+                            sessionHook = new Thread(() -> writeSession(sessionFile, deployment),
+                                    "wildfly-dev-detach");
+                            Runtime.getRuntime().addShutdownHook(sessionHook);
                         }
-                        watch(watcher, deploymentManager, deployment);
+                        watch(watcher, deploymentManager, deployment, resumedChanges);
                     } finally {
-                        deploymentManager.undeploy(UndeployDescription.of(deployment));
-                        serverManager.shutdown();
+                        if (sessionHook != null && !detaching) {
+                            try {
+                                Runtime.getRuntime().removeShutdownHook(sessionHook);
+                            } catch (IllegalStateException ignore) {
+                                // The JVM is shutting down
+                            }
+                        }
+                        if (!detaching) {
+                            deploymentManager.undeploy(UndeployDescription.of(deployment));
+                            serverManager.shutdown();
+                        }
                     }
                 }
             } catch (IOException e) {
                 throw new MojoExecutionException(e.getLocalizedMessage(), e);
             }
         } finally {
-            if (context != null) {
+            if (context == null && serverStart != null) {
+                // The build failed while the server was starting, the server is not launched or is destroyed
+                abortServerStart();
+                try {
+                    context = serverStart.join();
+                } catch (CompletionException ignore) {
+                }
+            }
+            if (incrementalCompiler != null) {
+                try {
+                    incrementalCompiler.close();
+                } catch (IOException e) {
+                    getLog().debug("Failed to close the in-process compiler: " + e);
+                }
+            }
+            if (context != null && !detaching) {
                 context.process().destroyForcibly();
             }
+            closeClient(serverManager);
         }
     }
 
@@ -535,7 +844,18 @@ public class DevMojo extends AbstractServerStartMojo {
 
     @Override
     protected CommandBuilder createCommandBuilder(final Path jbossHome) throws MojoExecutionException {
-        return createStandaloneCommandBuilder(jbossHome, serverConfig);
+        return detachable(createStandaloneCommandBuilder(jbossHome, serverConfig));
+    }
+
+    @Override
+    protected StandardOutput standardOutput() throws IOException {
+        if (detach && !remote) {
+            // The server keeps running after this process ends, its output cannot be consumed by this process
+            final Path logFile = Path.of(project.getBuild().getDirectory()).resolve(SERVER_LOG_FILE);
+            getLog().info("The output of the server is written to " + logFile);
+            return StandardOutput.parse(logFile.toString(), false, true);
+        }
+        return super.standardOutput();
     }
 
     /**
@@ -562,22 +882,212 @@ public class DevMojo extends AbstractServerStartMojo {
         return discoverProvisioningInfo != null;
     }
 
+    /**
+     * Reads the state of the previous session and checks whether its server can be re-attached to.
+     *
+     * @param sessionFile the state of the previous session
+     *
+     * @return the previous session or {@code null} if the server must be started
+     */
+    private DevSession resumeSession(final Path sessionFile) throws MojoExecutionException {
+        final DevSession session = DevSession.read(sessionFile);
+        if (session == null) {
+            return null;
+        }
+        final String deploymentName = resolveWarLocation().getFileName().toString();
+        // The server may run from the standby directory if it was re-provisioned
+        final Path configuredHome = super.resolveJBossHome();
+        final Path standbyHome = configuredHome.resolveSibling(configuredHome.getFileName() + ".standby");
+        Path jbossHome = null;
+        for (Path home : List.of(configuredHome, standbyHome)) {
+            if (session.matches(getManagementHostName(), getManagementPort(), home, deploymentName)) {
+                jbossHome = home;
+            }
+        }
+        if (jbossHome == null || !session.isServerAlive()) {
+            getLog().info("The server of the previous dev session is no longer running, starting a new server.");
+            deleteSessionFile(sessionFile);
+            return null;
+        }
+        try (ModelControllerClient client = createClient()) {
+            final StandaloneManager serverManager = ServerManager.builder().client(client).standalone();
+            if (!serverManager.isRunning() || !serverManager.deploymentManager().hasDeployment(deploymentName)) {
+                getLog().info(String.format("The server of the previous dev session no longer has %s deployed, "
+                        + "starting a new server.", deploymentName));
+                deleteSessionFile(sessionFile);
+                return null;
+            }
+        } catch (IOException e) {
+            debug("Failed to check the server of the previous dev session: %s", e);
+            return null;
+        }
+        activeJBossHome = jbossHome.equals(configuredHome) ? null : jbossHome;
+        if (session.decorators() != null && isDiscoveryEnabled()) {
+            scannedDecorators = session.decorators();
+            scannedExcludedLayers = session.excludedLayers();
+            try {
+                // Record the scanned inputs so later changes can be compared with them
+                glowScanClassifier.requiresRescan(resolveWarLocation());
+            } catch (IOException e) {
+                glowScanClassifier.reset();
+            }
+        }
+        getLog().info(String.format("Re-attaching to the server of the previous dev session with process id %d",
+                session.pid()));
+        return session;
+    }
+
+    /**
+     * Compares the watched files with the files deployed by the previous session.
+     *
+     * @return the changes made since the previous session
+     */
+    private ChangeSet collectResumedChanges() {
+        final Set<Path> recorded = resumedSession.digests().keys().stream()
+                .map(Path::of)
+                .collect(Collectors.toSet());
+        final ChangeSet changes = new ChangeSet();
+        for (WatchRegistry.Change change : watchRegistry.compare(recorded)) {
+            collectChange(change.watchContext(), change, change.file(), changes);
+        }
+        if (changes.isEmpty()) {
+            getLog().info("No changes since the previous dev session.");
+        } else {
+            getLog().info(String.format("%d file(s) changed since the previous dev session.", changes.size()));
+        }
+        acceptedEvents = 0;
+        suppressedEvents = 0;
+        return changes;
+    }
+
+    /**
+     * Writes the state of the session, so the next execution can re-attach to the server. Invoked from a shutdown
+     * hook, after which the server is left running.
+     *
+     * @param sessionFile the file to write the state to
+     * @param deployment  the deployment
+     */
+    private void writeSession(final Path sessionFile, final Deployment deployment) {
+        detaching = true;
+        try (ModelControllerClient client = createClient()) {
+            final ModelNode address = Operations.createAddress("core-service", "platform-mbean", "type", "runtime");
+            final ModelNode result = client.execute(Operations.createReadAttributeOperation(address, "name"));
+            if (!Operations.isSuccessfulOutcome(result)) {
+                getLog().warn("Failed to determine the process id of the server: "
+                        + Operations.getFailureDescription(result).asString());
+                return;
+            }
+            // The name of the runtime is the process id and the host name separated by an @
+            final String name = Operations.readResult(result).asString();
+            final long pid = Long.parseLong(name.substring(0, name.indexOf('@')));
+            // Files which have not been deployed are handled as changed by the next session
+            final ModelNode digests = digestCache.toModelNode();
+            final Set<Path> undeployed = new HashSet<>(failedChanges);
+            if (changeQueue != null) {
+                undeployed.addAll(changeQueue.unfinished());
+            }
+            for (Path file : undeployed) {
+                digests.remove(file.toString());
+            }
+            new DevSession(pid, getManagementHostName(), getManagementPort(), resolveJBossHome(), deployment.getName(),
+                    digests, scannedDecorators, scannedExcludedLayers).write(sessionFile);
+            getLog().info(String.format("The server with process id %d has been left running, the next execution of "
+                    + "the dev goal re-attaches to it.", pid));
+        } catch (Exception e) {
+            getLog().warn("Failed to record the dev session, the server has been left running: " + e);
+        }
+    }
+
+    private void deleteSessionFile(final Path sessionFile) {
+        try {
+            Files.deleteIfExists(sessionFile);
+        } catch (IOException e) {
+            debug("Failed to delete %s: %s", sessionFile, e);
+        }
+    }
+
+    private void recordScanResults(final ScanResults results) {
+        scannedDecorators = results.getDecorators().stream()
+                .map(Layer::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+        scannedExcludedLayers = results.getExcludedLayers().stream()
+                .map(Layer::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * Starts the server in a new session if the dev mode detaches from the server, so the server does not receive the
+     * interrupt sent to the processes of the terminal.
+     *
+     * @param commandBuilder the command to start the server
+     *
+     * @return the command to start the server
+     */
+    private CommandBuilder detachable(final CommandBuilder commandBuilder) {
+        if (!detach || remote) {
+            return commandBuilder;
+        }
+        final Path setsid = findExecutable("setsid");
+        if (setsid == null) {
+            getLog().warn("The setsid command was not found, the server may be stopped with the dev mode.");
+            return commandBuilder;
+        }
+        return new CommandBuilder() {
+            @Override
+            public List<String> buildArguments() {
+                return commandBuilder.buildArguments();
+            }
+
+            @Override
+            public List<String> build() {
+                final List<String> command = new ArrayList<>();
+                command.add(setsid.toString());
+                command.addAll(commandBuilder.build());
+                return command;
+            }
+        };
+    }
+
+    private static Path findExecutable(final String name) {
+        final String path = System.getenv("PATH");
+        if (path == null || Environment.isWindows()) {
+            return null;
+        }
+        for (String dir : path.split(File.pathSeparator)) {
+            if (dir.isBlank()) {
+                continue;
+            }
+            final Path file = Path.of(dir).resolve(name);
+            if (Files.isExecutable(file)) {
+                return file;
+            }
+        }
+        return null;
+    }
+
     GalleonProvisioningConfig shouldReprovision() {
         // Remote or no initial Glow scanning
-        if (remote || results == null) {
+        if (remote || scannedDecorators == null) {
             return null;
         }
         try {
+            if (!glowScanClassifier.requiresRescan(resolveWarLocation())) {
+                debug("No layer relevant changes in the deployment, reusing the previous scan results");
+                return null;
+            }
             GalleonBuilder galleonBuilder = new GalleonBuilder();
             galleonBuilder.addArtifactResolver(mavenRepoManager);
             ScanResults newResults = scanDeployment(galleonBuilder);
+            final Set<String> previousDecorators = scannedDecorators;
+            final Set<String> previousExcludedLayers = scannedExcludedLayers;
             try {
-                if (!results.getDecorators().equals(newResults.getDecorators())) {
+                recordScanResults(newResults);
+                if (!previousDecorators.equals(scannedDecorators)) {
                     getLog().info("Set of discovered layers changed, needs to re-provision. New layers: "
                             + newResults.getDecorators());
                     return newResults.getProvisioningConfig();
                 }
-                if (!results.getExcludedLayers().equals(newResults.getExcludedLayers())) {
+                if (!previousExcludedLayers.equals(scannedExcludedLayers)) {
                     getLog().info("Set of discovered excluded layers changed, needs to re-provision. New layers: "
                             + newResults.getExcludedLayers());
                     return newResults.getProvisioningConfig();
@@ -589,6 +1099,8 @@ public class DevMojo extends AbstractServerStartMojo {
                 results = newResults;
             }
         } catch (Exception ex) {
+            // Make sure the deployment is scanned again on the next change
+            glowScanClassifier.reset();
             getLog().error(ex);
         }
         return null;
@@ -602,29 +1114,138 @@ public class DevMojo extends AbstractServerStartMojo {
         }
         final Path jbossHome = resolveJBossHome();
         debug("Changes in layers detected, must re-provision the server");
-        try (ModelControllerClient client = createClient()) {
-            ServerManager.builder().client(client).standalone().shutdown();
-            debug("Deleting existing installation " + jbossHome);
-            deleteRecursively(jbossHome);
+        if (standbyPortOffset > 0 && !debug) {
+            startStandbyServer(newConfig, jbossHome);
+            return true;
         }
-        GalleonBuilder galleonBuilder = new GalleonBuilder();
-        galleonBuilder.addArtifactResolver(mavenRepoManager);
-        ProvisioningBuilder builder = galleonBuilder.newProvisioningBuilder(newConfig);
-        try (Provisioning pm = builder
-                .setInstallationHome(jbossHome)
-                .setMessageWriter(new MvnMessageWriter(getLog()))
-                .build()) {
-            provisionServer(pm, newConfig);
+        if (standbyPortOffset > 0) {
+            getLog().info("No standby server is used as debugging is enabled, the debug port cannot be shared by two "
+                    + "servers. The server is stopped while it is provisioned.");
+        }
+        if (stagedProvisioning) {
+            // Provision the new server while the current server is still running
+            final Path stagingDir = jbossHome.resolveSibling(jbossHome.getFileName() + ".staging");
+            deleteRecursively(stagingDir);
+            provisionServer(newConfig, stagingDir);
+            try (ModelControllerClient client = createClient()) {
+                ServerManager.builder().client(client).standalone().shutdown();
+            }
+            final Path previousDir = jbossHome.resolveSibling(jbossHome.getFileName() + ".previous");
+            deleteRecursively(previousDir);
+            debug("Replacing installation %s with %s", jbossHome, stagingDir);
+            move(jbossHome, previousDir);
+            move(stagingDir, jbossHome);
+            deleteRecursively(previousDir);
+        } else {
+            try (ModelControllerClient client = createClient()) {
+                ServerManager.builder().client(client).standalone().shutdown();
+                debug("Deleting existing installation " + jbossHome);
+                deleteRecursively(jbossHome);
+            }
+            provisionServer(newConfig, jbossHome);
         }
+        closeClient(serverManager);
         startServer(ServerType.STANDALONE);
         return true;
     }
 
+    private void startStandbyServer(final GalleonProvisioningConfig config, final Path jbossHome)
+            throws IOException, InterruptedException, MojoExecutionException, ProvisioningException {
+        // Alternate between the configured server directory and the standby directory
+        final Path configuredHome = super.resolveJBossHome();
+        final Path standbyHome = jbossHome.equals(configuredHome)
+                ? configuredHome.resolveSibling(configuredHome.getFileName() + ".standby")
+                : configuredHome;
+        deleteRecursively(standbyHome);
+        provisionServer(config, standbyHome);
+
+        // Boot the standby server with a port offset while the current server is still running
+        final StandaloneCommandBuilder commandBuilder = createStandaloneCommandBuilder(standbyHome, serverConfig)
+                .addJavaOption("-Djboss.socket.binding.port-offset=" + standbyPortOffset);
+        final StandardOutput out = standardOutput();
+        final Launcher launcher = Launcher.of(detachable(commandBuilder))
+                .setRedirectErrorStream(true);
+        out.getRedirect().ifPresent(launcher::redirectOutput);
+        getLog().info(String.format("Starting standby server in %s with port offset %d", standbyHome, standbyPortOffset));
+        final Process process = launcher.launch();
+        out.startConsumer(process);
+        try (ModelControllerClient standbyClient = ModelControllerClient.Factory.create(getManagementHostName(),
+                getManagementPort() + standbyPortOffset)) {
+            final StandaloneManager standbyManager = ServerManager.builder()
+                    .process(process)
+                    .client(standbyClient)
+                    .standalone();
+            if (!standbyManager.waitFor(startupTimeout, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                throw new MojoExecutionException(
+                        String.format("Standby server failed to start in %s seconds.", startupTimeout));
+            }
+            // Stop the current server, then move the standby server to the default ports
+            try (ModelControllerClient client = createClient()) {
+                ServerManager.builder().client(client).standalone().shutdown();
+            }
+            final ModelNode op = Operations.createOperation(ClientConstants.READ_CHILDREN_NAMES_OPERATION);
+            op.get(ClientConstants.CHILD_TYPE).set("socket-binding-group");
+            final ModelNode result = standbyClient.execute(op);
+            if (!Operations.isSuccessfulOutcome(result)) {
+                throw new MojoExecutionException("Failed to promote the standby server: "
+                        + Operations.getFailureDescription(result).asString());
+            }
+            for (ModelNode group : Operations.readResult(result).asList()) {
+                final ModelNode writeResult = standbyClient.execute(Operations.createWriteAttributeOperation(
+                        Operations.createAddress("socket-binding-group", group.asString()), "port-offset", 0));
+                if (!Operations.isSuccessfulOutcome(writeResult)) {
+                    throw new MojoExecutionException("Failed to promote the standby server: "
+                            + Operations.getFailureDescription(writeResult).asString());
+                }
+            }
+            // The management interface moves to the default port, the response to the reload may not be received
+            try {
+                standbyClient.execute(Operations.createOperation("reload"));
+            } catch (IOException e) {
+                debug("Connection to the standby server closed during reload: %s", e);
+            }
+        }
+        activeJBossHome = standbyHome;
+        closeClient(serverManager);
+        serverManager = ServerManager.builder().process(process).client(createClient()).standalone();
+        if (!serverManager.waitFor(startupTimeout, TimeUnit.SECONDS)) {
+            throw new MojoExecutionException(String.format("Server failed to reload in %s seconds.", startupTimeout));
+        }
+        // Remove the previous installation, the next standby server will be provisioned into it
+        try {
+            deleteRecursively(jbossHome);
+        } catch (IOException e) {
+            debug("Failed to delete the previous installation %s: %s", jbossHome, e);
+        }
+        getLog().info(String.format("Standby server in %s is now running", standbyHome));
+    }
+
+    private void closeClient(final ServerManager manager) {
+        if (manager != null) {
+            try {
+                manager.client().close();
+            } catch (IOException e) {
+                debug("Failed to close the management client: %s", e);
+            }
+        }
+    }
+
+    @Override
+    protected Path resolveJBossHome() {
+        // A promoted standby server runs from a different directory
+        return activeJBossHome == null ? super.resolveJBossHome() : activeJBossHome;
+    }
+
     @Override
     protected Path provisionIfRequired(final Path installDir) throws MojoFailureException, MojoExecutionException {
         if (!isAllowProvisioning()) {
             return installDir;
         }
+        // The server has already been provisioned by this goal
+        if (provisioned && Files.exists(installDir)) {
+            return installDir;
+        }
         // This is called for the initial start of the server.
         if (!overwriteProvisionedServer && Files.exists(installDir)) {
             getLog().info(String.format("A server already exists in %s, provisioning for %s:%s", installDir,
@@ -650,7 +1271,10 @@ public class DevMojo extends AbstractServerStartMojo {
                             serverConfig == null ? STANDALONE_XML : serverConfig);
                 } else {
                     results = scanDeployment(provider);
+                    recordScanResults(results);
                     config = results.getProvisioningConfig();
+                    // Record the scanned inputs so later changes can be compared with them
+                    glowScanClassifier.requiresRescan(resolveWarLocation());
                 }
             }
             getLog().info("Provisioning server in " + installDir);
@@ -667,6 +1291,7 @@ public class DevMojo extends AbstractServerStartMojo {
                     throw new MojoExecutionException("Invalid plugin configuration, no server provisioned.");
                 }
             }
+            provisioned = true;
         } catch (Exception e) {
             throw new MojoFailureException(e.getLocalizedMessage(), e);
         }
@@ -692,180 +1317,159 @@ public class DevMojo extends AbstractServerStartMojo {
                 serverConfig == null ? STANDALONE_XML : serverConfig);
     }
 
-    private void provisionServer(Provisioning pm, GalleonProvisioningConfig config)
+    private void provisionServer(final GalleonProvisioningConfig config, final Path installDir)
             throws ProvisioningException, MojoExecutionException {
-        final Path installDir = resolveJBossHome();
         getLog().info("Provisioning server in " + installDir);
-        PluginProgressTracker.initTrackers(pm, mavenJBossLogger);
-        pm.provision(config);
+        GalleonBuilder galleonBuilder = new GalleonBuilder();
+        galleonBuilder.addArtifactResolver(mavenRepoManager);
+        try (Provisioning pm = galleonBuilder.newProvisioningBuilder(config)
+                .setInstallationHome(installDir)
+                .setMessageWriter(new MvnMessageWriter(getLog()))
+                .build()) {
+            PluginProgressTracker.initTrackers(pm, mavenJBossLogger);
+            pm.provision(config);
+        }
         // Check that at least the standalone or domain directories have been generated.
         if (Files.notExists(installDir.resolve("standalone")) && Files.notExists(installDir.resolve("domain"))) {
             getLog().error("Invalid galleon provisioning, no server provisioned in " + installDir + ". Make sure "
                     + "that the list of Galleon feature-packs and Galleon layers are properly configured.");
             throw new MojoExecutionException("Invalid plugin configuration, no server provisioned.");
         }
+        // The server has been provisioned, starting the server should not provision it again
+        provisioned = true;
     }
 
-    private boolean registerDir(final WatchService watcher, final Path dir, final WatchHandler handler) throws IOException {
-        if (Files.exists(dir) && Files.isDirectory(dir)) {
-            final int currentSize = watchedDirectories.size();
-            final Set<Path> registered = watchedDirectories.values()
-                    .stream()
-                    .map(WatchContext::directory)
-                    .collect(Collectors.toCollection(HashSet::new));
-            Files.walkFileTree(dir, new SimpleFileVisitor<>() {
-                @Override
-                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
-                    if (!project.getBuild().getOutputDirectory().equals(dir.toString())) {
-                        if (registered.add(dir)) {
-                            final WatchKey key = dir.register(watcher, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
-                            watchedDirectories.put(key, WatchContext.of(dir, handler));
-                            debug("Watching for changes in %s", dir);
-                        }
-                        return FileVisitResult.CONTINUE;
-                    } else {
-                        return FileVisitResult.SKIP_SUBTREE;
-                    }
-                }
-            });
-            return currentSize == watchedDirectories.size();
+    private static void move(final Path source, final Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target);
+        }
+    }
+
+    private void enableHotSwap() {
+        if (ModuleLayer.boot().findModule("jdk.jdi").isEmpty()) {
+            getLog().warn("Hot swapping requires the jdk.jdi module which is not available in the current JVM. "
+                    + "Changes will be redeployed.");
+            return;
+        }
+        if (!debug) {
+            getLog().info("Hot swapping has been enabled, the server will be started with debugging enabled.");
+            debug = true;
+        }
+        classRedefiner = new ClassRedefiner(getLog(), "*".equals(debugHost) ? "localhost" : debugHost, debugPort);
+    }
+
+    /**
+     * Compares the compiled classes with the classes in the exploded deployment. If only method bodies have changed,
+     * the changed classes are redefined in the running server.
+     *
+     * @return {@code true} if the classes were redefined and no redeploy is required
+     */
+    private boolean redefineClasses() throws IOException {
+        final Path classesDir = Path.of(project.getBuild().getOutputDirectory());
+        final Path deployedClassesDir = resolveWarLocation().resolve("WEB-INF").resolve("classes");
+        if (Files.notExists(classesDir) || !Files.isDirectory(deployedClassesDir)) {
+            return false;
+        }
+        final Map<String, byte[]> changedClasses = new HashMap<>();
+        final List<Path> classFiles;
+        try (Stream<Path> files = Files.walk(classesDir)) {
+            classFiles = files.filter(f -> f.getFileName().toString().endsWith(".class"))
+                    .collect(Collectors.toList());
+        }
+        for (Path classFile : classFiles) {
+            final Path deployedFile = deployedClassesDir.resolve(classesDir.relativize(classFile).toString());
+            if (Files.notExists(deployedFile)) {
+                debug("New class %s requires a redeploy", classesDir.relativize(classFile));
+                return false;
+            }
+            // Fast path, the deployed class is at least as new as the compiled class
+            if (Files.size(classFile) == Files.size(deployedFile)
+                    && Files.getLastModifiedTime(classFile).compareTo(Files.getLastModifiedTime(deployedFile)) <= 0) {
+                continue;
+            }
+            final byte[] newBytes = Files.readAllBytes(classFile);
+            final byte[] deployedBytes = Files.readAllBytes(deployedFile);
+            if (Arrays.equals(newBytes, deployedBytes)) {
+                continue;
+            }
+            final ClassFileInfo newInfo = ClassFileInfo.read(newBytes);
+            final ClassFileInfo deployedInfo = ClassFileInfo.read(deployedBytes);
+            if (!newInfo.hasSameStructure(deployedInfo)) {
+                debug("The structure of %s changed and requires a redeploy", newInfo.binaryName());
+                return false;
+            }
+            // Newly referenced packages may change the discovered layers
+            if (isDiscoveryEnabled() && !newInfo.referencedPackages().equals(deployedInfo.referencedPackages())) {
+                debug("The packages referenced by %s changed and require a redeploy", newInfo.binaryName());
+                return false;
+            }
+            changedClasses.put(newInfo.binaryName(), newBytes);
+        }
+        if (changedClasses.isEmpty()) {
+            debug("No classes changed, skipping redeploy");
+            return true;
+        }
+        return classRedefiner.redefine(changedClasses);
+    }
+
+    private boolean registerDir(final Path dir, final WatchHandler handler) throws IOException {
+        final int currentSize = watchRegistry.size();
+        if (watchRegistry.register(dir, handler)) {
+            debug("Watching for changes in %d new director(ies) of %s", watchRegistry.size() - currentSize, dir);
+            return true;
         }
         return false;
     }
 
+    private void watch(final WatchService watcher, final DeploymentManager deploymentManager, final Deployment deployment,
+            final ChangeSet initialChanges) {
+        // The changes are built by a worker, so changes made while building are collected and can supersede the build
+        final ChangeQueue queue = new ChangeQueue();
+        changeQueue = queue;
+        if (initialChanges != null && !initialChanges.isEmpty()) {
+            queue.offer(initialChanges, System.nanoTime());
+        }
+        final Thread worker = new Thread(() -> build(queue, deploymentManager, deployment), "wildfly-dev-build");
+        worker.setDaemon(true);
+        worker.start();
+        try {
+            collect(watcher, queue);
+        } finally {
+            worker.interrupt();
+            if (stageExecutor != null) {
+                stageExecutor.shutdownNow();
+            }
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(timeout));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     @SuppressWarnings("InfiniteLoopStatement")
-    private void watch(final WatchService watcher, final DeploymentManager deploymentManager, final Deployment deployment) {
-        final var projectDir = project.getBasedir().toPath();
+    private void collect(final WatchService watcher, final ChangeQueue queue) {
         try {
             for (;;) {
+                // Wait for the first change, then collect changes until the quiet period passes with no new events.
                 WatchKey key = watcher.take();
-                for (WatchEvent<?> event : key.pollEvents()) {
-                    WatchEvent.Kind<?> kind = event.kind();
-                    if (kind == OVERFLOW) {
-                        continue;
-                    }
-                    @SuppressWarnings("unchecked")
-                    final WatchEvent<Path> ev = (WatchEvent<Path>) event;
-                    debug("File changed [%s]: %s", ev.kind().name(), ev.context());
-                    final Path absolutePath = getPath(key, ev.context());
-                    if (absolutePath == null) {
-                        continue;
-                    }
-                    final var eventPath = absolutePath.getFileName();
-                    try {
-                        if (isIgnoredChange(eventPath)) {
-                            debug("Ignoring change for %s", eventPath);
-                            continue;
-                        }
-                    } catch (IOException ex) {
-                        debug("Failed checking %s for ignored state: %s", eventPath, ex);
-                    }
-                    try {
-                        final var context = watchedDirectories.get(key);
-                        if (context == null) {
-                            getLog().warn(String.format("Failed to find context for %s", ev.context()));
-                            continue;
-                        }
-                        final var relativePath = projectDir.relativize(absolutePath);
-                        if (ev.kind() == ENTRY_DELETE) {
-                            // Undeploy application as Windows won't be able to delete the directory
-                            DeploymentResult deploymentResult = deploymentManager.undeploy(UndeployDescription.of(deployment));
-                            if (!deploymentResult.successful()) {
-                                getLog().warn(String.format(
-                                        "Failed to undeploy application. Unexpected results may occur. Failure: %s",
-                                        deploymentResult.getFailureMessage()));
-                            } else {
-                                // Clean the deployment directory if that is a first update and no compilation occured
-                                // meaning that is a war file, not an exploded directory.
-                                final Path path = resolveWarLocation();
-                                deleteRecursively(path);
-                                triggerResources();
-                                triggerCompile();
-                                triggerWarGoal();
-                                deploymentResult = deploymentManager.deploy(deployment);
-                                if (!deploymentResult.successful()) {
-                                    throw new MojoExecutionException(
-                                            "Failed to deploy content: " + deploymentResult.getFailureMessage());
-                                }
-                                if (Files.notExists(context.directory())) {
-                                    watchedDirectories.remove(key);
-                                    key.cancel();
-                                }
-                                continue;
-                            }
-                        } else if (ev.kind() == ENTRY_CREATE) {
-                            // If this is a directory we need to add the directory
-                            if (Files.isDirectory(eventPath)) {
-                                if (registerDir(watcher, eventPath, context.handler())) {
-                                    debug("New directory registered: %s", relativePath);
-                                }
-                            } else {
-                                final Path parent = absolutePath.getParent();
-                                if (parent != null) {
-                                    if (registerDir(watcher, parent, context.handler())) {
-                                        debug("New directory registered: %s", relativePath);
-                                    }
-                                }
-                                debug("A new source file has been created: %s", relativePath);
-                            }
-                        } else if (ev.kind() == ENTRY_MODIFY) {
-                            debug("Source file modified: %s", relativePath);
-                        }
-                        // Handle the file
-                        final var result = context.handle(ev, absolutePath);
-                        if (result.requiresRecompile()) {
-                            triggerCompile();
-                        }
-                        if (result.requiresCopyResources()) {
-                            triggerResources();
-                        }
-                        boolean repackaged = false;
-                        if (remote || result.requiresRepackage()) {
-                            // If !remote, the first packaging was not an exploded war, clean it.
-                            if (requiresWarDeletion) {
-                                final Path path = resolveWarLocation();
-                                DeploymentResult deploymentResult = deploymentManager
-                                        .undeploy(UndeployDescription.of(deployment));
-                                if (!deploymentResult.successful()) {
-                                    getLog().warn(String.format(
-                                            "Failed to undeploy application. Unexpected results may occur. Failure: %s",
-                                            deploymentResult.getFailureMessage()));
-                                }
-                                deleteRecursively(path);
-                                requiresWarDeletion = false;
-                                repackaged = true;
-                            }
-                            triggerWarGoal();
-                        }
-                        boolean reprovisioned = false;
-                        if (!remote) {
-                            reprovisioned = reprovisionAndStart();
-                        }
-                        if (remote || result.requiresRedeploy() || repackaged || reprovisioned) {
-                            final DeploymentResult deploymentResult;
-                            if (remote) {
-                                // If we are deploying an archive, we need to redeploy the full WAR
-                                deploymentResult = deploymentManager
-                                        .redeploy(deployment);
-                            } else {
-                                if (reprovisioned || repackaged) {
-                                    deploymentResult = deploymentManager
-                                            .forceDeploy(deployment);
-                                } else {
-                                    deploymentResult = deploymentManager
-                                            .redeployToRuntime(deployment);
-                                }
-                            }
-                            if (!deploymentResult.successful()) {
-                                throw new MojoExecutionException(
-                                        "Failed to deploy content: " + deploymentResult.getFailureMessage());
-                            }
-                        }
-                    } catch (Exception ex) {
-                        getLog().error("Exception handling file change: " + ex);
-                    }
+                final long detected = System.nanoTime();
+                final ChangeSet changes = new ChangeSet();
+                final Set<Path> overflowed = new HashSet<>();
+                do {
+                    collectChanges(key, changes, overflowed);
+                    key = watcher.poll(quietPeriod, TimeUnit.MILLISECONDS);
+                } while (key != null);
+                if (!overflowed.isEmpty()) {
+                    recoverChanges(overflowed, changes);
                 }
-                key.reset();
+                debug("Accepted %d file event(s), suppressed %d event(s) with unchanged content", acceptedEvents,
+                        suppressedEvents);
+                acceptedEvents = 0;
+                suppressedEvents = 0;
+                queue.offer(changes, detected);
             }
         } catch (ClosedWatchServiceException ex) {
             // OK Can ignore, we have been closed by shutdown hook.
@@ -874,28 +1478,746 @@ public class DevMojo extends AbstractServerStartMojo {
         }
     }
 
+    @SuppressWarnings("InfiniteLoopStatement")
+    private void build(final ChangeQueue queue, final DeploymentManager deploymentManager, final Deployment deployment) {
+        try {
+            for (;;) {
+                final ChangeSet changes = queue.take();
+                cycleMetrics.begin(queue.detected());
+                debug("Processing %d changed file(s): %s", changes.size(), changes);
+                try {
+                    reloadBuildIfPomChanged();
+                    processChanges(changes, deploymentManager, deployment);
+                    failedChanges.removeAll(changes.changes().keySet());
+                    queue.done();
+                    getLog().info(cycleMetrics.complete(true));
+                } catch (CycleSupersededException ex) {
+                    // Build the changes again, together with the newer changes
+                    outputDigests.clear();
+                    cycleMetrics.discard();
+                    debug("Stopped building %d changed file(s) as newer changes were detected", changes.size());
+                    queue.requeue(changes, queue.detected());
+                } catch (Exception ex) {
+                    // The recorded output may not have been deployed
+                    outputDigests.clear();
+                    failedChanges.addAll(changes.changes().keySet());
+                    queue.done();
+                    getLog().info(cycleMetrics.complete(false));
+                    getLog().error("Exception handling file change: " + ex);
+                }
+            }
+        } catch (InterruptedException ignore) {
+            // The watch service has been closed
+        }
+    }
+
+    /**
+     * Stops the current build cycle if newer changes have been detected. This must only be invoked before any change
+     * has been made to the deployment.
+     */
+    private void checkSuperseded() throws CycleSupersededException {
+        if (changeQueue != null && changeQueue.isSuperseded()) {
+            throw new CycleSupersededException();
+        }
+    }
+
+    private void collectChanges(final WatchKey key, final ChangeSet changes, final Set<Path> overflowed) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            WatchEvent.Kind<?> kind = event.kind();
+            if (kind == OVERFLOW) {
+                // Events have been lost, the directory will be rescanned once the changes have been collected
+                final WatchContext context = watchRegistry.context(key);
+                if (context != null) {
+                    overflowed.add(context.directory());
+                }
+                continue;
+            }
+            @SuppressWarnings("unchecked")
+            final WatchEvent<Path> ev = (WatchEvent<Path>) event;
+            debug("File changed [%s]: %s", ev.kind().name(), ev.context());
+            final Path absolutePath = getPath(key, ev.context());
+            if (absolutePath == null) {
+                continue;
+            }
+            final var context = watchRegistry.context(key);
+            if (context == null) {
+                getLog().warn(String.format("Failed to find context for %s", ev.context()));
+                continue;
+            }
+            collectChange(context, ev, absolutePath, changes);
+        }
+        if (!key.reset()) {
+            // The directory is no longer accessible, most likely it has been deleted
+            watchRegistry.remove(key);
+        }
+    }
+
+    private void recoverChanges(final Set<Path> overflowed, final ChangeSet changes) {
+        // Only rescan the top most directories, subdirectories are included in the rescan
+        final List<Path> dirs = new ArrayList<>();
+        for (Path dir : overflowed) {
+            Path parent = dir.getParent();
+            while (parent != null && !overflowed.contains(parent)) {
+                parent = parent.getParent();
+            }
+            if (parent == null) {
+                dirs.add(dir);
+            }
+        }
+        getLog().warn(String.format("File change events were lost, rescanning %d director(ies).", dirs.size()));
+        try {
+            final List<WatchRegistry.Change> recovered = watchRegistry.rescan(dirs);
+            debug("Recovered %d change(s) by rescanning %s", recovered.size(), dirs);
+            for (WatchRegistry.Change change : recovered) {
+                collectChange(change.watchContext(), change, change.file(), changes);
+            }
+        } catch (IOException e) {
+            getLog().error("Failed to rescan the watched directories: " + e);
+        }
+    }
+
+    private void collectChange(final WatchContext context, final WatchEvent<Path> ev,
+            final Path absolutePath, final ChangeSet changes) {
+        final var projectDir = project.getBasedir().toPath();
+        final var eventPath = absolutePath.getFileName();
+        try {
+            if (isIgnoredChange(eventPath)) {
+                debug("Ignoring change for %s", eventPath);
+                return;
+            }
+        } catch (IOException ex) {
+            debug("Failed checking %s for ignored state: %s", eventPath, ex);
+        }
+        if (ev.kind() == ENTRY_DELETE) {
+            digestCache.remove(absolutePath);
+        } else if (!digestCache.hasChanged(absolutePath)) {
+            // Editors and other tools may write a file, or update its last modified time, without changing the content
+            debug("Ignoring change for %s, the content has not changed", eventPath);
+            suppressedEvents++;
+            return;
+        }
+        try {
+            final var relativePath = projectDir.relativize(absolutePath);
+            if (ev.kind() == ENTRY_DELETE) {
+                debug("Source file deleted: %s", relativePath);
+            } else if (ev.kind() == ENTRY_CREATE) {
+                // If this is a directory we need to add the directory
+                if (Files.isDirectory(absolutePath)) {
+                    if (registerDir(absolutePath, context.handler())) {
+                        debug("New directory registered: %s", relativePath);
+                    }
+                } else {
+                    final Path parent = absolutePath.getParent();
+                    if (parent != null && !watchRegistry.isRegistered(parent)) {
+                        if (registerDir(parent, context.handler())) {
+                            debug("New directory registered: %s", relativePath);
+                        }
+                    }
+                    debug("A new source file has been created: %s", relativePath);
+                }
+            } else if (ev.kind() == ENTRY_MODIFY) {
+                debug("Source file modified: %s", relativePath);
+            }
+            watchRegistry.update(absolutePath);
+            acceptedEvents++;
+            changes.add(ev.kind(), absolutePath, context.handle(ev, absolutePath));
+        } catch (Exception ex) {
+            getLog().error("Exception handling file change: " + ex);
+        }
+    }
+
+    private void processChanges(final ChangeSet changes, final DeploymentManager deploymentManager,
+            final Deployment deployment) throws Exception {
+        if (changes.hasDeletions() && !Environment.isWindows()) {
+            // Remove what was built from the deleted files, then handle the deletions like any other change
+            removeStaleOutputs(changes);
+        } else if (changes.hasDeletions()) {
+            outputDigests.clear();
+            // Undeploy application as Windows won't be able to delete the directory
+            cycleMetrics.enter(DevCycleMetrics.Stage.DEPLOY);
+            DeploymentResult deploymentResult = deploymentManager.undeploy(UndeployDescription.of(deployment));
+            if (!deploymentResult.successful()) {
+                getLog().warn(String.format(
+                        "Failed to undeploy application. Unexpected results may occur. Failure: %s",
+                        deploymentResult.getFailureMessage()));
+            } else {
+                // Clean the deployment directory if that is a first update and no compilation occured
+                // meaning that is a war file, not an exploded directory.
+                final Path path = resolveWarLocation();
+                deleteRecursively(path);
+                cycleMetrics.enter(DevCycleMetrics.Stage.RESOURCES);
+                triggerResources();
+                cycleMetrics.enter(DevCycleMetrics.Stage.COMPILE);
+                triggerCompile();
+                cycleMetrics.enter(DevCycleMetrics.Stage.PACKAGE);
+                triggerWarGoal();
+                if (changes.requiresModuleRebuild() && !rebuildModules(changes)) {
+                    triggerWarGoal();
+                }
+                cycleMetrics.enter(DevCycleMetrics.Stage.DEPLOY);
+                deploymentResult = deploymentManager.deploy(deployment);
+                if (!deploymentResult.successful()) {
+                    throw new MojoExecutionException(
+                            "Failed to deploy content: " + deploymentResult.getFailureMessage());
+                }
+                return;
+            }
+        }
+        if (changes.requiresRecompile() && changes.requiresCopyResources() && usesIncrementalCompiler()) {
+            // The resources and the classes are different files of the output directory, copy them while compiling.
+            // Only the in-process compiler does not execute a mojo, mojos must not be executed concurrently.
+            cycleMetrics.enter(DevCycleMetrics.Stage.COMPILE);
+            compileAndCopyResources(changes);
+        } else {
+            if (changes.requiresCopyResources()) {
+                cycleMetrics.enter(DevCycleMetrics.Stage.RESOURCES);
+                triggerResources();
+                if (changes.requiresRecompile()) {
+                    checkSuperseded();
+                }
+            }
+            if (changes.requiresRecompile()) {
+                cycleMetrics.enter(DevCycleMetrics.Stage.COMPILE);
+                triggerCompile(changes);
+            }
+        }
+        if (changes.requiresRecompile() || changes.requiresCopyResources()) {
+            checkSuperseded();
+            // Comment or formatting changes may compile to the same classes, leaving nothing to deploy
+            final boolean outputChanged = outputDigests.update(Path.of(project.getBuild().getOutputDirectory()));
+            if (!outputChanged && isSourceChangeOnly(changes)) {
+                getLog().info("The compiled classes did not change, skipping packaging and redeploy.");
+                return;
+            }
+        }
+        checkSuperseded();
+        // If a library could not be updated, the deployment is repackaged
+        final boolean librariesUpdated = !changes.requiresModuleRebuild() || rebuildModules(changes);
+        checkSuperseded();
+        cycleMetrics.enter(DevCycleMetrics.Stage.PACKAGE);
+        if (!remote && !requiresWarDeletion && librariesUpdated && changes.allowsDirectCopy()
+                && copyWebResources(changes)) {
+            return;
+        }
+        if (classRedefiner != null && !requiresWarDeletion && changes.allowsClassRedefinition()) {
+            cycleMetrics.enter(DevCycleMetrics.Stage.HOT_SWAP);
+            if (redefineClasses()) {
+                // Update the exploded deployment so classes loaded later, or after a restart, use the new definitions
+                cycleMetrics.enter(DevCycleMetrics.Stage.PACKAGE);
+                triggerWarGoal();
+                return;
+            }
+            cycleMetrics.enter(DevCycleMetrics.Stage.PACKAGE);
+        }
+        boolean repackaged = false;
+        if (remote || changes.requiresRepackage() || !librariesUpdated) {
+            // If !remote, the first packaging was not an exploded war, clean it.
+            if (requiresWarDeletion) {
+                final Path path = resolveWarLocation();
+                DeploymentResult deploymentResult = deploymentManager
+                        .undeploy(UndeployDescription.of(deployment));
+                if (!deploymentResult.successful()) {
+                    getLog().warn(String.format(
+                            "Failed to undeploy application. Unexpected results may occur. Failure: %s",
+                            deploymentResult.getFailureMessage()));
+                }
+                deleteRecursively(path);
+                requiresWarDeletion = false;
+                repackaged = true;
+            }
+            triggerWarGoal();
+        }
+        boolean reprovisioned = false;
+        if (!remote) {
+            cycleMetrics.enter(DevCycleMetrics.Stage.PROVISION);
+            reprovisioned = reprovisionAndStart();
+        }
+        if (remote || changes.requiresRedeploy() || repackaged || reprovisioned) {
+            cycleMetrics.enter(DevCycleMetrics.Stage.DEPLOY);
+            final DeploymentResult deploymentResult;
+            if (remote) {
+                if (remoteContentSync != null && updateRemoteContent()) {
+                    return;
+                }
+                // If we are deploying an archive, we need to redeploy the full WAR
+                deploymentResult = deploymentManager
+                        .redeploy(deployment);
+            } else {
+                if (reprovisioned || repackaged) {
+                    deploymentResult = deploymentManager
+                            .forceDeploy(deployment);
+                } else {
+                    deploymentResult = deploymentManager
+                            .redeployToRuntime(deployment);
+                }
+            }
+            if (!deploymentResult.successful()) {
+                throw new MojoExecutionException(
+                        "Failed to deploy content: " + deploymentResult.getFailureMessage());
+            }
+        }
+    }
+
+    private boolean isSourceChangeOnly(final ChangeSet changes) {
+        if (changes.hasDeletions() || changes.requiresModuleRebuild()) {
+            return false;
+        }
+        final List<Path> sourceRoots = project.getCompileSourceRoots().stream()
+                .map(Path::of)
+                .collect(Collectors.toList());
+        return changes.changes().keySet().stream().allMatch(file -> sourceRoots.stream().anyMatch(file::startsWith));
+    }
+
+    private void removeStaleOutputs(final ChangeSet changes) throws IOException {
+        if (staleOutputRemover == null) {
+            final Path outputDir = Path.of(project.getBuild().getOutputDirectory());
+            final Path webappClasses = resolveWebappDirectory().resolve("WEB-INF").resolve("classes");
+            final StaleOutputRemover remover = new StaleOutputRemover(getLog());
+            for (String sourceRoot : project.getCompileSourceRoots()) {
+                remover.addSources(Path.of(sourceRoot), outputDir, webappClasses);
+            }
+            for (Resource resource : project.getResources()) {
+                final String targetPath = resource.getTargetPath() == null ? "" : resource.getTargetPath();
+                remover.addFiles(Path.of(resource.getDirectory()), outputDir.resolve(targetPath),
+                        webappClasses.resolve(targetPath));
+            }
+            remover.addFiles(resolveWebAppSourceDir(), resolveWebappDirectory());
+            for (ReactorModule module : reactorModules) {
+                final MavenProject moduleProject = module.project();
+                final Path moduleOutputDir = Path.of(moduleProject.getBuild().getOutputDirectory());
+                for (String sourceRoot : moduleProject.getCompileSourceRoots()) {
+                    remover.addSources(Path.of(sourceRoot), moduleOutputDir);
+                }
+                for (Resource resource : moduleProject.getResources()) {
+                    final String targetPath = resource.getTargetPath() == null ? "" : resource.getTargetPath();
+                    remover.addFiles(Path.of(resource.getDirectory()), moduleOutputDir.resolve(targetPath));
+                }
+            }
+            staleOutputRemover = remover;
+        }
+        for (Map.Entry<Path, WatchEvent.Kind<Path>> entry : changes.changes().entrySet()) {
+            if (entry.getValue() == ENTRY_DELETE) {
+                staleOutputRemover.remove(entry.getKey());
+            }
+        }
+    }
+
+    private void compileAndCopyResources(final ChangeSet changes) throws MojoExecutionException {
+        if (stageExecutor == null) {
+            stageExecutor = Executors.newSingleThreadExecutor(r -> {
+                final Thread thread = new Thread(r, "wildfly-dev-resources");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        final Future<?> resources = stageExecutor.submit(() -> {
+            triggerResources();
+            return null;
+        });
+        try {
+            triggerCompile(changes);
+        } finally {
+            try {
+                resources.get();
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof MojoExecutionException) {
+                    throw (MojoExecutionException) cause;
+                }
+                throw new MojoExecutionException("Failed to copy the resources", cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MojoExecutionException("Interrupted while copying the resources", e);
+            }
+        }
+    }
+
+    private boolean usesIncrementalCompiler() throws MojoExecutionException {
+        return incrementalCompile && getIncrementalCompiler() != null;
+    }
+
+    private void triggerCompile(final ChangeSet changes) throws MojoExecutionException {
+        if (!incrementalCompile) {
+            triggerCompile();
+            return;
+        }
+        final IncrementalCompiler compiler = getIncrementalCompiler();
+        if (compiler == null) {
+            triggerCompile();
+            return;
+        }
+        final List<Path> sourceRoots = project.getCompileSourceRoots().stream()
+                .map(Path::of)
+                .collect(Collectors.toList());
+        final List<Path> changed = new ArrayList<>();
+        final List<Path> deleted = new ArrayList<>();
+        for (Map.Entry<Path, WatchEvent.Kind<Path>> entry : changes.changes().entrySet()) {
+            final Path file = entry.getKey();
+            if (sourceRoots.stream().anyMatch(file::startsWith)) {
+                if (entry.getValue() == ENTRY_DELETE) {
+                    deleted.add(file);
+                } else if (Files.isDirectory(file)) {
+                    // A new directory may have been copied with sources in it
+                    try (Stream<Path> files = Files.walk(file)) {
+                        files.filter(f -> f.getFileName().toString().endsWith(".java"))
+                                .forEach(changed::add);
+                    } catch (IOException e) {
+                        throw new MojoExecutionException("Failed to list the sources in " + file, e);
+                    }
+                } else {
+                    changed.add(file);
+                }
+            }
+        }
+        try {
+            compiler.compile(changed, deleted);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to compile the changed sources", e);
+        }
+    }
+
+    private IncrementalCompiler getIncrementalCompiler() throws MojoExecutionException {
+        if (incrementalCompiler != null) {
+            return incrementalCompiler;
+        }
+        final Plugin compilerPlugin = project.getPlugin(ORG_APACHE_MAVEN_PLUGINS + ":" + MAVEN_COMPILER_PLUGIN);
+        final Xpp3Dom config = compilerPlugin == null ? new Xpp3Dom("configuration")
+                : resolveCompilerConfig(compilerPlugin, getPluginConfig(compilerPlugin, MAVEN_COMPILER_GOAL));
+        if (config == null) {
+            incrementalCompile = false;
+            return null;
+        }
+        try {
+            final List<Path> processorPath = resolveAnnotationProcessorPath(config);
+            if (processorPath == null) {
+                incrementalCompile = false;
+                return null;
+            }
+            incrementalCompiler = IncrementalCompiler.create(getLog(), config,
+                    project.getCompileSourceRoots().stream().map(Path::of).collect(Collectors.toList()),
+                    project.getCompileClasspathElements().stream().map(Path::of).collect(Collectors.toList()),
+                    processorPath, Path.of(project.getBuild().getOutputDirectory()),
+                    Path.of(project.getBuild().getDirectory(), "generated-sources", "annotations"));
+        } catch (DependencyResolutionRequiredException | IOException e) {
+            getLog().warn("Failed to create the in-process compiler, the maven-compiler-plugin will be used: " + e);
+        }
+        if (incrementalCompiler == null) {
+            incrementalCompile = false;
+        }
+        return incrementalCompiler;
+    }
+
+    /**
+     * Resolves the configuration of the maven-compiler-plugin as the plugin would see it. Expressions are evaluated and
+     * the parameters which are not configured take the value of their property or their default value, for example
+     * {@code maven.compiler.release} or {@code project.build.sourceEncoding}.
+     *
+     * @param plugin the maven-compiler-plugin
+     * @param config the configuration of the plugin
+     *
+     * @return the resolved configuration or {@code null} if a value cannot be resolved
+     *
+     * @throws MojoExecutionException if the descriptor of the plugin cannot be resolved
+     */
+    private Xpp3Dom resolveCompilerConfig(final Plugin plugin, final Xpp3Dom config) throws MojoExecutionException {
+        final MojoDescriptor descriptor = getMojoDescriptor(plugin, MAVEN_COMPILER_GOAL);
+        final PluginParameterExpressionEvaluator evaluator = new PluginParameterExpressionEvaluator(mavenSession,
+                new MojoExecution(descriptor));
+        final Xpp3Dom resolved = new Xpp3Dom("configuration");
+        try {
+            for (Xpp3Dom child : config.getChildren()) {
+                final Xpp3Dom value = evaluate(evaluator, child);
+                if (value == null) {
+                    return null;
+                }
+                if (value.getChildCount() > 0 || value.getValue() != null) {
+                    resolved.addChild(value);
+                }
+            }
+            final PlexusConfiguration parameters = descriptor.getMojoConfiguration();
+            if (parameters != null) {
+                for (PlexusConfiguration parameter : parameters.getChildren()) {
+                    if (resolved.getChild(parameter.getName()) != null) {
+                        continue;
+                    }
+                    Object value = evaluator.evaluate(parameter.getValue(null));
+                    if (value == null) {
+                        value = evaluator.evaluate(parameter.getAttribute("default-value", null));
+                    }
+                    // Only simple values are passed to the compiler, for example not the project or the session
+                    if (value instanceof String || value instanceof Boolean || value instanceof Number
+                            || value instanceof File) {
+                        if (isUnresolved(value.toString(), parameter.getName())) {
+                            return null;
+                        }
+                        final Xpp3Dom child = new Xpp3Dom(parameter.getName());
+                        child.setValue(value.toString());
+                        resolved.addChild(child);
+                    }
+                }
+            }
+        } catch (ExpressionEvaluationException e) {
+            getLog().info("The maven-compiler-plugin configuration cannot be resolved, the maven-compiler-plugin will be "
+                    + "used: " + e.getMessage());
+            return null;
+        }
+        return resolved;
+    }
+
+    private Xpp3Dom evaluate(final PluginParameterExpressionEvaluator evaluator, final Xpp3Dom config)
+            throws ExpressionEvaluationException {
+        final Xpp3Dom result = new Xpp3Dom(config.getName());
+        if (config.getChildCount() > 0) {
+            for (Xpp3Dom child : config.getChildren()) {
+                final Xpp3Dom value = evaluate(evaluator, child);
+                if (value == null) {
+                    return null;
+                }
+                result.addChild(value);
+            }
+        } else if (config.getValue() != null) {
+            final Object value = evaluator.evaluate(config.getValue());
+            if (value != null) {
+                if (isUnresolved(value.toString(), config.getName())) {
+                    return null;
+                }
+                result.setValue(value.toString());
+            }
+        }
+        return result;
+    }
+
+    private boolean isUnresolved(final String value, final String name) {
+        if (value.contains("${")) {
+            getLog().info(String.format("The maven-compiler-plugin configuration %s=%s cannot be resolved, the "
+                    + "maven-compiler-plugin will be used.", name, value));
+            return true;
+        }
+        return false;
+    }
+
+    private List<Path> resolveAnnotationProcessorPath(final Xpp3Dom config) {
+        final Xpp3Dom paths = config.getChild("annotationProcessorPaths");
+        if (paths == null || paths.getChildCount() == 0) {
+            return List.of();
+        }
+        final CollectRequest collectRequest = new CollectRequest();
+        collectRequest.setRepositories(repositories);
+        for (Xpp3Dom path : paths.getChildren()) {
+            final String groupId = childValue(path, "groupId");
+            final String artifactId = childValue(path, "artifactId");
+            final String version = childValue(path, "version");
+            if (groupId == null || artifactId == null || version == null) {
+                // Versions managed by the project are not supported here
+                getLog().info(String.format("The annotation processor path %s:%s does not define a version, the "
+                        + "maven-compiler-plugin will be used.", groupId, artifactId));
+                return null;
+            }
+            final String type = childValue(path, "type");
+            collectRequest.addDependency(new Dependency(new DefaultArtifact(groupId, artifactId,
+                    childValue(path, "classifier"), type == null ? "jar" : type, version), "runtime"));
+        }
+        try {
+            return repoSystem.resolveDependencies(session, new DependencyRequest(collectRequest, null))
+                    .getArtifactResults()
+                    .stream()
+                    .map(result -> result.getArtifact().getFile().toPath())
+                    .collect(Collectors.toList());
+        } catch (DependencyResolutionException e) {
+            getLog().warn("Failed to resolve the annotation processor path, the maven-compiler-plugin will be used: "
+                    + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String childValue(final Xpp3Dom parent, final String name) {
+        final Xpp3Dom child = parent.getChild(name);
+        return child == null || child.getValue() == null || child.getValue().isBlank() ? null : child.getValue().trim();
+    }
+
     private void triggerCompile() throws MojoExecutionException {
         // Compile the Java sources if needed
         final String compilerPluginKey = ORG_APACHE_MAVEN_PLUGINS + ":" + MAVEN_COMPILER_PLUGIN;
         final Plugin compilerPlugin = project.getPlugin(compilerPluginKey);
         if (compilerPlugin != null) {
-            executeGoal(project, compilerPlugin, ORG_APACHE_MAVEN_PLUGINS, MAVEN_COMPILER_PLUGIN, MAVEN_COMPILER_GOAL,
-                    getPluginConfig(compilerPlugin, MAVEN_COMPILER_GOAL));
+            executeGoal(project, compilerPlugin, MAVEN_COMPILER_GOAL,
+                    () -> getPluginConfig(compilerPlugin, MAVEN_COMPILER_GOAL));
         }
     }
 
     private void triggerWarGoal() throws MojoExecutionException {
+        if (syncExplodedWar()) {
+            return;
+        }
         // Compile the Java sources if needed
         final String warPluginKey = ORG_APACHE_MAVEN_PLUGINS + ":" + MAVEN_WAR_PLUGIN;
         final Plugin warPlugin = project.getPlugin(warPluginKey);
         if (warPlugin != null) {
-            executeGoal(project, warPlugin, ORG_APACHE_MAVEN_PLUGINS, MAVEN_WAR_PLUGIN, warGoal,
-                    getWarPluginConfig(warPlugin));
+            executeGoal(project, warPlugin, warGoal, () -> getWarPluginConfig(warPlugin));
         } else {
             getLog().warn("Can't package war application, war plugin not found");
         }
     }
 
+    private void registerReactorModules() throws IOException {
+        reactorModules = ReactorModule.find(project, mavenSession.getProjects());
+        final ReactorModuleHandler handler = new ReactorModuleHandler();
+        for (ReactorModule module : reactorModules) {
+            for (Path dir : module.watchedDirectories()) {
+                registerDir(dir, handler);
+                if (resumedSession == null) {
+                    digestCache.seed(dir);
+                }
+            }
+            debug("Watching reactor module %s", module);
+        }
+    }
+
+    /**
+     * Compiles the reactor modules with changes and replaces their libraries in the exploded deployment.
+     *
+     * @param changes the changes
+     *
+     * @return {@code true} if the libraries were replaced, {@code false} if the deployment must be repackaged
+     */
+    private boolean rebuildModules(final ChangeSet changes) throws MojoExecutionException {
+        boolean updated = true;
+        for (ReactorModule module : reactorModules) {
+            boolean sourcesChanged = false;
+            boolean resourcesChanged = false;
+            for (Path file : changes.changes().keySet()) {
+                if (module.isResource(file)) {
+                    resourcesChanged = true;
+                } else if (module.contains(file)) {
+                    sourcesChanged = true;
+                }
+            }
+            if (!sourcesChanged && !resourcesChanged) {
+                continue;
+            }
+            final MavenProject moduleProject = module.project();
+            cycleMetrics.enter(DevCycleMetrics.Stage.RESOURCES);
+            if (resourcesChanged) {
+                executeModuleGoal(moduleProject, MAVEN_RESOURCES_PLUGIN, MAVEN_RESOURCES_GOAL);
+            }
+            cycleMetrics.enter(DevCycleMetrics.Stage.COMPILE);
+            if (sourcesChanged) {
+                executeModuleGoal(moduleProject, MAVEN_COMPILER_PLUGIN, MAVEN_COMPILER_GOAL);
+            }
+            cycleMetrics.enter(DevCycleMetrics.Stage.PACKAGE);
+            try {
+                if (module.updateLibrary(resolveWebappDirectory())) {
+                    debug("Updated the library of reactor module %s", module);
+                } else {
+                    getLog().warn(String.format("The library of reactor module %s was not found in %s, the deployment "
+                            + "is repackaged with the artifact of the module which may not include the changes.",
+                            module, resolveWebappDirectory()));
+                    updated = false;
+                }
+            } catch (IOException e) {
+                throw new MojoExecutionException("Failed to package reactor module " + module, e);
+            }
+        }
+        return updated;
+    }
+
+    private void executeModuleGoal(final MavenProject moduleProject, final String artifactId, final String goal)
+            throws MojoExecutionException {
+        final Plugin plugin = moduleProject.getPlugin(ORG_APACHE_MAVEN_PLUGINS + ":" + artifactId);
+        if (plugin != null) {
+            executeGoal(moduleProject, plugin, goal, () -> getPluginConfig(plugin, goal));
+        }
+    }
+
+    private void explodeRemoteDeployment(final ModelControllerClient client, final Deployment deployment,
+            final boolean packaged) {
+        try {
+            final RemoteContentSync sync = RemoteContentSync.explode(client, deployment.getName(), getLog());
+            // The exploded WAR was packaged with the deployed WAR. Otherwise, it may be out of date and all files are
+            // sent with the first update.
+            if (packaged && Files.isDirectory(resolveWarDir())) {
+                sync.record(resolveWarDir());
+            }
+            remoteContentSync = sync;
+            // Only the exploded WAR is required from now on
+            warGoal = MAVEN_EXPLODED_GOAL;
+            allowedWarPluginParams.clear();
+            debug("Converted remote deployment %s into an exploded deployment", deployment.getName());
+        } catch (IOException e) {
+            getLog().warn(String.format("Failed to explode the remote deployment, the full WAR will be deployed for "
+                    + "each update: %s", e.getLocalizedMessage()));
+        }
+    }
+
+    private boolean updateRemoteContent() throws MojoExecutionException {
+        try {
+            if (remoteContentSync.update(resolveWarDir()) > 0) {
+                remoteContentSync.redeploy();
+            }
+            return true;
+        } catch (IOException e) {
+            getLog().warn(String.format("Failed to update the content of the remote deployment, deploying the full "
+                    + "WAR: %s", e.getLocalizedMessage()));
+        }
+        // Package the full WAR again and keep deploying it
+        remoteContentSync = null;
+        warGoal = MAVEN_WAR_GOAL;
+        allowedWarPluginParams.clear();
+        triggerWarGoal();
+        return false;
+    }
+
+    private boolean syncExplodedWar() throws MojoExecutionException {
+        if (!incrementalPackaging || remote) {
+            return false;
+        }
+        final ExplodedWarSync sync = getExplodedWarSync();
+        if (sync == null) {
+            if (Files.isDirectory(resolveWarLocation())) {
+                getLog().info("The maven-war-plugin configuration requires the war plugin to package the exploded WAR, "
+                        + "incremental packaging has been disabled.");
+                incrementalPackaging = false;
+            }
+            return false;
+        }
+        try {
+            sync.sync();
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to synchronize the exploded WAR " + resolveWarLocation(), e);
+        }
+        return true;
+    }
+
+    private boolean copyWebResources(final ChangeSet changes) throws MojoExecutionException {
+        final ExplodedWarSync sync = getExplodedWarSync();
+        if (sync == null) {
+            return false;
+        }
+        try {
+            final int copied = sync.copy(changes.changes().keySet());
+            debug("Copied %d web resource(s) into the exploded deployment", copied);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to copy web resources to " + resolveWarLocation(), e);
+        }
+        return true;
+    }
+
+    private ExplodedWarSync getExplodedWarSync() {
+        if (explodedWarSync == null && !explodedWarSyncUnsupported) {
+            final Path webappDirectory = resolveWarLocation();
+            // The war plugin is required to create the initial exploded WAR
+            if (!Files.isDirectory(webappDirectory)) {
+                return null;
+            }
+            final Plugin warPlugin = project.getPlugin(ORG_APACHE_MAVEN_PLUGINS + ":" + MAVEN_WAR_PLUGIN);
+            explodedWarSync = ExplodedWarSync.create(project,
+                    warPlugin == null ? null : (Xpp3Dom) warPlugin.getConfiguration(), resolveWebAppSourceDir(),
+                    webappDirectory, getLog());
+            explodedWarSyncUnsupported = explodedWarSync == null;
+        }
+        return explodedWarSync;
+    }
+
     private void triggerResources() throws MojoExecutionException {
         List<Resource> resources = project.getResources();
         if (resources.isEmpty()) {
@@ -905,12 +2227,12 @@ public class DevMojo extends AbstractServerStartMojo {
         if (resourcesPlugin == null) {
             return;
         }
-        executeGoal(project, resourcesPlugin, ORG_APACHE_MAVEN_PLUGINS, MAVEN_RESOURCES_PLUGIN, MAVEN_RESOURCES_GOAL,
-                getPluginConfig(resourcesPlugin, MAVEN_RESOURCES_GOAL));
+        executeGoal(project, resourcesPlugin, MAVEN_RESOURCES_GOAL,
+                () -> getPluginConfig(resourcesPlugin, MAVEN_RESOURCES_GOAL));
     }
 
     private Path getPath(final WatchKey key, final Path fileName) {
-        final WatchContext context = watchedDirectories.get(key);
+        final WatchContext context = watchRegistry.context(key);
         if (context == null) {
             getLog().debug("No more watching key, ignoring change done to " + fileName);
             return null;
@@ -948,10 +2270,100 @@ public class DevMojo extends AbstractServerStartMojo {
         return compileNeeded;
     }
 
-    private void executeGoal(final MavenProject project, final Plugin plugin, final String groupId, final String artifactId,
-            final String goal, final Xpp3Dom config) throws MojoExecutionException {
-        executeMojo(plugin(groupId(groupId), artifactId(artifactId), version(plugin.getVersion()), plugin.getDependencies()),
-                MojoExecutor.goal(goal), config, executionEnvironment(project, mavenSession, pluginManager));
+    private void executeGoal(final MavenProject project, final Plugin plugin, final String goal,
+            final MojoExecutionCache.ConfigurationFactory config) throws MojoExecutionException {
+        getMojoExecutions().execute(project, plugin, goal, config);
+    }
+
+    private MojoExecutionCache getMojoExecutions() {
+        if (mojoExecutions == null) {
+            mojoExecutions = new MojoExecutionCache(pluginManager, mavenSession);
+        }
+        return mojoExecutions;
+    }
+
+    /**
+     * Prepares the goals executed when changes are detected, so the first change does not have to load the plugins.
+     */
+    private void prepareGoals() {
+        final MojoExecutionCache executions = getMojoExecutions();
+        try {
+            final Plugin compilerPlugin = project.getPlugin(ORG_APACHE_MAVEN_PLUGINS + ":" + MAVEN_COMPILER_PLUGIN);
+            if (compilerPlugin != null && !incrementalCompile) {
+                executions.prepare(project, compilerPlugin, MAVEN_COMPILER_GOAL,
+                        () -> getPluginConfig(compilerPlugin, MAVEN_COMPILER_GOAL));
+            }
+            final Plugin resourcesPlugin = project.getPlugin(ORG_APACHE_MAVEN_PLUGINS + ":" + MAVEN_RESOURCES_PLUGIN);
+            if (resourcesPlugin != null && !project.getResources().isEmpty()) {
+                executions.prepare(project, resourcesPlugin, MAVEN_RESOURCES_GOAL,
+                        () -> getPluginConfig(resourcesPlugin, MAVEN_RESOURCES_GOAL));
+            }
+            final Plugin warPlugin = project.getPlugin(ORG_APACHE_MAVEN_PLUGINS + ":" + MAVEN_WAR_PLUGIN);
+            if (warPlugin != null) {
+                executions.prepare(project, warPlugin, warGoal, () -> getWarPluginConfig(warPlugin));
+            }
+            for (ReactorModule module : reactorModules) {
+                for (String artifactId : List.of(MAVEN_COMPILER_PLUGIN, MAVEN_RESOURCES_PLUGIN)) {
+                    final Plugin plugin = module.project().getPlugin(ORG_APACHE_MAVEN_PLUGINS + ":" + artifactId);
+                    if (plugin != null) {
+                        final String goal = MAVEN_COMPILER_PLUGIN.equals(artifactId) ? MAVEN_COMPILER_GOAL
+                                : MAVEN_RESOURCES_GOAL;
+                        executions.prepare(module.project(), plugin, goal, () -> getPluginConfig(plugin, goal));
+                    }
+                }
+            }
+            debug("Prepared %d goal execution(s)", executions.size());
+        } catch (MojoExecutionException e) {
+            // The goals will be prepared when first executed
+            debug("Failed to prepare the goal executions: %s", e);
+        }
+    }
+
+    /**
+     * Reloads the build configuration of the projects if a POM file changed since the goals were prepared. Only the
+     * plugins are reloaded, changes to the dependencies require the dev goal to be restarted.
+     */
+    private void reloadBuildIfPomChanged() throws MojoExecutionException {
+        if (mojoExecutions == null) {
+            return;
+        }
+        final Collection<Path> changed = mojoExecutions.invalidateIfChanged();
+        if (changed.isEmpty()) {
+            return;
+        }
+        getLog().info(String.format("Reloading the build plugin configuration as %s changed. Changes to dependencies "
+                + "require the dev goal to be restarted.", changed));
+        final List<MavenProject> projects = new ArrayList<>();
+        projects.add(project);
+        reactorModules.forEach(module -> projects.add(module.project()));
+        for (MavenProject p : projects) {
+            final ProjectBuildingRequest request = new DefaultProjectBuildingRequest(
+                    mavenSession.getProjectBuildingRequest());
+            request.setProject(null);
+            request.setResolveDependencies(false);
+            try {
+                final MavenProject reloaded = projectBuilder.build(p.getFile(), request).getProject();
+                p.getBuild().setPlugins(reloaded.getBuild().getPlugins());
+                p.getBuild().setPluginManagement(reloaded.getBuild().getPluginManagement());
+                p.getBuild().flushPluginMap();
+            } catch (ProjectBuildingException e) {
+                throw new MojoExecutionException("Failed to reload " + p.getFile(), e);
+            }
+        }
+        // Discard everything derived from the plugin configuration
+        allowedWarPluginParams.clear();
+        explodedWarSync = null;
+        explodedWarSyncUnsupported = false;
+        staleOutputRemover = null;
+        outputDigests.clear();
+        if (incrementalCompiler != null) {
+            try {
+                incrementalCompiler.close();
+            } catch (IOException e) {
+                getLog().debug("Failed to close the in-process compiler: " + e);
+            }
+            incrementalCompiler = null;
+        }
     }
 
     private Xpp3Dom getPluginConfig(final Plugin plugin, final String goal) throws MojoExecutionException {
@@ -998,7 +2410,8 @@ public class DevMojo extends AbstractServerStartMojo {
         // Load the allowed configuration params if not yet loaded
         if (allowedWarPluginParams.isEmpty()) {
             final String pluginVersion = plugin.getVersion();
-            final Map<String, String> parameters = remote ? WAR_PARAMETERS : EXPLODED_WAR_PARAMETERS;
+            final Map<String, String> parameters = MAVEN_WAR_GOAL.equals(warGoal) ? WAR_PARAMETERS
+                    : EXPLODED_WAR_PARAMETERS;
             allowedWarPluginParams.addAll(parameters.entrySet().stream()
                     .filter(e -> e.getValue().isEmpty() || VersionComparator.compareVersion(e.getValue(), pluginVersion) <= 0)
                     .map(Map.Entry::getKey)
@@ -1015,9 +2428,7 @@ public class DevMojo extends AbstractServerStartMojo {
         }
 
         final MojoExecutor.Element e = new MojoExecutor.Element("webappDirectory",
-                (remote ? resolveWarDir().toAbsolutePath().toString()
-                        : resolveWarLocation().toAbsolutePath()
-                                .toString()));
+                resolveWebappDirectory().toAbsolutePath().toString());
         configuration.addChild(e.toDom());
         return configuration;
     }
@@ -1066,7 +2477,16 @@ public class DevMojo extends AbstractServerStartMojo {
     }
 
     private Deployment getDeploymentContent() {
-        return Deployment.of(resolveWarLocation());
+        final Path location = resolveWarLocation();
+        if (unmanaged) {
+            if (!remote || (!remoteExploded && isLocalServer())) {
+                debug("Deploying %s as an unmanaged deployment", location);
+                return Deployment.local(location);
+            }
+            getLog().info(String.format("The server %s is not running on this machine or the deployment is exploded "
+                    + "on the server, the application will be uploaded.", getManagementHostName()));
+        }
+        return Deployment.of(location);
     }
 
     private Path resolveWebAppSourceDir() {
@@ -1093,6 +2513,11 @@ public class DevMojo extends AbstractServerStartMojo {
         return Path.of(project.getBuild().getDirectory()).resolve(project.getBuild().getFinalName());
     }
 
+    // The exploded WAR the war plugin is configured to build
+    private Path resolveWebappDirectory() {
+        return remote ? resolveWarDir() : resolveWarLocation();
+    }
+
     private String resolveProjectDeploymentName() {
         final PackageType packageType = PackageType.resolve(project);
         return String.format("%s.%s", project.getBuild()
@@ -1123,4 +2548,15 @@ public class DevMojo extends AbstractServerStartMojo {
             Files.delete(path);
         }
     }
+
+    /**
+     * Thrown to stop a build cycle whose changes have been superseded by newer changes.
+     */
+    private static class CycleSupersededException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        CycleSupersededException() {
+            super(null, null, false, false);
+        }
+    }
 }
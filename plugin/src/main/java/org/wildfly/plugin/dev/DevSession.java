@@ -0,0 +1,170 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.plugin.dev;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * The state of a dev mode session which left the server running when it ended. The next execution of the dev goal
+ * can re-attach to the server and only build and deploy the changes made in the meantime.
+ * <p>
+ * The state is written as JSON and contains the process id and management address of the server, the deployment, the
+ * digests of the deployed sources and the layers found by the last WildFly Glow scan, if any.
+ * </p>
+ */
+class DevSession {
+    private final long pid;
+    private final String hostName;
+    private final int port;
+    private final Path jbossHome;
+    private final String deploymentName;
+    private final ModelNode digests;
+    private final Set<String> decorators;
+    private final Set<String> excludedLayers;
+
+    DevSession(final long pid, final String hostName, final int port, final Path jbossHome,
+            final String deploymentName, final ModelNode digests, final Set<String> decorators,
+            final Set<String> excludedLayers) {
+        this.pid = pid;
+        this.hostName = hostName;
+        this.port = port;
+        this.jbossHome = jbossHome;
+        this.deploymentName = deploymentName;
+        this.digests = digests;
+        this.decorators = decorators;
+        this.excludedLayers = excludedLayers;
+    }
+
+    /**
+     * Reads the state of a previous session.
+     *
+     * @param file the state file
+     *
+     * @return the state or {@code null} if the file does not exist or cannot be parsed
+     */
+    static DevSession read(final Path file) {
+        if (Files.notExists(file)) {
+            return null;
+        }
+        try {
+            final ModelNode node = ModelNode.fromJSONString(Files.readString(file));
+            return new DevSession(node.get("pid").asLong(),
+                    node.get("host").asString(),
+                    node.get("port").asInt(),
+                    Path.of(node.get("jboss-home").asString()),
+                    node.get("deployment").asString(),
+                    node.get("digests"),
+                    names(node.get("scan"), "decorators"),
+                    names(node.get("scan"), "excluded-layers"));
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes the state to the file.
+     *
+     * @param file the state file
+     *
+     * @throws IOException if an error occurs writing the file
+     */
+    void write(final Path file) throws IOException {
+        final ModelNode node = new ModelNode();
+        node.get("pid").set(pid);
+        node.get("host").set(hostName);
+        node.get("port").set(port);
+        node.get("jboss-home").set(jbossHome.toString());
+        node.get("deployment").set(deploymentName);
+        node.get("digests").set(digests);
+        if (decorators != null) {
+            final ModelNode scan = node.get("scan");
+            scan.get("decorators").setEmptyList();
+            decorators.forEach(scan.get("decorators")::add);
+            scan.get("excluded-layers").setEmptyList();
+            excludedLayers.forEach(scan.get("excluded-layers")::add);
+        }
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, node.toJSONString(false));
+    }
+
+    /**
+     * Checks whether the server process of the session is still alive.
+     *
+     * @return {@code true} if the process is alive
+     */
+    boolean isServerAlive() {
+        return ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false);
+    }
+
+    /**
+     * Checks whether the session was started with the same server and deployment.
+     *
+     * @param hostName       the management host name
+     * @param port           the management port
+     * @param jbossHome      the server directory
+     * @param deploymentName the name of the deployment
+     *
+     * @return {@code true} if the session can be resumed with this configuration
+     */
+    boolean matches(final String hostName, final int port, final Path jbossHome, final String deploymentName) {
+        return Objects.equals(this.hostName, hostName) && this.port == port
+                && this.jbossHome.equals(jbossHome) && Objects.equals(this.deploymentName, deploymentName);
+    }
+
+    /**
+     * The process id of the server.
+     *
+     * @return the process id
+     */
+    long pid() {
+        return pid;
+    }
+
+    /**
+     * The digests of the deployed sources, as created by {@link FileDigestCache#toModelNode()}.
+     *
+     * @return the digests
+     */
+    ModelNode digests() {
+        return digests;
+    }
+
+    /**
+     * The names of the layers added by the last WildFly Glow scan.
+     *
+     * @return the layer names or {@code null} if the deployment was not scanned
+     */
+    Set<String> decorators() {
+        return decorators;
+    }
+
+    /**
+     * The names of the layers excluded by the last WildFly Glow scan.
+     *
+     * @return the layer names or {@code null} if the deployment was not scanned
+     */
+    Set<String> excludedLayers() {
+        return excludedLayers;
+    }
+
+    private static Set<String> names(final ModelNode scan, final String name) {
+        if (!scan.hasDefined(name)) {
+            return null;
+        }
+        final Set<String> names = new LinkedHashSet<>();
+        for (ModelNode value : scan.get(name).asList()) {
+            names.add(value.asString());
+        }
+        return names;
+    }
+}
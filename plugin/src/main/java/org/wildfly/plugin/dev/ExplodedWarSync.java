@@ -0,0 +1,405 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.plugin.dev;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.resolver.filter.ScopeArtifactFilter;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.DirectoryScanner;
+import org.codehaus.plexus.util.SelectorUtils;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+/**
+ * Synchronizes an exploded WAR with its sources. Only the files which have changed since the last synchronization are
+ * copied and files which no longer have a source are deleted.
+ * <p>
+ * Only the configuration of the maven-war-plugin which can be replicated by copying files is supported. If the
+ * configuration requires filtering, overlays or a custom file name mapping, {@link #create} returns {@code null} and the
+ * war plugin should be used.
+ * </p>
+ */
+class ExplodedWarSync {
+    // Configuration parameters which require the maven-war-plugin to build the exploded WAR
+    private static final Set<String> UNSUPPORTED_PARAMETERS = Set.of(
+            "archiveClasses",
+            "containerConfigXML",
+            "filters",
+            "outputFileNameMapping",
+            "overlays",
+            "webXml");
+    private static final Set<String> LIBRARY_TYPES = Set.of(
+            "jar",
+            "ejb",
+            "ejb-client",
+            "test-jar",
+            "bundle");
+    private static final String WEB_INF_CLASSES = "WEB-INF/classes/";
+    private static final String WEB_INF_LIB = "WEB-INF/lib/";
+
+    private final Log log;
+    private final Path webappDirectory;
+    private final List<Source> sources;
+    private final Map<String, Path> libraries;
+    private final Map<String, Entry> manifest;
+
+    private ExplodedWarSync(final Log log, final Path webappDirectory, final List<Source> sources,
+            final Map<String, Path> libraries) {
+        this.log = log;
+        this.webappDirectory = webappDirectory;
+        this.sources = sources;
+        this.libraries = libraries;
+        this.manifest = new HashMap<>();
+    }
+
+    /**
+     * Creates a new synchronizer for the project if the war plugin configuration is supported.
+     *
+     * @param project         the project
+     * @param warConfig       the configuration of the maven-war-plugin, may be {@code null}
+     * @param warSourceDir    the source directory of the web application
+     * @param webappDirectory the exploded WAR directory
+     * @param log             the log
+     *
+     * @return the synchronizer or {@code null} if the war plugin configuration cannot be replicated
+     */
+    static ExplodedWarSync create(final MavenProject project, final Xpp3Dom warConfig, final Path warSourceDir,
+            final Path webappDirectory, final Log log) {
+        final List<Source> sources = new ArrayList<>();
+        String[] warSourceIncludes = { "**" };
+        String[] warSourceExcludes = {};
+        if (warConfig != null) {
+            for (Xpp3Dom child : warConfig.getChildren()) {
+                if (UNSUPPORTED_PARAMETERS.contains(child.getName())) {
+                    log.debug(String.format("[WATCH] The war plugin configuration %s requires the war plugin to be used",
+                            child.getName()));
+                    return null;
+                }
+            }
+            if (Boolean.parseBoolean(value(warConfig, "filteringDeploymentDescriptors"))) {
+                log.debug("[WATCH] Filtering deployment descriptors requires the war plugin to be used");
+                return null;
+            }
+            final String includes = value(warConfig, "warSourceIncludes");
+            if (includes != null) {
+                warSourceIncludes = split(includes);
+            }
+            final String excludes = value(warConfig, "warSourceExcludes");
+            if (excludes != null) {
+                warSourceExcludes = split(excludes);
+            }
+            // Web resources take precedence over the web application sources
+            final Xpp3Dom webResources = warConfig.getChild("webResources");
+            if (webResources != null) {
+                for (Xpp3Dom resource : webResources.getChildren()) {
+                    if (Boolean.parseBoolean(value(resource, "filtering"))) {
+                        log.debug("[WATCH] Filtered web resources require the war plugin to be used");
+                        return null;
+                    }
+                    final String directory = value(resource, "directory");
+                    if (directory == null) {
+                        continue;
+                    }
+                    final String targetPath = value(resource, "targetPath");
+                    sources.add(new Source(project.getBasedir().toPath().resolve(directory),
+                            targetPath == null ? "" : normalizePrefix(targetPath),
+                            values(resource, "includes", new String[] { "**" }), values(resource, "excludes", null)));
+                }
+            }
+        }
+        sources.add(new Source(warSourceDir, "", warSourceIncludes, warSourceExcludes));
+        sources.add(new Source(Path.of(project.getBuild().getOutputDirectory()), WEB_INF_CLASSES, new String[] { "**" },
+                null));
+
+        final Map<String, Path> libraries = new LinkedHashMap<>();
+        final ScopeArtifactFilter filter = new ScopeArtifactFilter(Artifact.SCOPE_RUNTIME);
+        for (Artifact artifact : project.getArtifacts()) {
+            if (artifact.isOptional() || !filter.include(artifact)) {
+                continue;
+            }
+            if (!LIBRARY_TYPES.contains(artifact.getType())) {
+                log.debug(String.format("[WATCH] Dependency %s of type %s requires the war plugin to be used", artifact,
+                        artifact.getType()));
+                return null;
+            }
+            final String classifier = artifact.getClassifier();
+            final String fileName = artifact.getArtifactId() + "-" + artifact.getBaseVersion()
+                    + (classifier == null || classifier.isEmpty() ? "" : "-" + classifier) + "."
+                    + artifact.getArtifactHandler().getExtension();
+            if (libraries.put(WEB_INF_LIB + fileName, artifact.getFile().toPath()) != null) {
+                // The war plugin prefixes duplicate names with the groupId
+                log.debug(String.format("[WATCH] Duplicate library name %s requires the war plugin to be used", fileName));
+                return null;
+            }
+        }
+        return new ExplodedWarSync(log, webappDirectory, List.copyOf(sources), libraries);
+    }
+
+    /**
+     * Copies the changed files into the exploded WAR and deletes the files which no longer have a source.
+     *
+     * @throws IOException if an error occurs copying or deleting the files
+     */
+    void sync() throws IOException {
+        final long start = System.nanoTime();
+        // Find the source for each path in the exploded WAR, the first source found takes precedence
+        final Map<String, Path> expected = new LinkedHashMap<>();
+        for (Source source : sources) {
+            if (!Files.isDirectory(source.directory)) {
+                continue;
+            }
+            final DirectoryScanner scanner = new DirectoryScanner();
+            scanner.setBasedir(source.directory.toFile());
+            scanner.setIncludes(source.includes);
+            scanner.setExcludes(source.excludes);
+            scanner.addDefaultExcludes();
+            scanner.scan();
+            for (String file : scanner.getIncludedFiles()) {
+                expected.putIfAbsent(source.prefix + file.replace('\\', '/'), source.directory.resolve(file));
+            }
+        }
+        libraries.forEach(expected::putIfAbsent);
+
+        int copied = 0;
+        int unchanged = 0;
+        for (Map.Entry<String, Path> e : expected.entrySet()) {
+            if (syncFile(e.getKey(), e.getValue())) {
+                copied++;
+            } else {
+                unchanged++;
+            }
+        }
+        int deleted = 0;
+        final Iterator<Map.Entry<String, Entry>> iter = manifest.entrySet().iterator();
+        while (iter.hasNext()) {
+            final String target = iter.next().getKey();
+            if (!expected.containsKey(target)) {
+                Files.deleteIfExists(webappDirectory.resolve(target));
+                iter.remove();
+                deleted++;
+            }
+        }
+        log.debug(String.format("[WATCH] Synchronized %s in %d ms: %d copied, %d deleted, %d unchanged", webappDirectory,
+                (System.nanoTime() - start) / 1_000_000L, copied, deleted, unchanged));
+    }
+
+    /**
+     * Copies the changed source files directly into the exploded WAR, without checking any other file. Files which are
+     * not included by the configuration, or are overridden by a source with a higher precedence, are not copied.
+     *
+     * @param files the changed files
+     *
+     * @return the number of files copied
+     *
+     * @throws IOException if an error occurs copying the files
+     */
+    int copy(final Collection<Path> files) throws IOException {
+        int copied = 0;
+        for (Path file : files) {
+            if (!Files.isRegularFile(file)) {
+                continue;
+            }
+            for (Source source : sources) {
+                if (!file.startsWith(source.directory)) {
+                    continue;
+                }
+                final String relativePath = source.directory.relativize(file).toString();
+                if (source.matches(relativePath)) {
+                    final String target = source.prefix + relativePath.replace('\\', '/');
+                    if (!isOverridden(source, target) && syncFile(target, file)) {
+                        log.debug(String.format("[WATCH] Copied %s to %s", file, target));
+                        copied++;
+                    }
+                    break;
+                }
+            }
+        }
+        return copied;
+    }
+
+    private boolean isOverridden(final Source source, final String target) {
+        for (Source other : sources) {
+            if (other == source) {
+                return false;
+            }
+            if (target.startsWith(other.prefix)) {
+                final String relativePath = target.substring(other.prefix.length());
+                if (other.matches(relativePath.replace('/', File.separatorChar))
+                        && Files.exists(other.directory.resolve(relativePath))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean syncFile(final String target, final Path source) throws IOException {
+        final BasicFileAttributes sourceAttributes = Files.readAttributes(source, BasicFileAttributes.class);
+        final Entry previous = manifest.get(target);
+        final Path targetFile = webappDirectory.resolve(target);
+        if (previous != null && previous.isSame(source, sourceAttributes) && Files.exists(targetFile)) {
+            return false;
+        }
+        if (previous == null) {
+            // First time this file is seen, likely copied by the war plugin. Trust it if it's not outdated.
+            if (Files.exists(targetFile) && Files.size(targetFile) == sourceAttributes.size()
+                    && Files.getLastModifiedTime(targetFile).compareTo(sourceAttributes.lastModifiedTime()) >= 0) {
+                manifest.put(target, new Entry(source, sourceAttributes, -1L));
+                return false;
+            }
+        } else if (previous.size == sourceAttributes.size() && Files.exists(targetFile)) {
+            // The timestamp changed, but the content may be the same
+            final long digest = FileDigestCache.digest(source);
+            if (previous.digest(webappDirectory.resolve(target)) == digest) {
+                manifest.put(target, new Entry(source, sourceAttributes, digest));
+                return false;
+            }
+        }
+        copy(source, targetFile);
+        manifest.put(target, new Entry(source, sourceAttributes, -1L));
+        return true;
+    }
+
+    private static void copy(final Path source, final Path target) throws IOException {
+        final Path parent = target.getParent();
+        Files.createDirectories(parent);
+        // Copy to a temporary file first so the deployment never sees a partially written file
+        final Path tmp = Files.createTempFile(parent, ".", ".tmp");
+        try {
+            Files.copy(source, tmp, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static String value(final Xpp3Dom config, final String name) {
+        final Xpp3Dom child = config.getChild(name);
+        if (child == null || child.getValue() == null || child.getValue().isBlank()) {
+            return null;
+        }
+        return child.getValue().trim();
+    }
+
+    private static String[] values(final Xpp3Dom config, final String name, final String[] defaultValue) {
+        final Xpp3Dom child = config.getChild(name);
+        if (child == null || child.getChildCount() == 0) {
+            return defaultValue;
+        }
+        final List<String> result = new ArrayList<>();
+        for (Xpp3Dom value : child.getChildren()) {
+            if (value.getValue() != null && !value.getValue().isBlank()) {
+                result.add(value.getValue().trim());
+            }
+        }
+        return result.toArray(String[]::new);
+    }
+
+    private static String[] split(final String value) {
+        return value.trim().split("\\s*,\\s*");
+    }
+
+    private static String normalizePrefix(final String targetPath) {
+        String result = targetPath.replace('\\', '/');
+        while (result.startsWith("/")) {
+            result = result.substring(1);
+        }
+        if (!result.isEmpty() && !result.endsWith("/")) {
+            result = result + "/";
+        }
+        return result;
+    }
+
+    private static class Source {
+        final Path directory;
+        final String prefix;
+        final String[] includes;
+        final String[] excludes;
+
+        private Source(final Path directory, final String prefix, final String[] includes, final String[] excludes) {
+            this.directory = directory;
+            this.prefix = prefix;
+            this.includes = includes;
+            this.excludes = excludes;
+        }
+
+        /**
+         * Checks whether the path is selected by this source, the same way the {@link DirectoryScanner} does.
+         *
+         * @param relativePath the path relative to the directory using the platform separator
+         *
+         * @return {@code true} if the path is included and not excluded
+         */
+        boolean matches(final String relativePath) {
+            return matchesAny(includes, relativePath) && !matchesAny(excludes, relativePath)
+                    && !matchesAny(DirectoryScanner.DEFAULTEXCLUDES, relativePath);
+        }
+
+        private static boolean matchesAny(final String[] patterns, final String relativePath) {
+            if (patterns == null) {
+                return false;
+            }
+            for (String pattern : patterns) {
+                String normalized = pattern.trim().replace('/', File.separatorChar).replace('\\', File.separatorChar);
+                if (normalized.endsWith(File.separator)) {
+                    normalized += "**";
+                }
+                if (SelectorUtils.matchPath(normalized, relativePath, true)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class Entry {
+        final Path source;
+        final long size;
+        final FileTime lastModified;
+        // Lazily computed digest of the content, -1 if not yet computed
+        long digest;
+
+        private Entry(final Path source, final BasicFileAttributes attributes, final long digest) {
+            this.source = source;
+            this.size = attributes.size();
+            this.lastModified = attributes.lastModifiedTime();
+            this.digest = digest;
+        }
+
+        boolean isSame(final Path source, final BasicFileAttributes attributes) {
+            return this.source.equals(source) && size == attributes.size()
+                    && lastModified.equals(attributes.lastModifiedTime());
+        }
+
+        long digest(final Path target) throws IOException {
+            if (digest == -1L) {
+                digest = FileDigestCache.digest(target);
+            }
+            return digest;
+        }
+    }
+}
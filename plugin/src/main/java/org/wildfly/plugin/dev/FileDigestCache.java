@@ -0,0 +1,222 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.plugin.dev;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * A cache of the content digests of files, used to detect whether the content of a file has actually changed. The size
+ * and last modified time of the file are checked first, the content is only read if either of them changed.
+ * <p>
+ * The cache is thread-safe.
+ * </p>
+ */
+class FileDigestCache {
+    private final Map<Path, Entry> entries = new HashMap<>();
+
+    /**
+     * Records the digests of the regular files in the directory and its subdirectories.
+     *
+     * @param dir the directory
+     *
+     * @throws IOException if an error occurs reading the files
+     */
+    synchronized void seed(final Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                if (attrs.isRegularFile()) {
+                    entries.put(file, new Entry(attrs, digest(file)));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(final Path file, final IOException exc) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Checks whether the content of the file differs from the content last recorded. The new digest is recorded.
+     * Files which are not regular files, or have not been recorded, are always considered changed.
+     *
+     * @param file the file to check
+     *
+     * @return {@code true} if the content of the file changed
+     */
+    synchronized boolean hasChanged(final Path file) {
+        final BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            entries.remove(file);
+            return true;
+        }
+        if (!attrs.isRegularFile()) {
+            entries.remove(file);
+            return true;
+        }
+        final Entry previous = entries.get(file);
+        if (previous != null && previous.size == attrs.size()
+                && previous.lastModified == attrs.lastModifiedTime().toMillis()) {
+            return false;
+        }
+        final long digest;
+        try {
+            digest = digest(file);
+        } catch (IOException e) {
+            entries.remove(file);
+            return true;
+        }
+        entries.put(file, new Entry(attrs, digest));
+        return previous == null || previous.size != attrs.size() || previous.digest != digest;
+    }
+
+    /**
+     * Records the digests of the regular files in the directory and its subdirectories and checks whether any file
+     * was added, removed or changed since the digests were last recorded. Files which are no longer present are
+     * removed from the cache.
+     *
+     * @param dir the directory
+     *
+     * @return {@code true} if the content of the directory changed
+     *
+     * @throws IOException if an error occurs listing the files
+     */
+    synchronized boolean update(final Path dir) throws IOException {
+        final Set<Path> removed = new HashSet<>();
+        for (Path file : entries.keySet()) {
+            if (file.startsWith(dir)) {
+                removed.add(file);
+            }
+        }
+        final boolean[] changed = { false };
+        if (Files.isDirectory(dir)) {
+            Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile()) {
+                        removed.remove(file);
+                        if (hasChanged(file)) {
+                            changed[0] = true;
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(final Path file, final IOException exc) {
+                    changed[0] = true;
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        entries.keySet().removeAll(removed);
+        return changed[0] || !removed.isEmpty();
+    }
+
+    /**
+     * Removes all files from the cache.
+     */
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Removes the file from the cache.
+     *
+     * @param file the file to remove
+     */
+    synchronized void remove(final Path file) {
+        entries.remove(file);
+    }
+
+    /**
+     * Creates a representation of the recorded files, which can be {@linkplain #load(ModelNode) loaded} into another
+     * cache, for example by a later dev mode session.
+     *
+     * @return the recorded files keyed by their absolute path
+     */
+    synchronized ModelNode toModelNode() {
+        final ModelNode result = new ModelNode().setEmptyObject();
+        for (Map.Entry<Path, Entry> entry : entries.entrySet()) {
+            final ModelNode file = result.get(entry.getKey().toString());
+            file.get("size").set(entry.getValue().size);
+            file.get("last-modified").set(entry.getValue().lastModified);
+            file.get("digest").set(entry.getValue().digest);
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the recorded files with the files of the representation created by {@link #toModelNode()}.
+     *
+     * @param files the recorded files
+     */
+    synchronized void load(final ModelNode files) {
+        entries.clear();
+        for (String name : files.keys()) {
+            final ModelNode file = files.get(name);
+            entries.put(Path.of(name), new Entry(file.get("size").asLong(), file.get("last-modified").asLong(),
+                    file.get("digest").asLong()));
+        }
+    }
+
+    /**
+     * Computes the CRC32C digest of the content of the file.
+     *
+     * @param file the file to compute the digest for
+     *
+     * @return the digest
+     *
+     * @throws IOException if an error occurs reading the file
+     */
+    static long digest(final Path file) throws IOException {
+        final CRC32C crc = new CRC32C();
+        final byte[] buffer = new byte[8192];
+        try (InputStream in = Files.newInputStream(file)) {
+            int len;
+            while ((len = in.read(buffer)) > 0) {
+                crc.update(buffer, 0, len);
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static class Entry {
+        private final long size;
+        private final long lastModified;
+        private final long digest;
+
+        private Entry(final BasicFileAttributes attrs, final long digest) {
+            this(attrs.size(), attrs.lastModifiedTime().toMillis(), digest);
+        }
+
+        private Entry(final long size, final long lastModified, final long digest) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.digest = digest;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.plugin.dev;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Determines whether the inputs WildFly Glow uses to discover the required layers changed in an exploded deployment.
+ * <p>
+ * The layer relevant inputs are the libraries in {@code WEB-INF/lib}, the deployment descriptors and other files in
+ * {@code WEB-INF} and {@code META-INF}, and for each class file the annotations, super types and referenced
+ * packages. Changes to any other file, for example static web content, or to method bodies of classes do not require
+ * the deployment to be scanned again.
+ * </p>
+ */
+class GlowScanClassifier {
+    private static final String WEB_INF = "WEB-INF/";
+    private static final String WEB_INF_CLASSES = "WEB-INF/classes/";
+    private static final String WEB_INF_LIB = "WEB-INF/lib/";
+    private static final String META_INF = "META-INF/";
+
+    // Relative path -> state of the layer relevant inputs of the previous scan
+    private Map<String, Entry> entries;
+
+    /**
+     * Checks whether the layer relevant inputs of the deployment changed since the last time this was invoked. The
+     * first invocation always returns {@code true}.
+     *
+     * @param deployment the exploded deployment
+     *
+     * @return {@code true} if the deployment needs to be scanned again
+     *
+     * @throws IOException if an error occurs reading the deployment
+     */
+    boolean requiresRescan(final Path deployment) throws IOException {
+        if (!Files.isDirectory(deployment)) {
+            // Archives are always scanned
+            entries = null;
+            return true;
+        }
+        final Map<String, Entry> previous = entries == null ? Map.of() : entries;
+        final Map<String, Entry> current = new HashMap<>();
+        Files.walkFileTree(deployment, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                final String path = deployment.relativize(file).toString().replace('\\', '/');
+                final boolean isClass = path.startsWith(WEB_INF_CLASSES) && path.endsWith(".class");
+                if (!isClass && !isDescriptor(path) && !path.startsWith(WEB_INF_LIB)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                final Entry entry = previous.get(path);
+                if (entry != null && entry.size == attrs.size()
+                        && entry.lastModified == attrs.lastModifiedTime().toMillis()) {
+                    current.put(path, entry);
+                } else if (isClass) {
+                    current.put(path, new Entry(attrs, signature(ClassFileInfo.read(file))));
+                } else {
+                    current.put(path, new Entry(attrs, Long.toHexString(FileDigestCache.digest(file))));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        final boolean initial = entries == null;
+        entries = current;
+        if (initial || previous.size() != current.size()) {
+            return true;
+        }
+        for (Map.Entry<String, Entry> entry : current.entrySet()) {
+            final Entry previousEntry = previous.get(entry.getKey());
+            if (previousEntry == null || !previousEntry.signature.equals(entry.getValue().signature)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Clears the recorded inputs, the next check will require the deployment to be scanned.
+     */
+    void reset() {
+        entries = null;
+    }
+
+    private static boolean isDescriptor(final String path) {
+        if (path.startsWith(META_INF) || path.startsWith(WEB_INF_CLASSES + META_INF)) {
+            return true;
+        }
+        return path.startsWith(WEB_INF) && !path.startsWith(WEB_INF_CLASSES) && !path.startsWith(WEB_INF_LIB);
+    }
+
+    private static String signature(final ClassFileInfo info) {
+        return info.superName() + info.interfaces() + info.annotationTypes() + info.referencedPackages();
+    }
+
+    private static class Entry {
+        private final long size;
+        private final long lastModified;
+        // The digest of a file or the layer relevant information of a class
+        private final String signature;
+
+        private Entry(final BasicFileAttributes attrs, final String signature) {
+            this.size = attrs.size();
+            this.lastModified = attrs.lastModifiedTime().toMillis();
+            this.signature = Objects.requireNonNull(signature);
+        }
+    }
+}
@@ -0,0 +1,431 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.plugin.dev;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+/**
+ * Compiles Java sources in-process with the system Java compiler. The compiler and file manager are kept between
+ * compilations and only the changed sources, and the sources depending on classes whose signatures changed, are
+ * compiled.
+ */
+class IncrementalCompiler implements AutoCloseable {
+    // Configuration parameters of the maven-compiler-plugin which cannot be replicated in-process
+    private static final Set<String> UNSUPPORTED_PARAMETERS = Set.of(
+            "compilerId",
+            "compilerVersion",
+            "executable",
+            "fork",
+            "multiReleaseOutput");
+
+    private final Log log;
+    private final JavaCompiler compiler;
+    private final StandardJavaFileManager standardFileManager;
+    private final RecordingFileManager fileManager;
+    private final List<String> options;
+    private final List<Path> sourceRoots;
+    private final Path outputDirectory;
+    private ClassDependencyIndex index;
+
+    private IncrementalCompiler(final Log log, final JavaCompiler compiler, final StandardJavaFileManager fileManager,
+            final List<String> options, final List<Path> sourceRoots, final Path outputDirectory) {
+        this.log = log;
+        this.compiler = compiler;
+        this.standardFileManager = fileManager;
+        this.fileManager = new RecordingFileManager(fileManager);
+        this.options = options;
+        this.sourceRoots = sourceRoots;
+        this.outputDirectory = outputDirectory;
+    }
+
+    /**
+     * Creates a new compiler if the configuration of the maven-compiler-plugin can be replicated.
+     *
+     * @param log                     the log
+     * @param config                  the resolved configuration of the maven-compiler-plugin, including the values
+     *                                    of the parameters which are not configured
+     * @param sourceRoots             the source roots of the project
+     * @param classpath               the compile classpath of the project
+     * @param processorPath           the resolved annotation processor path, may be empty
+     * @param outputDirectory         the directory to write the classes to
+     * @param generatedSourcesDefault the default directory for sources generated by annotation processors
+     *
+     * @return the compiler or {@code null} if an in-process compiler cannot be used
+     *
+     * @throws IOException if the locations for the compiler cannot be set
+     */
+    static IncrementalCompiler create(final Log log, final Xpp3Dom config, final List<Path> sourceRoots,
+            final List<Path> classpath, final List<Path> processorPath, final Path outputDirectory,
+            final Path generatedSourcesDefault) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            log.warn("No system Java compiler is available, the maven-compiler-plugin will be used.");
+            return null;
+        }
+        for (Xpp3Dom child : config.getChildren()) {
+            if (UNSUPPORTED_PARAMETERS.contains(child.getName())) {
+                if (("fork".equals(child.getName()) || "multiReleaseOutput".equals(child.getName()))
+                        && !Boolean.parseBoolean(child.getValue())) {
+                    continue;
+                }
+                if ("compilerId".equals(child.getName()) && "javac".equals(child.getValue())) {
+                    continue;
+                }
+                log.info(String.format("The maven-compiler-plugin configuration %s is not supported for in-process "
+                        + "compilation, the maven-compiler-plugin will be used.", child.getName()));
+                return null;
+            }
+        }
+        final List<String> options = new ArrayList<>();
+        final String release = value(config, "release");
+        if (release != null) {
+            options.add("--release");
+            options.add(release);
+        } else {
+            final String source = value(config, "source");
+            if (source != null) {
+                options.add("-source");
+                options.add(source);
+            }
+            final String target = value(config, "target");
+            if (target != null) {
+                options.add("-target");
+                options.add(target);
+            }
+        }
+        final String encoding = value(config, "encoding");
+        if (encoding != null) {
+            options.add("-encoding");
+            options.add(encoding);
+        }
+        final String debug = value(config, "debug");
+        if (debug == null || Boolean.parseBoolean(debug)) {
+            final String debugLevel = value(config, "debuglevel");
+            options.add(debugLevel == null ? "-g" : "-g:" + debugLevel);
+        } else {
+            options.add("-g:none");
+        }
+        if (Boolean.parseBoolean(value(config, "parameters"))) {
+            options.add("-parameters");
+        }
+        if (Boolean.parseBoolean(value(config, "showDeprecation"))) {
+            options.add("-deprecation");
+        }
+        if (Boolean.parseBoolean(value(config, "enablePreview"))) {
+            options.add("--enable-preview");
+        }
+        final String proc = value(config, "proc");
+        if (proc != null) {
+            options.add("-proc:" + proc);
+        }
+        final Xpp3Dom annotationProcessors = config.getChild("annotationProcessors");
+        if (annotationProcessors != null && annotationProcessors.getChildCount() > 0) {
+            options.add("-processor");
+            options.add(Stream.of(annotationProcessors.getChildren())
+                    .map(Xpp3Dom::getValue)
+                    .map(String::trim)
+                    .collect(Collectors.joining(",")));
+        }
+        final Xpp3Dom compilerArgs = config.getChild("compilerArgs");
+        if (compilerArgs != null) {
+            for (Xpp3Dom arg : compilerArgs.getChildren()) {
+                if (arg.getValue() != null && !arg.getValue().isBlank()) {
+                    options.add(arg.getValue().trim());
+                }
+            }
+        }
+        final String compilerArgument = value(config, "compilerArgument");
+        if (compilerArgument != null) {
+            options.addAll(List.of(compilerArgument.split("\\s+")));
+        }
+
+        final String generatedSources = value(config, "generatedSourcesDirectory");
+        final Path generatedSourcesDir = generatedSources == null ? generatedSourcesDefault : Path.of(generatedSources);
+        Files.createDirectories(generatedSourcesDir);
+        Files.createDirectories(outputDirectory);
+
+        final StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, Locale.getDefault(),
+                encoding == null ? null : Charset.forName(encoding));
+        // The previously compiled classes are required to compile a subset of the sources
+        final List<Path> compileClasspath = new ArrayList<>();
+        compileClasspath.add(outputDirectory);
+        classpath.stream().filter(p -> !p.equals(outputDirectory)).forEach(compileClasspath::add);
+        final List<Path> sourcePath = new ArrayList<>(sourceRoots);
+        sourcePath.add(generatedSourcesDir);
+        fileManager.setLocationFromPaths(StandardLocation.CLASS_PATH, compileClasspath);
+        fileManager.setLocationFromPaths(StandardLocation.SOURCE_PATH, sourcePath);
+        fileManager.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, List.of(outputDirectory));
+        fileManager.setLocationFromPaths(StandardLocation.SOURCE_OUTPUT, List.of(generatedSourcesDir));
+        if (!processorPath.isEmpty()) {
+            fileManager.setLocationFromPaths(StandardLocation.ANNOTATION_PROCESSOR_PATH, processorPath);
+        }
+        log.debug(String.format("[WATCH] In-process compiler options: %s", options));
+        return new IncrementalCompiler(log, compiler, fileManager, List.copyOf(options), List.copyOf(sourceRoots),
+                outputDirectory);
+    }
+
+    /**
+     * Compiles the changed sources and the sources which depend on classes whose signature changed.
+     *
+     * @param changed the changed or new source files
+     * @param deleted the deleted source files
+     *
+     * @throws MojoExecutionException if compilation fails
+     * @throws IOException            if an error occurs reading or deleting class files
+     */
+    void compile(final Collection<Path> changed, final Collection<Path> deleted)
+            throws MojoExecutionException, IOException {
+        final long start = System.nanoTime();
+        if (index == null) {
+            index = ClassDependencyIndex.build(outputDirectory);
+        }
+        if (index.isEmpty()) {
+            compileAll();
+            return;
+        }
+        final Set<Path> pending = new LinkedHashSet<>();
+        // Remove the classes of deleted sources, the classes depending on them need to be compiled again
+        final Set<String> removed = new HashSet<>();
+        for (Path source : deleted) {
+            final String sourcePath = relativeSourcePath(source);
+            if (sourcePath != null) {
+                for (String name : index.classesOf(sourcePath)) {
+                    index.remove(name);
+                    Files.deleteIfExists(classFile(name));
+                    removed.add(name);
+                }
+            }
+        }
+        addSources(index.dependentsOf(removed), pending);
+        for (Path source : changed) {
+            if (source.getFileName().toString().endsWith(".java") && Files.exists(source)) {
+                pending.add(source);
+            }
+        }
+        final Set<Path> compiled = new HashSet<>();
+        // The class files replaced by this compilation, restored if the compilation fails
+        final Map<Path, byte[]> replaced = new HashMap<>();
+        final Set<String> produced = new HashSet<>();
+        try {
+            while (!pending.isEmpty()) {
+                // Remove the previous classes so stale nested classes do not remain
+                final Map<String, ClassFileInfo> previous = new HashMap<>();
+                for (Path source : pending) {
+                    final String sourcePath = relativeSourcePath(source);
+                    if (sourcePath != null) {
+                        for (String name : index.classesOf(sourcePath)) {
+                            previous.put(name, index.remove(name));
+                            final Path classFile = classFile(name);
+                            if (Files.exists(classFile)) {
+                                replaced.putIfAbsent(classFile, Files.readAllBytes(classFile));
+                                Files.delete(classFile);
+                            }
+                        }
+                    }
+                }
+                final Set<String> producedClasses = compile(pending);
+                produced.addAll(producedClasses);
+                compiled.addAll(pending);
+                for (String name : producedClasses) {
+                    index.add(ClassFileInfo.read(classFile(name)));
+                }
+                // Sources depending on classes whose signature changed, or which have been removed, need to be compiled
+                final Set<String> changedClasses = new HashSet<>();
+                for (Map.Entry<String, ClassFileInfo> entry : previous.entrySet()) {
+                    final ClassFileInfo current = index.get(entry.getKey());
+                    if (current == null || !current.hasSameStructure(entry.getValue())) {
+                        if (entry.getValue().hasConstants()) {
+                            // Constants are inlined and not tracked in the index, all sources need to be compiled
+                            log.debug(String.format("[WATCH] Class %s with constants changed, compiling all sources",
+                                    entry.getKey()));
+                            compileAll();
+                            return;
+                        }
+                        changedClasses.add(entry.getKey());
+                    }
+                }
+                pending.clear();
+                addSources(index.dependentsOf(changedClasses), pending);
+                pending.removeAll(compiled);
+            }
+        } catch (MojoExecutionException | IOException | RuntimeException e) {
+            // Keep the previously compiled classes, so the output directory can still be deployed
+            produced.addAll(fileManager.produced);
+            restore(replaced, produced);
+            throw e;
+        }
+        log.debug(String.format("[WATCH] Compiled %d source file(s) in %d ms", compiled.size(),
+                (System.nanoTime() - start) / 1_000_000L));
+    }
+
+    /**
+     * Compiles all the sources of the project and rebuilds the index.
+     *
+     * @throws MojoExecutionException if compilation fails
+     * @throws IOException            if an error occurs reading the class files
+     */
+    void compileAll() throws MojoExecutionException, IOException {
+        final Set<Path> sources = new LinkedHashSet<>();
+        for (Path sourceRoot : sourceRoots) {
+            if (Files.isDirectory(sourceRoot)) {
+                try (Stream<Path> files = Files.walk(sourceRoot)) {
+                    files.filter(f -> f.getFileName().toString().endsWith(".java"))
+                            .forEach(sources::add);
+                }
+            }
+        }
+        compile(sources);
+        index = ClassDependencyIndex.build(outputDirectory);
+    }
+
+    @Override
+    public void close() throws IOException {
+        standardFileManager.close();
+    }
+
+    private Set<String> compile(final Set<Path> sources) throws MojoExecutionException {
+        if (sources.isEmpty()) {
+            return Set.of();
+        }
+        log.debug(String.format("[WATCH] Compiling %s", sources));
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final StringWriter out = new StringWriter();
+        fileManager.produced.clear();
+        final JavaCompiler.CompilationTask task = compiler.getTask(out, fileManager, diagnostics, options, null,
+                standardFileManager.getJavaFileObjectsFromPaths(sources));
+        final boolean success = task.call();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            final String message = format(diagnostic);
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                log.error(message);
+            } else if (diagnostic.getKind() == Diagnostic.Kind.WARNING
+                    || diagnostic.getKind() == Diagnostic.Kind.MANDATORY_WARNING) {
+                log.warn(message);
+            } else {
+                log.debug(message);
+            }
+        }
+        if (out.getBuffer().length() > 0) {
+            log.info(out.toString());
+        }
+        if (!success) {
+            throw new MojoExecutionException("Compilation failure");
+        }
+        return Set.copyOf(fileManager.produced);
+    }
+
+    private void restore(final Map<Path, byte[]> replaced, final Set<String> produced) {
+        try {
+            for (String name : produced) {
+                final Path classFile = classFile(name);
+                if (!replaced.containsKey(classFile)) {
+                    Files.deleteIfExists(classFile);
+                }
+            }
+            for (Map.Entry<Path, byte[]> entry : replaced.entrySet()) {
+                Files.write(entry.getKey(), entry.getValue());
+            }
+        } catch (IOException e) {
+            log.warn("Failed to restore the previously compiled classes: " + e);
+        }
+        // Rebuilt from the output directory by the next compilation
+        index = null;
+    }
+
+    private void addSources(final Collection<ClassFileInfo> classes, final Set<Path> sources) {
+        for (ClassFileInfo info : classes) {
+            final String sourcePath = info.sourcePath();
+            if (sourcePath == null) {
+                continue;
+            }
+            for (Path sourceRoot : sourceRoots) {
+                final Path source = sourceRoot.resolve(sourcePath);
+                if (Files.exists(source)) {
+                    sources.add(source);
+                    break;
+                }
+            }
+        }
+    }
+
+    private String relativeSourcePath(final Path source) {
+        for (Path sourceRoot : sourceRoots) {
+            if (source.startsWith(sourceRoot)) {
+                return sourceRoot.relativize(source).toString().replace('\\', '/');
+            }
+        }
+        return null;
+    }
+
+    private Path classFile(final String name) {
+        return outputDirectory.resolve(name + ".class");
+    }
+
+    private static String format(final Diagnostic<? extends JavaFileObject> diagnostic) {
+        if (diagnostic.getSource() == null) {
+            return diagnostic.getMessage(Locale.getDefault());
+        }
+        return String.format("%s:[%d,%d] %s", diagnostic.getSource().getName(), diagnostic.getLineNumber(),
+                diagnostic.getColumnNumber(), diagnostic.getMessage(Locale.getDefault()));
+    }
+
+    private static String value(final Xpp3Dom config, final String name) {
+        final Xpp3Dom child = config.getChild(name);
+        if (child == null || child.getValue() == null || child.getValue().isBlank()) {
+            return null;
+        }
+        return child.getValue().trim();
+    }
+
+    /**
+     * Records the names of the classes written by the compiler.
+     */
+    private static class RecordingFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Set<String> produced = new HashSet<>();
+
+        RecordingFileManager(final StandardJavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(final Location location, final String className,
+                final JavaFileObject.Kind kind, final FileObject sibling) throws IOException {
+            if (kind == JavaFileObject.Kind.CLASS && location == StandardLocation.CLASS_OUTPUT) {
+                produced.add(className.replace('.', '/'));
+            }
+            return super.getJavaFileForOutput(location, className, kind, sibling);
+        }
+    }
+}
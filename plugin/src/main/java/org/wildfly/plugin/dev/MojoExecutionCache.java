@@ -0,0 +1,199 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.plugin.dev;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.BuildPluginManager;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.twdata.maven.mojoexecutor.PlexusConfigurationUtils;
+
+/**
+ * Prepares the executions of the goals the dev mode executes for each change once and reuses them. The plugin
+ * descriptor, the merged configuration and the session for the project are kept for each project, plugin and goal.
+ * <p>
+ * The executions are invalidated if the POM files they were created from are modified.
+ * </p>
+ */
+class MojoExecutionCache {
+
+    /**
+     * Creates the configuration of the goal, only invoked if no execution is cached.
+     */
+    @FunctionalInterface
+    interface ConfigurationFactory {
+        Xpp3Dom create() throws MojoExecutionException;
+    }
+
+    private final BuildPluginManager pluginManager;
+    private final MavenSession session;
+    private final Map<String, PreparedExecution> executions = new ConcurrentHashMap<>();
+    private final Map<Path, FileTime> poms = new ConcurrentHashMap<>();
+
+    MojoExecutionCache(final BuildPluginManager pluginManager, final MavenSession session) {
+        this.pluginManager = pluginManager;
+        this.session = session;
+    }
+
+    /**
+     * Executes the goal of the plugin for the project.
+     *
+     * @param project       the project to execute the goal for
+     * @param plugin        the plugin
+     * @param goal          the goal to execute
+     * @param configuration creates the configuration if the execution has not been prepared yet
+     *
+     * @throws MojoExecutionException if the execution could not be prepared or the goal failed
+     */
+    void execute(final MavenProject project, final Plugin plugin, final String goal,
+            final ConfigurationFactory configuration) throws MojoExecutionException {
+        final PreparedExecution execution = get(project, plugin, goal, configuration);
+        try {
+            pluginManager.executeMojo(execution.session, execution.mojoExecution);
+        } catch (Exception e) {
+            throw new MojoExecutionException(String.format("Failed to execute %s:%s for %s", plugin.getKey(), goal,
+                    project.getId()), e);
+        }
+    }
+
+    /**
+     * Prepares the execution of the goal if it has not been prepared yet. The plugin descriptor is loaded and the
+     * class realm of the plugin is created, so the first execution does not have to.
+     *
+     * @param project       the project to execute the goal for
+     * @param plugin        the plugin
+     * @param goal          the goal to prepare
+     * @param configuration creates the configuration if the execution has not been prepared yet
+     *
+     * @throws MojoExecutionException if the execution could not be prepared
+     */
+    void prepare(final MavenProject project, final Plugin plugin, final String goal,
+            final ConfigurationFactory configuration) throws MojoExecutionException {
+        get(project, plugin, goal, configuration);
+    }
+
+    private PreparedExecution get(final MavenProject project, final Plugin plugin, final String goal,
+            final ConfigurationFactory configuration) throws MojoExecutionException {
+        final String key = project.getId() + "|" + plugin.getKey() + "|" + goal;
+        PreparedExecution execution = executions.get(key);
+        if (execution == null) {
+            execution = create(project, plugin, goal, configuration.create());
+            executions.put(key, execution);
+            recordPoms(project);
+        }
+        return execution;
+    }
+
+    /**
+     * Checks whether any POM the cached executions were prepared from changed. The changed POM files are returned and
+     * all executions are discarded.
+     *
+     * @return the changed POM files or an empty collection
+     */
+    Collection<Path> invalidateIfChanged() {
+        final Collection<Path> changed = poms.entrySet().stream()
+                .filter(e -> !e.getValue().equals(lastModified(e.getKey())))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        if (!changed.isEmpty()) {
+            invalidate();
+        }
+        return changed;
+    }
+
+    /**
+     * Discards all prepared executions.
+     */
+    void invalidate() {
+        executions.clear();
+        poms.clear();
+    }
+
+    /**
+     * The number of prepared executions.
+     *
+     * @return the number of executions
+     */
+    int size() {
+        return executions.size();
+    }
+
+    private PreparedExecution create(final MavenProject project, final Plugin plugin, final String goal,
+            final Xpp3Dom configuration) throws MojoExecutionException {
+        final Plugin resolved = plugin.clone();
+        if (resolved.getVersion() == null && project.getPluginManagement() != null) {
+            final Plugin managed = project.getPluginManagement().getPluginsAsMap().get(plugin.getKey());
+            if (managed != null) {
+                resolved.setVersion(managed.getVersion());
+            }
+        }
+        // The goal is evaluated against the current project of the session
+        final MavenSession projectSession;
+        if (session.getCurrentProject() == project) {
+            projectSession = session;
+        } else {
+            projectSession = session.clone();
+            projectSession.setCurrentProject(project);
+        }
+        final MojoDescriptor descriptor;
+        try {
+            descriptor = pluginManager.getMojoDescriptor(resolved, goal, project.getRemotePluginRepositories(),
+                    session.getRepositorySession());
+            pluginManager.getPluginRealm(projectSession, descriptor.getPluginDescriptor());
+        } catch (Exception e) {
+            throw new MojoExecutionException(String.format("Failed to load goal %s of plugin %s", goal,
+                    resolved.getId()), e);
+        }
+        final Xpp3Dom merged = Xpp3Dom.mergeXpp3Dom(configuration,
+                PlexusConfigurationUtils.toXpp3Dom(descriptor.getMojoConfiguration()));
+        return new PreparedExecution(new MojoExecution(descriptor, merged), projectSession);
+    }
+
+    private void recordPoms(final MavenProject project) {
+        MavenProject current = project;
+        while (current != null) {
+            final File file = current.getFile();
+            if (file == null) {
+                break;
+            }
+            final Path pom = file.toPath();
+            poms.putIfAbsent(pom, lastModified(pom));
+            current = current.getParent();
+        }
+    }
+
+    private static FileTime lastModified(final Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0L);
+        }
+    }
+
+    private static class PreparedExecution {
+        private final MojoExecution mojoExecution;
+        private final MavenSession session;
+
+        private PreparedExecution(final MojoExecution mojoExecution, final MavenSession session) {
+            this.mojoExecution = mojoExecution;
+            this.session = session;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.plugin.dev;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.resolver.filter.ScopeArtifactFilter;
+import org.apache.maven.model.Resource;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * A JAR module of the reactor the deployment depends on. Changes to the sources or resources of the module are
+ * compiled into the output directory of the module, which is then packaged into the library of the exploded
+ * deployment.
+ */
+class ReactorModule {
+    private static final String WEB_INF_LIB = "WEB-INF/lib/";
+
+    private final MavenProject project;
+    private final Artifact artifact;
+    private final List<Path> sourceRoots;
+    private final List<Path> resourceDirs;
+
+    private ReactorModule(final MavenProject project, final Artifact artifact) {
+        this.project = project;
+        this.artifact = artifact;
+        final Path buildDir = Path.of(project.getBuild().getDirectory());
+        final List<Path> sourceRoots = new ArrayList<>();
+        for (String root : project.getCompileSourceRoots()) {
+            // Generated sources are written by the build of the module
+            if (!Path.of(root).startsWith(buildDir)) {
+                sourceRoots.add(Path.of(root));
+            }
+        }
+        this.sourceRoots = List.copyOf(sourceRoots);
+        final List<Path> resourceDirs = new ArrayList<>();
+        for (Resource resource : project.getResources()) {
+            resourceDirs.add(Path.of(resource.getDirectory()));
+        }
+        this.resourceDirs = List.copyOf(resourceDirs);
+    }
+
+    /**
+     * Finds the JAR modules of the reactor which are runtime dependencies of the project.
+     *
+     * @param project         the project being deployed
+     * @param reactorProjects the projects of the reactor
+     *
+     * @return the modules the project depends on
+     */
+    static List<ReactorModule> find(final MavenProject project, final Collection<MavenProject> reactorProjects) {
+        final List<ReactorModule> modules = new ArrayList<>();
+        final ScopeArtifactFilter filter = new ScopeArtifactFilter(Artifact.SCOPE_RUNTIME);
+        for (Artifact artifact : project.getArtifacts()) {
+            if (artifact.isOptional() || !filter.include(artifact) || !"jar".equals(artifact.getType())) {
+                continue;
+            }
+            final String classifier = artifact.getClassifier();
+            if (classifier != null && !classifier.isEmpty()) {
+                continue;
+            }
+            for (MavenProject reactorProject : reactorProjects) {
+                if (reactorProject != project && "jar".equals(reactorProject.getPackaging())
+                        && Objects.equals(artifact.getGroupId(), reactorProject.getGroupId())
+                        && Objects.equals(artifact.getArtifactId(), reactorProject.getArtifactId())
+                        && Objects.equals(artifact.getBaseVersion(), reactorProject.getVersion())) {
+                    modules.add(new ReactorModule(reactorProject, artifact));
+                    break;
+                }
+            }
+        }
+        return modules;
+    }
+
+    /**
+     * The project of the module.
+     *
+     * @return the project
+     */
+    MavenProject project() {
+        return project;
+    }
+
+    /**
+     * The source and resource directories of the module which should be watched.
+     *
+     * @return the directories to watch
+     */
+    Set<Path> watchedDirectories() {
+        final Set<Path> dirs = new LinkedHashSet<>(sourceRoots);
+        dirs.addAll(resourceDirs);
+        return dirs;
+    }
+
+    /**
+     * Checks whether the file is in a source or resource directory of this module.
+     *
+     * @param file the file to check
+     *
+     * @return {@code true} if the file belongs to this module
+     */
+    boolean contains(final Path file) {
+        return sourceRoots.stream().anyMatch(file::startsWith) || resourceDirs.stream().anyMatch(file::startsWith);
+    }
+
+    /**
+     * Checks whether the file is in a resource directory of this module.
+     *
+     * @param file the file to check
+     *
+     * @return {@code true} if the file is a resource of this module
+     */
+    boolean isResource(final Path file) {
+        return resourceDirs.stream().anyMatch(file::startsWith);
+    }
+
+    /**
+     * Packages the output directory of the module into the library of the exploded deployment. The artifact of the
+     * module, such as the JAR in the build directory of the module, is never replaced as it belongs to the build of the
+     * module. As the library is newer than the artifact, packaging the deployment again does not replace it.
+     *
+     * @param webappDirectory the exploded deployment
+     *
+     * @return {@code true} if the library was updated, {@code false} if the library was not found in the exploded
+     *             deployment
+     *
+     * @throws IOException if an error occurs creating the JAR
+     */
+    boolean updateLibrary(final Path webappDirectory) throws IOException {
+        final Path library = webappDirectory.resolve(WEB_INF_LIB + artifact.getArtifactId() + "-"
+                + artifact.getBaseVersion() + ".jar");
+        if (!Files.isRegularFile(library)) {
+            return false;
+        }
+        writeJar(library);
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return project.getGroupId() + ":" + project.getArtifactId();
+    }
+
+    private void writeJar(final Path target) throws IOException {
+        final Path classes = Path.of(project.getBuild().getOutputDirectory());
+        // Keep the manifest of the JAR being replaced, it was created by the build of the module
+        Manifest manifest = null;
+        try (JarFile jarFile = new JarFile(target.toFile())) {
+            manifest = jarFile.getManifest();
+        } catch (IOException ignore) {
+        }
+        if (manifest == null) {
+            manifest = new Manifest();
+            manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        }
+        final Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(tmp), manifest)) {
+            if (Files.isDirectory(classes)) {
+                Files.walkFileTree(classes, new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs)
+                            throws IOException {
+                        if (!dir.equals(classes)) {
+                            out.putNextEntry(entry(classes.relativize(dir) + "/", attrs));
+                            out.closeEntry();
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs)
+                            throws IOException {
+                        final String name = classes.relativize(file).toString().replace('\\', '/');
+                        if (!JarFile.MANIFEST_NAME.equals(name)) {
+                            out.putNextEntry(entry(name, attrs));
+                            Files.copy(file, (OutputStream) out);
+                            out.closeEntry();
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            }
+        }
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static JarEntry entry(final String name, final BasicFileAttributes attrs) {
+        final JarEntry entry = new JarEntry(name.replace('\\', '/'));
+        entry.setLastModifiedTime(attrs.lastModifiedTime());
+        return entry;
+    }
+}
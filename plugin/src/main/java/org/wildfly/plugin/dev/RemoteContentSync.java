@@ -0,0 +1,184 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.plugin.dev;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.plugin.logging.Log;
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.OperationBuilder;
+import org.jboss.as.controller.client.helpers.ClientConstants;
+import org.jboss.as.controller.client.helpers.Operations;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Keeps the content of an exploded managed deployment on a remote server in sync with a local exploded deployment.
+ * Only the files which changed since the last update are sent to the server with the {@code add-content} operation and
+ * files which no longer exist are removed with the {@code remove-content} operation.
+ */
+class RemoteContentSync {
+    private final ModelControllerClient client;
+    private final ModelNode address;
+    private final Log log;
+    // Relative path -> the state of the file last sent to the server
+    private final Map<String, Entry> entries;
+
+    private RemoteContentSync(final ModelControllerClient client, final String name, final Log log) {
+        this.client = client;
+        this.address = Operations.createAddress(ClientConstants.DEPLOYMENT, name);
+        this.log = log;
+        this.entries = new HashMap<>();
+    }
+
+    /**
+     * Converts the managed archive deployment into an exploded managed deployment. The deployment is disabled while
+     * being exploded, then deployed again.
+     *
+     * @param client the client for the server
+     * @param name   the name of the deployment
+     * @param log    the log
+     *
+     * @return the synchronizer for the deployment
+     *
+     * @throws IOException if an error occurs communicating with the server
+     */
+    static RemoteContentSync explode(final ModelControllerClient client, final String name, final Log log)
+            throws IOException {
+        final RemoteContentSync sync = new RemoteContentSync(client, name, log);
+        final Operations.CompositeOperationBuilder builder = Operations.CompositeOperationBuilder.create()
+                .addStep(Operations.createOperation(ClientConstants.DEPLOYMENT_UNDEPLOY_OPERATION, sync.address))
+                .addStep(Operations.createOperation("explode", sync.address))
+                .addStep(Operations.createOperation(ClientConstants.DEPLOYMENT_DEPLOY_OPERATION, sync.address));
+        sync.execute(builder.build());
+        return sync;
+    }
+
+    /**
+     * Records the content of the local exploded deployment as the content of the deployment on the server. If the
+     * content is not recorded, all files are sent with the first update.
+     *
+     * @param explodedWar the local exploded deployment matching the content of the deployment
+     *
+     * @throws IOException if an error occurs reading the local files
+     */
+    void record(final Path explodedWar) throws IOException {
+        scan(explodedWar, true);
+    }
+
+    /**
+     * Sends the files which changed in the local exploded deployment to the server and removes the files which no
+     * longer exist.
+     *
+     * @param explodedWar the local exploded deployment
+     *
+     * @return the number of files added, replaced or removed
+     *
+     * @throws IOException if an error occurs communicating with the server or reading the local files
+     */
+    int update(final Path explodedWar) throws IOException {
+        final long start = System.nanoTime();
+        final Map<String, Entry> previous = new HashMap<>(entries);
+        final Map<String, Path> changed = scan(explodedWar, false);
+        final List<String> removed = new ArrayList<>();
+        for (String path : previous.keySet()) {
+            if (!entries.containsKey(path)) {
+                removed.add(path);
+            }
+        }
+        if (!removed.isEmpty()) {
+            final ModelNode op = Operations.createOperation("remove-content", address);
+            final ModelNode paths = op.get("paths").setEmptyList();
+            removed.forEach(paths::add);
+            execute(OperationBuilder.create(op).build());
+        }
+        if (!changed.isEmpty()) {
+            final ModelNode op = Operations.createOperation("add-content", address);
+            op.get("overwrite").set(true);
+            final ModelNode content = op.get("content").setEmptyList();
+            final OperationBuilder builder = OperationBuilder.create(op, true);
+            int index = 0;
+            for (Map.Entry<String, Path> entry : changed.entrySet()) {
+                final ModelNode item = new ModelNode();
+                item.get("target-path").set(entry.getKey());
+                item.get("input-stream-index").set(index++);
+                content.add(item);
+                builder.addFileAsAttachment(entry.getValue().toFile());
+            }
+            execute(builder.build());
+        }
+        log.debug(String.format("[WATCH] Updated remote deployment content in %d ms: %d sent, %d removed",
+                (System.nanoTime() - start) / 1_000_000L, changed.size(), removed.size()));
+        return changed.size() + removed.size();
+    }
+
+    /**
+     * Redeploys the deployment with its current content.
+     *
+     * @throws IOException if an error occurs communicating with the server
+     */
+    void redeploy() throws IOException {
+        execute(OperationBuilder.create(Operations.createOperation(ClientConstants.DEPLOYMENT_REDEPLOY_OPERATION, address))
+                .build());
+    }
+
+    private Map<String, Path> scan(final Path explodedWar, final boolean initial) throws IOException {
+        final Map<String, Path> changed = new LinkedHashMap<>();
+        final Map<String, Entry> current = new HashMap<>();
+        Files.walkFileTree(explodedWar, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                final String path = explodedWar.relativize(file).toString().replace('\\', '/');
+                final Entry previous = entries.get(path);
+                if (previous != null && previous.size == attrs.size()
+                        && previous.lastModified == attrs.lastModifiedTime().toMillis()) {
+                    current.put(path, previous);
+                    return FileVisitResult.CONTINUE;
+                }
+                final long digest = FileDigestCache.digest(file);
+                current.put(path, new Entry(attrs, digest));
+                // The build may rewrite a file with the same content
+                if (!initial && (previous == null || previous.size != attrs.size() || previous.digest != digest)) {
+                    changed.put(path, file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        entries.clear();
+        entries.putAll(current);
+        return changed;
+    }
+
+    private void execute(final org.jboss.as.controller.client.Operation op) throws IOException {
+        final ModelNode result = client.execute(op);
+        if (!Operations.isSuccessfulOutcome(result)) {
+            throw new IOException(String.format("Failed to execute %s on %s: %s",
+                    op.getOperation().get(ClientConstants.OP).asString(), address,
+                    Operations.getFailureDescription(result).asString()));
+        }
+    }
+
+    private static class Entry {
+        private final long size;
+        private final long lastModified;
+        private final long digest;
+
+        private Entry(final BasicFileAttributes attrs, final long digest) {
+            this.size = attrs.size();
+            this.lastModified = attrs.lastModifiedTime().toMillis();
+            this.digest = digest;
+        }
+    }
+}
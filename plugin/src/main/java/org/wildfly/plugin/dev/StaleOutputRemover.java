@@ -0,0 +1,153 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.plugin.dev;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Removes the files built from deleted source files, so a deleted file can be handled like any other change instead of
+ * building the deployment again from scratch.
+ * <p>
+ * Each source directory is mapped to the directories its files are copied or compiled to. For Java sources the class
+ * file and the class files of the nested classes are removed, for any other file the file with the same relative path
+ * is removed. If a directory was deleted, the matching output directories are removed.
+ * </p>
+ */
+class StaleOutputRemover {
+    private static final String JAVA_EXTENSION = ".java";
+
+    private final Log log;
+    private final List<Mapping> mappings = new ArrayList<>();
+
+    StaleOutputRemover(final Log log) {
+        this.log = log;
+    }
+
+    /**
+     * Adds a directory of Java sources and the directories the classes are compiled to.
+     *
+     * @param sourceRoot the source root
+     * @param outputs    the directories containing the compiled classes
+     *
+     * @return this remover
+     */
+    StaleOutputRemover addSources(final Path sourceRoot, final Path... outputs) {
+        mappings.add(new Mapping(sourceRoot, List.of(outputs), true));
+        return this;
+    }
+
+    /**
+     * Adds a directory of files and the directories the files are copied to.
+     *
+     * @param directory the source directory
+     * @param outputs   the directories the files are copied to
+     *
+     * @return this remover
+     */
+    StaleOutputRemover addFiles(final Path directory, final Path... outputs) {
+        mappings.add(new Mapping(directory, List.of(outputs), false));
+        return this;
+    }
+
+    /**
+     * Removes the files built from the deleted file.
+     *
+     * @param deleted the deleted source file or directory
+     *
+     * @return the number of files and directories removed
+     *
+     * @throws IOException if an error occurs deleting the files
+     */
+    int remove(final Path deleted) throws IOException {
+        int removed = 0;
+        for (Mapping mapping : mappings) {
+            if (!deleted.startsWith(mapping.directory) || deleted.equals(mapping.directory)) {
+                continue;
+            }
+            final Path relativePath = mapping.directory.relativize(deleted);
+            for (Path output : mapping.outputs) {
+                if (!Files.isDirectory(output)) {
+                    continue;
+                }
+                final Path target = output.resolve(relativePath.toString());
+                if (Files.isDirectory(target)) {
+                    removed += deleteRecursively(target);
+                } else if (mapping.java) {
+                    removed += deleteClasses(target);
+                } else if (Files.deleteIfExists(target)) {
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) {
+            log.debug(String.format("[WATCH] Removed %d file(s) built from %s", removed, deleted));
+        }
+        return removed;
+    }
+
+    private static int deleteClasses(final Path source) throws IOException {
+        final String fileName = source.getFileName().toString();
+        final Path dir = source.getParent();
+        if (!fileName.endsWith(JAVA_EXTENSION) || dir == null || !Files.isDirectory(dir)) {
+            return 0;
+        }
+        final String className = fileName.substring(0, fileName.length() - JAVA_EXTENSION.length());
+        int removed = 0;
+        if (Files.deleteIfExists(dir.resolve(className + ".class"))) {
+            removed++;
+        }
+        try (DirectoryStream<Path> nested = Files.newDirectoryStream(dir, className + "$*.class")) {
+            for (Path file : nested) {
+                if (Files.deleteIfExists(file)) {
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    private static int deleteRecursively(final Path dir) throws IOException {
+        final int[] removed = { 0 };
+        Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                removed[0]++;
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException {
+                Files.delete(dir);
+                removed[0]++;
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return removed[0];
+    }
+
+    private static class Mapping {
+        private final Path directory;
+        private final List<Path> outputs;
+        private final boolean java;
+
+        private Mapping(final Path directory, final List<Path> outputs, final boolean java) {
+            this.directory = directory;
+            this.outputs = outputs;
+            this.java = java;
+        }
+    }
+}
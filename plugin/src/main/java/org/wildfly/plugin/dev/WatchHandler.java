@@ -60,5 +60,34 @@ public interface WatchHandler {
         default boolean requiresRepackage() {
             return false;
         }
+
+        /**
+         * Indicates whether a module of the reactor the deployment depends on should be rebuilt.
+         *
+         * @return {@code true} if a reactor module should be rebuilt
+         */
+        default boolean requiresModuleRebuild() {
+            return false;
+        }
+
+        /**
+         * Indicates whether a required redeploy can be replaced by redefining the changed classes in the running
+         * server, assuming only method bodies have changed.
+         *
+         * @return {@code true} if the changed classes may be redefined instead of redeploying
+         */
+        default boolean allowsClassRedefinition() {
+            return false;
+        }
+
+        /**
+         * Indicates whether a required repackage can be replaced by copying the changed file directly into the
+         * exploded deployment.
+         *
+         * @return {@code true} if the changed file may be copied instead of repackaging the deployment
+         */
+        default boolean allowsDirectCopy() {
+            return false;
+        }
     }
 }
@@ -0,0 +1,507 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.plugin.dev;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A registry of the watched directories. The directories are indexed by path in a tree of path elements, which makes
+ * looking up and registering a directory proportional to the depth of the directory rather than the number of
+ * directories watched.
+ * <p>
+ * The registry also keeps a snapshot of the size and last modified time of the files in the watched directories. When
+ * the watch service overflows and events are lost, the snapshot is used to find the files which changed.
+ * </p>
+ */
+class WatchRegistry implements AutoCloseable {
+    private static final int MAX_RESCAN_THREADS = 4;
+
+    private final WatchService watcher;
+    private final Predicate<Path> excluded;
+    private final Node root = new Node(null, null);
+    private final Map<WatchKey, Node> keys = new HashMap<>();
+    private ForkJoinPool rescanPool;
+
+    /**
+     * Creates a new registry.
+     *
+     * @param watcher  the watch service to register the directories with
+     * @param excluded a predicate which indicates whether a directory, and its subdirectories, should not be watched
+     */
+    WatchRegistry(final WatchService watcher, final Predicate<Path> excluded) {
+        this.watcher = watcher;
+        this.excluded = excluded;
+    }
+
+    /**
+     * Registers the directory, and all the subdirectories not yet registered, with the watch service.
+     *
+     * @param dir     the directory to register
+     * @param handler the handler for changes in the directory
+     *
+     * @return {@code true} if at least one directory was registered
+     *
+     * @throws IOException if an error occurs registering the directories
+     */
+    boolean register(final Path dir, final WatchHandler handler) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return false;
+        }
+        final int currentSize = keys.size();
+        Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) throws IOException {
+                if (excluded.test(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                final Node node = find(dir, true);
+                if (node.key == null) {
+                    node.key = dir.register(watcher, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+                    node.context = WatchContext.of(dir, handler);
+                    keys.put(node.key, node);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                if (attrs.isRegularFile()) {
+                    final Node node = find(file.getParent(), false);
+                    if (node != null && node.key != null) {
+                        node.files.put(file.getFileName(), FileState.of(attrs));
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(final Path file, final IOException exc) {
+                // The file may have been deleted while walking the tree
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return currentSize != keys.size();
+    }
+
+    /**
+     * Returns the context for the watch key.
+     *
+     * @param key the watch key
+     *
+     * @return the context or {@code null} if the key is not registered
+     */
+    WatchContext context(final WatchKey key) {
+        final Node node = keys.get(key);
+        return node == null ? null : node.context;
+    }
+
+    /**
+     * Indicates whether the directory is registered.
+     *
+     * @param dir the directory
+     *
+     * @return {@code true} if the directory is being watched
+     */
+    boolean isRegistered(final Path dir) {
+        final Node node = find(dir, false);
+        return node != null && node.key != null;
+    }
+
+    /**
+     * Removes the watch key from the registry. This should be invoked when the key is no longer valid.
+     *
+     * @param key the key to remove
+     */
+    void remove(final WatchKey key) {
+        final Node node = keys.remove(key);
+        if (node != null) {
+            node.key = null;
+            node.context = null;
+            node.files.clear();
+            prune(node);
+        }
+    }
+
+    /**
+     * Updates the snapshot of the file after a change has been processed.
+     *
+     * @param file the changed file
+     */
+    void update(final Path file) {
+        final Node node = find(file.getParent(), false);
+        if (node == null || node.key == null) {
+            return;
+        }
+        try {
+            final BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            if (attrs.isRegularFile()) {
+                node.files.put(file.getFileName(), FileState.of(attrs));
+            }
+        } catch (IOException e) {
+            node.files.remove(file.getFileName());
+        }
+    }
+
+    /**
+     * Compares the directories, and their subdirectories, with the snapshot and returns the changes found. This is
+     * used to recover the changes lost when the watch service overflows. The directories are scanned in parallel.
+     * <p>
+     * The snapshot is updated with the changes found. Directories which have been deleted are removed from the
+     * registry. New directories are returned as {@link java.nio.file.StandardWatchEventKinds#ENTRY_CREATE created}
+     * and should be {@linkplain #register(Path, WatchHandler) registered} by the caller.
+     * </p>
+     *
+     * @param dirs the directories to rescan
+     *
+     * @return the changes found
+     *
+     * @throws IOException if an error occurs scanning the directories
+     */
+    List<Change> rescan(final Collection<Path> dirs) throws IOException {
+        final List<Node> nodes = new ArrayList<>();
+        for (Path dir : dirs) {
+            final Node node = find(dir, false);
+            if (node != null) {
+                collect(node, nodes);
+            }
+        }
+        if (nodes.isEmpty()) {
+            return List.of();
+        }
+        final List<ScanResult> results;
+        try {
+            results = pool().submit(() -> nodes.parallelStream()
+                    .distinct()
+                    .map(WatchRegistry::scan)
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while scanning " + dirs, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IOException("Failed to scan " + dirs, e.getCause());
+        }
+        // Apply the results on the calling thread as the registry is not thread-safe
+        final List<Change> changes = new ArrayList<>();
+        for (ScanResult result : results) {
+            final Node node = result.node;
+            if (node.key == null) {
+                // Already removed as a parent directory was deleted
+                continue;
+            }
+            final WatchContext context = node.context;
+            if (result.deleted) {
+                changes.add(new Change(ENTRY_DELETE, context.directory(), parentContext(node, context)));
+                removeTree(node);
+                continue;
+            }
+            for (Map.Entry<Path, FileState> entry : result.files.entrySet()) {
+                final FileState previous = node.files.put(entry.getKey(), entry.getValue());
+                if (previous == null) {
+                    changes.add(new Change(ENTRY_CREATE, context.directory().resolve(entry.getKey()), context));
+                } else if (!previous.equals(entry.getValue())) {
+                    changes.add(new Change(ENTRY_MODIFY, context.directory().resolve(entry.getKey()), context));
+                }
+            }
+            for (Path name : List.copyOf(node.files.keySet())) {
+                if (!result.files.containsKey(name)) {
+                    node.files.remove(name);
+                    changes.add(new Change(ENTRY_DELETE, context.directory().resolve(name), context));
+                }
+            }
+            for (Path dir : result.directories) {
+                if (!isRegistered(dir) && !excluded.test(dir)) {
+                    changes.add(new Change(ENTRY_CREATE, dir, context));
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Compares the watched directories with the files recorded by a previous dev mode session. Recorded files which are
+     * no longer present are returned as {@link java.nio.file.StandardWatchEventKinds#ENTRY_DELETE deleted}, files
+     * which were not recorded as {@link java.nio.file.StandardWatchEventKinds#ENTRY_CREATE created} and all other
+     * files as {@link java.nio.file.StandardWatchEventKinds#ENTRY_MODIFY modified}. The caller is expected to ignore the
+     * files whose content did not change.
+     *
+     * @param recorded the files recorded by the previous session
+     *
+     * @return the changes found
+     */
+    List<Change> compare(final Set<Path> recorded) {
+        final List<Node> nodes = new ArrayList<>();
+        collect(root, nodes);
+        final List<Change> changes = new ArrayList<>();
+        for (Node node : nodes) {
+            final WatchContext context = node.context;
+            for (Path name : node.files.keySet()) {
+                final Path file = context.directory().resolve(name);
+                changes.add(new Change(recorded.contains(file) ? ENTRY_MODIFY : ENTRY_CREATE, file, context));
+            }
+        }
+        for (Path file : recorded) {
+            // Find the closest watched directory, the directory of the file may have been deleted
+            Path dir = file.getParent();
+            while (dir != null && !isRegistered(dir)) {
+                dir = dir.getParent();
+            }
+            if (dir == null) {
+                continue;
+            }
+            final Node node = find(dir, false);
+            if (!dir.equals(file.getParent()) || !node.files.containsKey(file.getFileName())) {
+                changes.add(new Change(ENTRY_DELETE, file, node.context));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Returns the number of directories being watched.
+     *
+     * @return the number of watched directories
+     */
+    int size() {
+        return keys.size();
+    }
+
+    @Override
+    public void close() {
+        if (rescanPool != null) {
+            rescanPool.shutdownNow();
+        }
+    }
+
+    private ForkJoinPool pool() {
+        if (rescanPool == null) {
+            rescanPool = new ForkJoinPool(Math.min(MAX_RESCAN_THREADS, Runtime.getRuntime().availableProcessors()));
+        }
+        return rescanPool;
+    }
+
+    private Node find(final Path dir, final boolean create) {
+        Node current = root.children.get(dir.getRoot());
+        if (current == null) {
+            if (!create) {
+                return null;
+            }
+            current = new Node(root, dir.getRoot());
+            root.children.put(dir.getRoot(), current);
+        }
+        for (Path name : dir) {
+            Node next = current.children.get(name);
+            if (next == null) {
+                if (!create) {
+                    return null;
+                }
+                next = new Node(current, name);
+                current.children.put(name, next);
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    private void removeTree(final Node node) {
+        for (Node child : List.copyOf(node.children.values())) {
+            removeTree(child);
+        }
+        if (node.key != null) {
+            node.key.cancel();
+            remove(node.key);
+        }
+    }
+
+    private static void prune(final Node node) {
+        Node current = node;
+        while (current.parent != null && current.key == null && current.children.isEmpty()) {
+            current.parent.children.remove(current.name);
+            current = current.parent;
+        }
+    }
+
+    private static void collect(final Node node, final List<Node> nodes) {
+        if (node.key != null) {
+            nodes.add(node);
+        }
+        for (Node child : node.children.values()) {
+            collect(child, nodes);
+        }
+    }
+
+    private static WatchContext parentContext(final Node node, final WatchContext defaultContext) {
+        final Node parent = node.parent;
+        return parent != null && parent.context != null ? parent.context : defaultContext;
+    }
+
+    private static ScanResult scan(final Node node) {
+        final ScanResult result = new ScanResult(node);
+        try (Stream<Path> entries = Files.list(node.context.directory())) {
+            for (Path entry : (Iterable<Path>) entries::iterator) {
+                try {
+                    final BasicFileAttributes attrs = Files.readAttributes(entry, BasicFileAttributes.class);
+                    if (attrs.isDirectory()) {
+                        result.directories.add(entry);
+                    } else if (attrs.isRegularFile()) {
+                        result.files.put(entry.getFileName(), FileState.of(attrs));
+                    }
+                } catch (NoSuchFileException ignore) {
+                    // Deleted while scanning
+                }
+            }
+        } catch (NoSuchFileException | NotDirectoryException e) {
+            result.deleted = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result;
+    }
+
+    /**
+     * A change found when rescanning a directory.
+     */
+    static class Change implements WatchEvent<Path> {
+        private final Kind<Path> kind;
+        private final Path file;
+        private final WatchContext context;
+
+        private Change(final Kind<Path> kind, final Path file, final WatchContext context) {
+            this.kind = kind;
+            this.file = file;
+            this.context = context;
+        }
+
+        @Override
+        public Kind<Path> kind() {
+            return kind;
+        }
+
+        @Override
+        public int count() {
+            return 1;
+        }
+
+        /**
+         * Returns the file name relative to the directory of the {@linkplain #watchContext() context}, like the events
+         * of the watch service.
+         *
+         * @return the relative file name
+         */
+        @Override
+        public Path context() {
+            return file.getFileName();
+        }
+
+        /**
+         * The absolute path of the changed file.
+         *
+         * @return the changed file
+         */
+        Path file() {
+            return file;
+        }
+
+        /**
+         * The context of the directory the file is in.
+         *
+         * @return the watch context
+         */
+        WatchContext watchContext() {
+            return context;
+        }
+
+        @Override
+        public String toString() {
+            return kind.name() + ": " + file;
+        }
+    }
+
+    private static class Node {
+        private final Node parent;
+        private final Path name;
+        private final Map<Path, Node> children = new HashMap<>();
+        // File name -> state, only regular files are tracked
+        private final Map<Path, FileState> files = new HashMap<>();
+        private WatchKey key;
+        private WatchContext context;
+
+        private Node(final Node parent, final Path name) {
+            this.parent = parent;
+            this.name = name;
+        }
+    }
+
+    private static class ScanResult {
+        private final Node node;
+        private final Map<Path, FileState> files = new HashMap<>();
+        private final List<Path> directories = new ArrayList<>();
+        private boolean deleted;
+
+        private ScanResult(final Node node) {
+            this.node = node;
+        }
+    }
+
+    private static class FileState {
+        private final long size;
+        private final long lastModified;
+
+        private FileState(final long size, final long lastModified) {
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        static FileState of(final BasicFileAttributes attrs) {
+            return new FileState(attrs.size(), attrs.lastModifiedTime().toMillis());
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(size) * 31 + Long.hashCode(lastModified);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof FileState)) {
+                return false;
+            }
+            final FileState other = (FileState) obj;
+            return size == other.size && lastModified == other.lastModified;
+        }
+    }
+}
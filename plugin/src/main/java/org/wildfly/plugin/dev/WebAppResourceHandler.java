@@ -52,6 +52,12 @@ class WebAppResourceHandler implements WatchHandler {
             public boolean requiresRedeploy() {
                 return requiresRedeploy;
             }
+
+            @Override
+            public boolean allowsDirectCopy() {
+                // Files which do not require a redeploy are served from the exploded deployment as they are
+                return !requiresRedeploy;
+            }
         };
     }
 }
@@ -14,9 +14,12 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import javax.inject.Inject;
 import javax.xml.stream.XMLStreamException;
@@ -36,9 +39,13 @@ import org.jboss.galleon.api.GalleonBuilder;
 import org.jboss.galleon.api.GalleonFeaturePack;
 import org.jboss.galleon.api.Provisioning;
 import org.jboss.galleon.api.ProvisioningBuilder;
+import org.jboss.galleon.api.config.GalleonFeaturePackConfig;
 import org.jboss.galleon.api.config.GalleonProvisioningConfig;
 import org.jboss.galleon.maven.plugin.util.MavenArtifactRepositoryManager;
 import org.jboss.galleon.maven.plugin.util.MvnMessageWriter;
+import org.jboss.galleon.universe.FeaturePackLocation;
+import org.jboss.galleon.universe.maven.MavenArtifact;
+import org.jboss.galleon.universe.maven.MavenUniverseException;
 import org.jboss.galleon.universe.maven.repo.MavenRepoManager;
 import org.jboss.galleon.util.IoUtils;
 import org.wildfly.channel.UnresolvedMavenArtifactException;
@@ -57,6 +64,8 @@ import org.wildfly.plugin.tools.PluginProgressTracker;
 abstract class AbstractProvisionServerMojo extends AbstractMojo {
 
     private static final String MAVEN_REPO_LOCAL = "maven.repo.local";
+    private static final String SERVER_STEP = "server";
+    private static final String BULK_RESOLVE_ARTIFACTS = "jboss-bulk-resolve-artifacts";
 
     static {
         // This is odd, but if not set we should set the JBoss Logging provider to slf4j as that is what Maven uses
@@ -227,7 +236,93 @@ abstract class AbstractProvisionServerMojo extends AbstractMojo {
     @Parameter(alias = "dry-run")
     boolean dryRun;
 
+    /**
+     * Set to {@code true} to cache the provisioned server in the {@code server-cache-dir} directory, shared by all
+     * builds and projects. The server is cached under a digest of the provisioning configuration, the Galleon options,
+     * the content of the channel manifests, the resolved versions and content of the feature-packs and the version of
+     * this plugin. If a server provisioned from the same inputs is found in the cache, it is copied instead of being
+     * provisioned. The server is cached before the deployment, CLI scripts and extra content are added to it.
+     * <p>
+     * The server is not cached if the versions of its artifacts are not fixed by these inputs: if a feature-pack has
+     * no version or is a SNAPSHOT, or if a channel resolves artifacts to their latest version with a version pattern
+     * or a no-stream strategy.
+     * </p>
+     *
+     * @since 6.0
+     */
+    @Parameter(alias = "server-cache", defaultValue = "false", property = PropertyNames.WILDFLY_PROVISIONING_SERVER_CACHE)
+    boolean serverCache;
+
+    /**
+     * The directory of the provisioned server cache.
+     *
+     * @since 6.0
+     */
+    @Parameter(alias = "server-cache-dir", defaultValue = "${user.home}/.m2/wildfly-server-cache", property = PropertyNames.WILDFLY_PROVISIONING_SERVER_CACHE_DIR)
+    File serverCacheDir;
+
+    /**
+     * The maximum size, in megabytes, of the provisioned server cache. Once exceeded, the least recently used servers
+     * are removed from the cache.
+     *
+     * @since 6.0
+     */
+    @Parameter(alias = "server-cache-max-size", defaultValue = "4096", property = PropertyNames.WILDFLY_PROVISIONING_SERVER_CACHE_MAX_SIZE)
+    long serverCacheMaxSize;
+
+    /**
+     * Set to {@code true} to reuse the server in the {@code provisioning-dir} directory if it is up-to-date. A
+     * fingerprint of the inputs is written to the server directory once it has been built. The inputs are the
+     * provisioning configuration, the Galleon options, the content of the channel manifests, the resolved versions of
+     * the feature-packs, the extra server content directories, the deployments and the packaging scripts. A server
+     * provisioned from a {@code SNAPSHOT} or unversioned feature-pack, or from channels resolving the latest versions,
+     * is never reused.
+     * <p>
+     * The server is only provisioned again if the provisioning configuration, the extra server content or the
+     * packaging scripts changed. If only the deployments changed, only the deployments are copied again. When enabled,
+     * the {@code overwrite-provisioned-server} parameter is ignored.
+     * </p>
+     *
+     * @since 6.0
+     */
+    @Parameter(alias = "provisioning-fingerprint", defaultValue = "false", property = PropertyNames.WILDFLY_PROVISIONING_FINGERPRINT)
+    boolean provisioningFingerprint;
+
+    /**
+     * The number of threads used to resolve the artifacts of the server when channels are configured. With more than
+     * one thread, the channel version resolution and the download of the artifacts run concurrently, each artifact
+     * being resolved only once, and the throughput is logged once all artifacts are resolved. The Galleon option
+     * {@code jboss-bulk-resolve-artifacts} is enabled unless it is configured in the {@code galleon-options}.
+     * <p>
+     * The default of {@code 1} resolves the artifacts one after the other.
+     * </p>
+     *
+     * @since 6.0
+     */
+    @Parameter(alias = "resolution-threads", defaultValue = "1", property = PropertyNames.WILDFLY_PROVISIONING_RESOLUTION_THREADS)
+    int resolutionThreads;
+
+    /**
+     * Set to {@code true} to cache the artifacts resolved from the channels between builds. The versions and files of
+     * the artifacts, and the artifacts which have no stream in the channels, are stored in the local Maven repository
+     * for each set of channels and manifests. A new cache is used as soon as the content or the version of a manifest
+     * changes. Artifacts resolved from a stream with a version pattern are always resolved again. The channel
+     * requirements of the feature-packs which are not found in the channels are cached as well.
+     *
+     * @since 6.0
+     */
+    @Parameter(alias = "channel-resolution-cache", defaultValue = "false", property = PropertyNames.WILDFLY_PROVISIONING_CHANNEL_RESOLUTION_CACHE)
+    boolean channelResolutionCache;
+
+    @Parameter(defaultValue = "${plugin.version}", readonly = true)
+    String pluginVersion;
+
     private Path wildflyDir;
+    private ProvisionedServerCache provisionedServerCache;
+    private String serverCacheKey;
+    private ProvisioningFingerprint previousFingerprint;
+    private ProvisioningFingerprint fingerprint;
+    private boolean serverUpToDate;
 
     protected MavenRepoManager artifactResolver;
 
@@ -242,7 +337,7 @@ abstract class AbstractProvisionServerMojo extends AbstractMojo {
         }
         Path targetPath = Paths.get(project.getBuild().getDirectory());
         wildflyDir = targetPath.resolve(provisioningDir).normalize();
-        if (!overwriteProvisionedServer && Files.exists(wildflyDir)) {
+        if (!provisioningFingerprint && !overwriteProvisionedServer && Files.exists(wildflyDir)) {
             getLog().info(String.format("A server already exists in " + wildflyDir + ", skipping " + getGoal() +
                     " of %s:%s", project.getGroupId(), project.getArtifactId()));
             return;
@@ -253,9 +348,13 @@ abstract class AbstractProvisionServerMojo extends AbstractMojo {
                     : new MavenArtifactRepositoryManager(repoSystem, repoSession, repositories);
         } else {
             try {
-                artifactResolver = new ChannelMavenArtifactRepositoryManager(channels,
-                        repoSystem, repoSession, repositories,
-                        getLog(), offlineProvisioning);
+                final ChannelMavenArtifactRepositoryManager channelResolver = new ChannelMavenArtifactRepositoryManager(
+                        channels, repoSystem, repoSession, repositories, getLog(), offlineProvisioning,
+                        resolutionThreads);
+                if (channelResolutionCache && !dryRun) {
+                    channelResolver.enableResolutionCache();
+                }
+                artifactResolver = channelResolver;
             } catch (MalformedURLException | UnresolvedMavenArtifactException ex) {
                 throw new MojoExecutionException(ex.getLocalizedMessage(), ex);
             }
@@ -264,21 +363,41 @@ abstract class AbstractProvisionServerMojo extends AbstractMojo {
             throw new MojoExecutionException("provisioning-dir " + provisioningDir
                     + " must be an absolute path or a child directory relative to the project build directory.");
         }
-        IoUtils.recursiveDelete(wildflyDir);
+        if (provisioningFingerprint && !dryRun) {
+            // The server is only deleted if it is not up-to-date
+            previousFingerprint = ProvisioningFingerprint.read(wildflyDir);
+            fingerprint = ProvisioningFingerprint.create();
+        } else {
+            IoUtils.recursiveDelete(wildflyDir);
+        }
         final String originalMavenRepoLocal = System.getProperty(MAVEN_REPO_LOCAL);
         // JBoss Modules requires this system property in case a custom settings.xml
         // that references a custom local repository is set.
         if (originalMavenRepoLocal == null) {
             System.setProperty(MAVEN_REPO_LOCAL, session.getSettings().getLocalRepository());
         }
+        if (serverCache && !dryRun) {
+            provisionedServerCache = new ProvisionedServerCache(serverCacheDir.toPath(),
+                    serverCacheMaxSize * 1024L * 1024L, getLog());
+        }
         try {
             try {
-                provisionServer(wildflyDir);
+                final boolean reused = provisionServer(wildflyDir);
                 if (!dryRun) {
-                    if (artifactResolver instanceof ChannelMavenArtifactRepositoryManager) {
-                        ((ChannelMavenArtifactRepositoryManager) artifactResolver).done(wildflyDir);
+                    if (!reused) {
+                        if (artifactResolver instanceof ChannelMavenArtifactRepositoryManager) {
+                            ((ChannelMavenArtifactRepositoryManager) artifactResolver).done(wildflyDir);
+                        }
+                        storeInServerCache(wildflyDir);
+                    }
+                    if (fingerprint != null) {
+                        // A server modified by a failed build must not be considered up-to-date
+                        ProvisioningFingerprint.delete(wildflyDir);
+                        serverProvisioned(wildflyDir);
+                        fingerprint.write(wildflyDir);
+                    } else {
+                        serverProvisioned(wildflyDir);
                     }
-                    serverProvisioned(wildflyDir);
                 }
             } catch (ProvisioningException | IOException | XMLStreamException ex) {
                 throw new MojoExecutionException("Provisioning failed", ex);
@@ -302,7 +421,72 @@ abstract class AbstractProvisionServerMojo extends AbstractMojo {
 
     protected abstract void serverProvisioned(Path jbossHome) throws MojoExecutionException, MojoFailureException;
 
-    private void provisionServer(Path home) throws ProvisioningException,
+    /**
+     * Adds the inputs of the content {@link #serverProvisioned(Path)} adds to the server which cannot be replaced
+     * without provisioning the server again. Only invoked if the {@code provisioning-fingerprint} is enabled.
+     *
+     * @param inputs the inputs to add to
+     *
+     * @throws IOException if the inputs cannot be read
+     */
+    protected void addServerContentInputs(final List<String> inputs) throws IOException {
+    }
+
+    /**
+     * Indicates whether the server was up-to-date and has been reused instead of being provisioned.
+     *
+     * @return {@code true} if the server has been reused
+     */
+    protected boolean isServerUpToDate() {
+        return serverUpToDate;
+    }
+
+    /**
+     * Records the digest of the inputs of a step of {@link #serverProvisioned(Path)} and checks whether the step must
+     * be executed. A step must be executed if the {@code provisioning-fingerprint} is not enabled, the server was
+     * provisioned or the inputs changed.
+     *
+     * @param step   the name of the step
+     * @param inputs the inputs of the step
+     *
+     * @return {@code true} if the step must be executed
+     */
+    protected boolean isStepRequired(final String step, final List<String> inputs) {
+        if (fingerprint == null) {
+            return true;
+        }
+        final String digest = ProvisionedServerCache.key(inputs);
+        fingerprint.digest(step, digest);
+        return !serverUpToDate || !digest.equals(previousFingerprint.digest(step));
+    }
+
+    /**
+     * The names of the files copied to the deployments directory by the previous build of the server.
+     *
+     * @return the file names
+     */
+    protected List<String> getPreviousDeployments() {
+        return previousFingerprint == null ? List.of() : previousFingerprint.deployments();
+    }
+
+    /**
+     * Records the names of the files copied to the deployments directory.
+     *
+     * @param deployments the file names
+     */
+    protected void recordDeployments(final List<String> deployments) {
+        if (fingerprint != null) {
+            fingerprint.deployments(deployments);
+        }
+    }
+
+    /**
+     * Provisions the server, copies it from the provisioned server cache or reuses the existing server if it is
+     * up-to-date.
+     *
+     * @return {@code true} if the server was copied from the cache or reused
+     */
+    private boolean provisionServer(Path home) throws ProvisioningException,
             MojoExecutionException, IOException, XMLStreamException {
         GalleonBuilder galleonBuilder = new GalleonBuilder();
         galleonBuilder.addArtifactResolver(artifactResolver);
@@ -339,14 +523,45 @@ abstract class AbstractProvisionServerMojo extends AbstractMojo {
                 } else {
                     pm.storeProvisioningConfig(config, file);
                 }
-                return;
+                return false;
+            }
+            if (provisionedServerCache != null || fingerprint != null) {
+                serverCacheKey = computeServerCacheKey(pm, config, provisionFromFile ? resolvedProvisioningFile : null);
+            }
+            if (fingerprint != null) {
+                // Without a key the versions of the artifacts are not fixed, the server is never up-to-date
+                if (serverCacheKey != null) {
+                    final List<String> inputs = new ArrayList<>();
+                    inputs.add(serverCacheKey);
+                    addServerContentInputs(inputs);
+                    final String digest = ProvisionedServerCache.key(inputs);
+                    fingerprint.digest(SERVER_STEP, digest);
+                    if (digest.equals(previousFingerprint.digest(SERVER_STEP))) {
+                        getLog().info("The server in " + home + " is up-to-date, skipping provisioning");
+                        serverUpToDate = true;
+                        return true;
+                    }
+                }
+                IoUtils.recursiveDelete(home);
+            }
+            if (provisionedServerCache != null && serverCacheKey != null) {
+                try {
+                    if (provisionedServerCache.materialize(serverCacheKey, home)) {
+                        getLog().info("Copied server from the provisioned server cache to " + home);
+                        return true;
+                    }
+                } catch (IOException e) {
+                    getLog().warn("Failed to copy the server from the provisioned server cache, provisioning the "
+                            + "server: " + e);
+                    IoUtils.recursiveDelete(home);
+                }
             }
             getLog().info("Provisioning server in " + home);
             PluginProgressTracker.initTrackers(pm, new MavenJBossLogger(getLog()));
             if (provisionFromFile) {
-                pm.provision(resolvedProvisioningFile, galleonOptions);
+                pm.provision(resolvedProvisioningFile, getProvisioningOptions());
             } else {
-                pm.provision(config, galleonOptions);
+                pm.provision(config, getProvisioningOptions());
             }
             // Check that at least the standalone or domain directories have been generated.
             if (!Files.exists(home.resolve("standalone")) && !Files.exists(home.resolve("domain"))) {
@@ -359,6 +574,106 @@ abstract class AbstractProvisionServerMojo extends AbstractMojo {
                 pm.storeProvisioningConfig(config, file);
             }
         }
+        return false;
+    }
+
+    private Map<String, String> getProvisioningOptions() {
+        // Concurrent resolution is only used when Galleon resolves all the artifacts at once
+        if (resolutionThreads > 1 && artifactResolver instanceof ChannelMavenArtifactRepositoryManager
+                && !galleonOptions.containsKey(BULK_RESOLVE_ARTIFACTS)) {
+            final Map<String, String> options = new HashMap<>(galleonOptions);
+            options.put(BULK_RESOLVE_ARTIFACTS, "true");
+            return options;
+        }
+        return galleonOptions;
+    }
+
+    private String computeServerCacheKey(final Provisioning pm, final GalleonProvisioningConfig config,
+            final Path provisioningFile) throws ProvisioningException, IOException, XMLStreamException {
+        final List<String> inputs = new ArrayList<>();
+        inputs.add(pluginVersion);
+        if (provisioningFile == null) {
+            final Path file = Files.createTempFile("wildfly-provisioning", ".xml");
+            try {
+                pm.storeProvisioningConfig(config, file);
+                inputs.add(Files.readString(file));
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } else {
+            inputs.add(Files.readString(provisioningFile));
+        }
+        new TreeMap<>(galleonOptions).forEach((name, value) -> inputs.add(name + "=" + value));
+        inputs.add("record-state=" + recordProvisioningState);
+        if (artifactResolver instanceof ChannelMavenArtifactRepositoryManager) {
+            inputs.add(((ChannelMavenArtifactRepositoryManager) artifactResolver).getManifestDigest());
+        }
+        final String unresolved = addResolvedFeaturePacks(config, inputs);
+        if (unresolved != null) {
+            getLog().info("The provisioned server cannot be cached or reused, " + unresolved + ".");
+            return null;
+        }
+        return ProvisionedServerCache.key(inputs);
+    }
+
+    /**
+     * Adds the resolved versions and the content digests of the feature-packs to the inputs. The server can only be
+     * identified by its inputs if the versions of all its artifacts are fixed by the inputs.
+     *
+     * @param config the provisioning configuration
+     * @param inputs the inputs to add to
+     *
+     * @return {@code null} if the feature-packs were added, otherwise the reason the versions are not fixed
+     *
+     * @throws IOException if the content of a feature-pack cannot be read
+     */
+    private String addResolvedFeaturePacks(final GalleonProvisioningConfig config, final List<String> inputs)
+            throws IOException {
+        if (artifactResolver instanceof ChannelMavenArtifactRepositoryManager
+                && ((ChannelMavenArtifactRepositoryManager) artifactResolver).resolvesLatestVersions()) {
+            return "a channel resolves the latest version of some artifacts";
+        }
+        for (GalleonFeaturePackConfig featurePack : config.getFeaturePackDeps()) {
+            final FeaturePackLocation location = featurePack.getLocation();
+            if (!location.isMavenCoordinates()) {
+                if (!location.hasBuild()) {
+                    return "the feature-pack " + location + " has no version";
+                }
+                inputs.add(location.toString());
+                continue;
+            }
+            // The producer of Maven coordinates is groupId:artifactId:classifier:extension
+            final String[] coordinates = location.getProducerName().split(":", -1);
+            final MavenArtifact artifact = new MavenArtifact()
+                    .setGroupId(coordinates[0])
+                    .setArtifactId(coordinates[1])
+                    .setClassifier(coordinates.length > 2 && !coordinates[2].isEmpty() ? coordinates[2] : null)
+                    .setExtension(coordinates.length > 3 && !coordinates[3].isEmpty() ? coordinates[3]
+                            : MavenArtifact.EXT_ZIP)
+                    .setVersion(location.getBuild());
+            try {
+                artifactResolver.resolve(artifact);
+            } catch (MavenUniverseException e) {
+                return "the feature-pack " + location + " cannot be resolved: " + e.getLocalizedMessage();
+            }
+            if (artifact.getVersion() == null || artifact.getVersion().endsWith("SNAPSHOT")) {
+                return "the feature-pack " + artifact.getCoordsAsString() + " is not a release";
+            }
+            inputs.add(artifact.getCoordsAsString());
+            ProvisioningFingerprint.addFiles(inputs, artifact.getPath());
+        }
+        return null;
+    }
+
+    private void storeInServerCache(final Path home) {
+        if (provisionedServerCache == null || serverCacheKey == null) {
+            return;
+        }
+        try {
+            provisionedServerCache.store(serverCacheKey, home);
+        } catch (IOException e) {
+            getLog().warn("Failed to add the server to the provisioned server cache: " + e);
+        }
     }
 
     protected GalleonProvisioningConfig buildGalleonConfig(GalleonBuilder galleonBuilder)
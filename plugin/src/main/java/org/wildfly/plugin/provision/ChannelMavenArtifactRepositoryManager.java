@@ -9,16 +9,23 @@ import static org.wildfly.channel.maven.VersionResolverFactory.DEFAULT_REPOSITOR
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.net.MalformedURLException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 
@@ -41,12 +48,16 @@ import org.jboss.galleon.universe.maven.MavenArtifact;
 import org.jboss.galleon.universe.maven.MavenUniverseException;
 import org.jboss.galleon.universe.maven.repo.MavenRepoManager;
 import org.jboss.galleon.util.ZipUtils;
+import org.wildfly.channel.ArtifactCoordinate;
 import org.wildfly.channel.ArtifactTransferException;
 import org.wildfly.channel.Channel;
 import org.wildfly.channel.ChannelManifest;
+import org.wildfly.channel.ChannelManifestMapper;
+import org.wildfly.channel.ChannelMapper;
 import org.wildfly.channel.ChannelSession;
 import org.wildfly.channel.NoStreamFoundException;
 import org.wildfly.channel.Repository;
+import org.wildfly.channel.Stream;
 import org.wildfly.channel.UnresolvedMavenArtifactException;
 import org.wildfly.channel.VersionResult;
 import org.wildfly.channel.maven.VersionResolverFactory;
@@ -66,12 +77,37 @@ public class ChannelMavenArtifactRepositoryManager implements MavenRepoManager,
     private final RepositorySystem system;
     private final DefaultRepositorySystemSession session;
     private final List<RemoteRepository> repositories;
+    private final int resolutionThreads;
+    // The streams of the artifacts resolved from the resolution cache, which the channel session did not record
+    private final Map<String, Stream> cachedStreams = new ConcurrentHashMap<>();
+    private ChannelResolutionCache resolutionCache;
+    private FeaturePackIndex featurePackIndex;
 
     public ChannelMavenArtifactRepositoryManager(List<ChannelConfiguration> channels,
             RepositorySystem system,
             RepositorySystemSession contextSession,
             List<RemoteRepository> repositories, Log log, boolean offline)
             throws MalformedURLException, UnresolvedMavenArtifactException, MojoExecutionException {
+        this(channels, system, contextSession, repositories, log, offline, 1);
+    }
+
+    /**
+     * Creates a new repository manager.
+     *
+     * @param channels          the channels to resolve the artifacts from
+     * @param system            the repository system
+     * @param contextSession    the repository session
+     * @param repositories      the remote repositories
+     * @param log               the log
+     * @param offline           {@code true} if the remote repositories must not be used
+     * @param resolutionThreads the number of threads used to resolve the artifacts passed to
+     *                              {@link #resolveAll(Collection)}, {@code 1} to resolve them serially
+     */
+    public ChannelMavenArtifactRepositoryManager(List<ChannelConfiguration> channels,
+            RepositorySystem system,
+            RepositorySystemSession contextSession,
+            List<RemoteRepository> repositories, Log log, boolean offline, int resolutionThreads)
+            throws MalformedURLException, UnresolvedMavenArtifactException, MojoExecutionException {
         if (channels.isEmpty()) {
             throw new MojoExecutionException("No channel specified.");
         }
@@ -102,6 +138,7 @@ public class ChannelMavenArtifactRepositoryManager implements MavenRepoManager,
         channelSession = new ChannelSession(this.channels, factory);
         localCachePath = contextSession.getLocalRepositoryManager().getRepository().getBasedir().toPath();
         this.system = system;
+        this.resolutionThreads = Math.max(1, resolutionThreads);
     }
 
     /**
@@ -125,12 +162,20 @@ public class ChannelMavenArtifactRepositoryManager implements MavenRepoManager,
      * Pre-fetch failures are non-fatal: any artifact not pre-fetched falls
      * through to the per-artifact {@link #resolve(MavenArtifact)} path which keeps
      * the existing channel/direct-resolve fallback semantics.
+     *
+     * <p>
+     * If more than one resolution thread is configured, the pre-fetch is skipped and the channel version resolution
+     * and the download of each artifact run concurrently instead, see {@link ConcurrentArtifactResolver}.
      */
     @Override
     public void resolveAll(Collection<MavenArtifact> artifacts) throws MavenUniverseException {
         if (artifacts == null || artifacts.isEmpty()) {
             return;
         }
+        if (resolutionThreads > 1) {
+            new ConcurrentArtifactResolver(resolutionThreads, this::resolve, log).resolveAll(artifacts);
+            return;
+        }
         List<ArtifactRequest> requests = new ArrayList<>(artifacts.size());
         for (MavenArtifact a : artifacts) {
             if (a.getVersion() == null || a.getVersion().isEmpty()) {
@@ -213,45 +258,213 @@ public class ChannelMavenArtifactRepositoryManager implements MavenRepoManager,
     }
 
     private boolean fpRequireChannel(MavenArtifact artifact) throws Exception {
-        boolean requireChannel = false;
-        if (artifact.getVersion() != null && artifact.getExtension() != null
-                && artifact.getExtension().equalsIgnoreCase("zip")) {
-            org.wildfly.channel.MavenArtifact mavenArtifact = channelSession.resolveDirectMavenArtifact(artifact.getGroupId(),
-                    artifact.getArtifactId(),
-                    artifact.getExtension(),
-                    artifact.getClassifier(),
-                    artifact.getVersion());
-            if (!Provisioning.isFeaturePack(mavenArtifact.getFile().toPath())) {
-                return requireChannel;
+        if (artifact.getVersion() == null || artifact.getExtension() == null
+                || !artifact.getExtension().equalsIgnoreCase("zip")) {
+            return false;
+        }
+        org.wildfly.channel.MavenArtifact mavenArtifact = channelSession.resolveDirectMavenArtifact(artifact.getGroupId(),
+                artifact.getArtifactId(),
+                artifact.getExtension(),
+                artifact.getClassifier(),
+                artifact.getVersion());
+        final Path archive = mavenArtifact.getFile().toPath();
+        FeaturePackIndex.Entry entry = featurePackIndex == null ? null : featurePackIndex.get(archive);
+        if (entry == null) {
+            entry = readChannelRequirement(archive);
+            if (featurePackIndex != null) {
+                featurePackIndex.put(archive, entry);
             }
-            try (FileSystem fs = ZipUtils.newFileSystem(mavenArtifact.getFile().toPath())) {
-                Path resPath = fs.getPath("resources");
-                final Path wfRes = resPath.resolve("wildfly");
-                final Path channelPropsPath = wfRes.resolve("wildfly-channel.properties");
-                if (Files.exists(channelPropsPath)) {
-                    Properties props = new Properties();
-                    try (BufferedReader reader = Files.newBufferedReader(channelPropsPath)) {
-                        props.load(reader);
-                    }
-                    String resolution = props.getProperty("resolution");
-                    if (resolution != null) {
-                        requireChannel = "REQUIRED".equals(resolution) || "REQUIRED_FP_ONLY".equals(resolution);
-                    }
+        }
+        final String resolution = entry.resolution();
+        return entry.featurePack() && ("REQUIRED".equals(resolution) || "REQUIRED_FP_ONLY".equals(resolution));
+    }
+
+    private static FeaturePackIndex.Entry readChannelRequirement(Path archive) throws Exception {
+        if (!Provisioning.isFeaturePack(archive)) {
+            return new FeaturePackIndex.Entry(false, null);
+        }
+        String resolution = null;
+        try (FileSystem fs = ZipUtils.newFileSystem(archive)) {
+            Path resPath = fs.getPath("resources");
+            final Path wfRes = resPath.resolve("wildfly");
+            final Path channelPropsPath = wfRes.resolve("wildfly-channel.properties");
+            if (Files.exists(channelPropsPath)) {
+                Properties props = new Properties();
+                try (BufferedReader reader = Files.newBufferedReader(channelPropsPath)) {
+                    props.load(reader);
                 }
+                resolution = props.getProperty("resolution");
             }
         }
-        return requireChannel;
+        return new FeaturePackIndex.Entry(true, resolution);
     }
 
     private void resolveFromChannels(MavenArtifact artifact) throws UnresolvedMavenArtifactException {
-        org.wildfly.channel.MavenArtifact result = channelSession.resolveMavenArtifact(artifact.getGroupId(),
-                artifact.getArtifactId(), artifact.getExtension(), artifact.getClassifier(), artifact.getVersion());
+        if (resolutionCache == null) {
+            org.wildfly.channel.MavenArtifact result = channelSession.resolveMavenArtifact(artifact.getGroupId(),
+                    artifact.getArtifactId(), artifact.getExtension(), artifact.getClassifier(), artifact.getVersion());
+            artifact.setVersion(result.getVersion());
+            artifact.setPath(result.getFile().toPath());
+            return;
+        }
+        final String key = ChannelResolutionCache.key(artifact.getGroupId(), artifact.getArtifactId(),
+                artifact.getClassifier(), artifact.getExtension());
+        if (resolutionCache.isMissing(key)) {
+            throw new NoStreamFoundException(String.format("No stream found for %s in the channel resolution cache", key),
+                    Set.of(new ArtifactCoordinate(artifact.getGroupId(), artifact.getArtifactId(), artifact.getExtension(),
+                            artifact.getClassifier(), artifact.getVersion())),
+                    Set.of());
+        }
+        final ChannelResolutionCache.Resolved cached = resolutionCache.get(key);
+        if (cached != null) {
+            artifact.setVersion(cached.version());
+            artifact.setPath(cached.path());
+            cachedStreams.putIfAbsent(artifact.getGroupId() + ':' + artifact.getArtifactId() + ':' + cached.version(),
+                    new Stream(artifact.getGroupId(), artifact.getArtifactId(), cached.version()));
+            return;
+        }
+        final org.wildfly.channel.MavenArtifact result;
+        try {
+            result = channelSession.resolveMavenArtifact(artifact.getGroupId(),
+                    artifact.getArtifactId(), artifact.getExtension(), artifact.getClassifier(), artifact.getVersion());
+        } catch (NoStreamFoundException e) {
+            if (isCacheable(artifact, false)) {
+                resolutionCache.putMissing(key);
+            }
+            throw e;
+        }
         artifact.setVersion(result.getVersion());
         artifact.setPath(result.getFile().toPath());
+        if (isCacheable(artifact, true)) {
+            resolutionCache.put(key, result.getVersion(), result.getFile().toPath());
+        }
+    }
+
+    /**
+     * Checks whether the result of the channel resolution of an artifact only depends on the manifests. A stream with a
+     * version pattern, or an artifact without a stream resolved with a no-stream strategy, resolves to the latest
+     * version available in the repositories, which can change without the manifests changing.
+     *
+     * @param artifact the artifact
+     * @param resolved {@code true} if the artifact was resolved, {@code false} if no stream was found
+     *
+     * @return {@code true} if the result can be cached
+     */
+    private boolean isCacheable(MavenArtifact artifact, boolean resolved) {
+        boolean found = false;
+        for (ChannelManifest manifest : channelSession.getManifests()) {
+            final Stream stream = manifest.findStreamFor(artifact.getGroupId(), artifact.getArtifactId()).orElse(null);
+            if (stream != null) {
+                if (stream.getVersion() == null) {
+                    return false;
+                }
+                found = true;
+            }
+        }
+        if (resolved) {
+            return found;
+        }
+        for (Channel channel : channels) {
+            if (channel.getNoStreamStrategy() != null && channel.getNoStreamStrategy() != Channel.NoStreamStrategy.NONE) {
+                return false;
+            }
+        }
+        return !found;
+    }
+
+    /**
+     * Checks whether the channels resolve some artifacts to the latest version available in the repositories, with a
+     * stream version pattern or a no-stream strategy. The resolved versions then depend on the content of the
+     * repositories and not only on the manifests.
+     *
+     * @return {@code true} if some artifacts are resolved to the latest available version
+     */
+    public boolean resolvesLatestVersions() {
+        for (Channel channel : channels) {
+            if (channel.getNoStreamStrategy() != null && channel.getNoStreamStrategy() != Channel.NoStreamStrategy.NONE) {
+                return true;
+            }
+        }
+        for (ChannelManifest manifest : channelSession.getManifests()) {
+            for (Stream stream : manifest.getStreams()) {
+                if (stream.getVersion() == null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Enables the persistent cache of the artifacts resolved from the channels. The cache is stored in the local
+     * repository and is specific to the content of the channel definitions and manifests, so changing the version or
+     * the content of a manifest automatically invalidates it. The channel requirements of the feature-packs which are
+     * not found in the channels are indexed as well, so their archives are only opened once. The caches are saved by
+     * {@link #done(Path)}.
+     */
+    public void enableResolutionCache() {
+        featurePackIndex = FeaturePackIndex.load(getCacheDir().resolve("feature-packs.json"));
+        final String digest;
+        try {
+            final MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(ChannelMapper.toYaml(channels).getBytes(StandardCharsets.UTF_8));
+            md.update(getManifestDigest().getBytes(StandardCharsets.UTF_8));
+            digest = HexFormat.of().formatHex(md.digest());
+        } catch (IOException e) {
+            log.warn("Failed to compute the digest of the channels, the channel resolution cache is disabled: " + e);
+            return;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        resolutionCache = ChannelResolutionCache.load(getCacheDir().resolve("channel-resolution"), digest);
+    }
+
+    private Path getCacheDir() {
+        return localCachePath.resolve(".cache").resolve("wildfly-maven-plugin");
+    }
+
+    /**
+     * Computes a digest of the content of the channel manifests. The digest changes if the content or the version of
+     * any manifest changes.
+     *
+     * @return the hex encoded digest
+     *
+     * @throws IOException if a manifest cannot be serialized
+     */
+    public String getManifestDigest() throws IOException {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (ChannelManifest manifest : channelSession.getManifests()) {
+                digest.update(ChannelManifestMapper.toYaml(manifest).getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     public void done(Path home) throws MavenUniverseException, IOException {
         ChannelManifest channelManifest = channelSession.getRecordedChannel();
+        if (!cachedStreams.isEmpty()) {
+            final Set<Stream> streams = new TreeSet<>(channelManifest.getStreams());
+            streams.addAll(cachedStreams.values());
+            channelManifest = new ChannelManifest(channelManifest.getName(), channelManifest.getId(),
+                    channelManifest.getDescription(), streams);
+        }
+        if (resolutionCache != null) {
+            try {
+                resolutionCache.save();
+            } catch (IOException e) {
+                log.warn("Failed to save the channel resolution cache: " + e);
+            }
+        }
+        if (featurePackIndex != null) {
+            try {
+                featurePackIndex.save();
+            } catch (IOException e) {
+                log.warn("Failed to save the feature-pack index: " + e);
+            }
+        }
         final ManifestVersionRecord currentVersions = ManifestVersionResolver.getCurrentVersions(channelSession);
         ProsperoMetadataUtils.generate(home, channels, channelManifest, currentVersions);
     }
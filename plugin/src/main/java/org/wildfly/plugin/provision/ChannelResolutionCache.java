@@ -0,0 +1,232 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.provision;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+
+/**
+ * The artifacts resolved from the channels by previous builds. The results are stored in a file named after the
+ * digest of the channels and their manifests, so a change to a manifest or to its version starts with an empty cache.
+ * <p>
+ * Both the artifacts resolved to a version of a stream and the artifacts which have no stream in the channels are
+ * recorded. A resolved artifact is only returned if its file still exists.
+ * </p>
+ */
+class ChannelResolutionCache {
+    private static final String ARTIFACTS = "artifacts";
+    private static final String MISSING = "missing";
+    private static final String VERSION = "version";
+    private static final String PATH = "path";
+    private static final String SUFFIX = ".json";
+    // Caches of manifests which are no longer used are removed after this delay
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(30L);
+
+    private final Path file;
+    private final Map<String, Resolved> resolved = new ConcurrentHashMap<>();
+    private final Set<String> missing = ConcurrentHashMap.newKeySet();
+    private volatile boolean modified;
+
+    private ChannelResolutionCache(final Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Loads the cache of the channels.
+     *
+     * @param dir    the cache directory
+     * @param digest the digest of the channels and their manifests
+     *
+     * @return the cache, empty if it does not exist or cannot be read
+     */
+    static ChannelResolutionCache load(final Path dir, final String digest) {
+        final ChannelResolutionCache cache = new ChannelResolutionCache(dir.resolve(digest + SUFFIX));
+        if (Files.isRegularFile(cache.file)) {
+            try {
+                final ModelNode node = ModelNode.fromJSONString(Files.readString(cache.file));
+                if (node.hasDefined(ARTIFACTS)) {
+                    for (Property artifact : node.get(ARTIFACTS).asPropertyList()) {
+                        cache.resolved.put(artifact.getName(), new Resolved(artifact.getValue().get(VERSION).asString(),
+                                Path.of(artifact.getValue().get(PATH).asString())));
+                    }
+                }
+                if (node.hasDefined(MISSING)) {
+                    node.get(MISSING).asList().forEach(key -> cache.missing.add(key.asString()));
+                }
+            } catch (IOException | RuntimeException ignore) {
+                // Handled like an empty cache, the file is replaced when the cache is saved
+                cache.resolved.clear();
+                cache.missing.clear();
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Creates the key of an artifact.
+     *
+     * @param groupId    the group id
+     * @param artifactId the artifact id
+     * @param classifier the classifier, may be {@code null}
+     * @param extension  the extension, may be {@code null}
+     *
+     * @return the key
+     */
+    static String key(final String groupId, final String artifactId, final String classifier, final String extension) {
+        return groupId + ':' + artifactId + ':' + (classifier == null ? "" : classifier) + ':'
+                + (extension == null ? "" : extension);
+    }
+
+    /**
+     * Returns the cached resolution of the artifact.
+     *
+     * @param key the key of the artifact
+     *
+     * @return the resolution or {@code null} if the artifact is not cached or its file no longer exists
+     */
+    Resolved get(final String key) {
+        final Resolved result = resolved.get(key);
+        if (result != null && !Files.isRegularFile(result.path)) {
+            resolved.remove(key);
+            modified = true;
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * Records the resolution of the artifact.
+     *
+     * @param key     the key of the artifact
+     * @param version the resolved version
+     * @param path    the resolved file
+     */
+    void put(final String key, final String version, final Path path) {
+        final Resolved result = new Resolved(version, path);
+        if (!result.equals(resolved.put(key, result))) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Checks whether the channels were found to have no stream for the artifact.
+     *
+     * @param key the key of the artifact
+     *
+     * @return {@code true} if the channels have no stream for the artifact
+     */
+    boolean isMissing(final String key) {
+        return missing.contains(key);
+    }
+
+    /**
+     * Records that the channels have no stream for the artifact.
+     *
+     * @param key the key of the artifact
+     */
+    void putMissing(final String key) {
+        if (missing.add(key)) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Writes the cache if it was modified and removes the caches of other manifests which have not been used for a
+     * while.
+     *
+     * @throws IOException if the cache cannot be written
+     */
+    void save() throws IOException {
+        if (!modified) {
+            // Used as the time the cache was last used
+            if (Files.exists(file)) {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            }
+            return;
+        }
+        final ModelNode node = new ModelNode();
+        final ModelNode artifacts = node.get(ARTIFACTS).setEmptyObject();
+        resolved.forEach((key, value) -> {
+            artifacts.get(key, VERSION).set(value.version);
+            artifacts.get(key, PATH).set(value.path.toString());
+        });
+        final ModelNode missingList = node.get(MISSING).setEmptyList();
+        missing.stream().sorted().forEach(missingList::add);
+        final Path dir = file.getParent();
+        Files.createDirectories(dir);
+        // Written to a temporary file, so concurrent builds never read a partially written cache
+        final Path tmp = dir.resolve(".tmp-" + UUID.randomUUID());
+        try {
+            Files.writeString(tmp, node.toJSONString(false));
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        modified = false;
+        final long expired = System.currentTimeMillis() - MAX_AGE;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path other : (Iterable<Path>) files::iterator) {
+                if (!other.equals(file) && Files.getLastModifiedTime(other).toMillis() < expired) {
+                    Files.deleteIfExists(other);
+                }
+            }
+        }
+    }
+
+    /**
+     * An artifact resolved from a stream of the channels.
+     */
+    static class Resolved {
+        private final String version;
+        private final Path path;
+
+        Resolved(final String version, final Path path) {
+            this.version = version;
+            this.path = path;
+        }
+
+        String version() {
+            return version;
+        }
+
+        Path path() {
+            return path;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Resolved)) {
+                return false;
+            }
+            final Resolved other = (Resolved) obj;
+            return version.equals(other.version) && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * version.hashCode() + path.hashCode();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.provision;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.logging.Log;
+import org.jboss.galleon.universe.maven.MavenArtifact;
+import org.jboss.galleon.universe.maven.MavenUniverseException;
+
+/**
+ * Resolves artifacts with a bounded pool of threads. Each artifact is resolved by a single task, so the channel
+ * version is resolved and the artifact downloaded by the same thread. Artifacts with the same coordinates are only
+ * resolved once, the duplicates are updated with the version and path of the first one. The throughput is logged once
+ * all artifacts are resolved.
+ */
+class ConcurrentArtifactResolver {
+
+    /**
+     * Resolves a single artifact.
+     */
+    @FunctionalInterface
+    interface Resolver {
+        void resolve(MavenArtifact artifact) throws MavenUniverseException;
+    }
+
+    private final int threads;
+    private final Resolver resolver;
+    private final Log log;
+
+    /**
+     * Creates a new resolver.
+     *
+     * @param threads  the maximum number of threads
+     * @param resolver resolves a single artifact, sets its version and path
+     * @param log      the log
+     */
+    ConcurrentArtifactResolver(final int threads, final Resolver resolver, final Log log) {
+        this.threads = Math.max(1, threads);
+        this.resolver = resolver;
+        this.log = log;
+    }
+
+    /**
+     * Resolves the artifacts.
+     *
+     * @param artifacts the artifacts to resolve
+     *
+     * @throws MavenUniverseException if an artifact cannot be resolved
+     */
+    void resolveAll(final Collection<MavenArtifact> artifacts) throws MavenUniverseException {
+        if (artifacts.isEmpty()) {
+            return;
+        }
+        final long start = System.nanoTime();
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, artifacts.size()),
+                r -> {
+                    final Thread thread = new Thread(r, "wildfly-artifact-resolver-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        final Map<String, CompletableFuture<MavenArtifact>> inFlight = new HashMap<>();
+        final List<CompletableFuture<Void>> results = new ArrayList<>(artifacts.size());
+        try {
+            for (MavenArtifact artifact : artifacts) {
+                final CompletableFuture<MavenArtifact> resolved = inFlight.computeIfAbsent(coordinates(artifact),
+                        key -> CompletableFuture.supplyAsync(() -> {
+                            try {
+                                resolver.resolve(artifact);
+                                return artifact;
+                            } catch (MavenUniverseException e) {
+                                throw new CompletionException(e);
+                            }
+                        }, executor));
+                results.add(resolved.thenAccept(first -> {
+                    if (first != artifact) {
+                        artifact.setVersion(first.getVersion());
+                        artifact.setPath(first.getPath());
+                    }
+                }));
+            }
+            for (CompletableFuture<Void> result : results) {
+                try {
+                    result.join();
+                } catch (CompletionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof MavenUniverseException) {
+                        throw (MavenUniverseException) cause;
+                    }
+                    throw new MavenUniverseException(cause.getLocalizedMessage(), cause);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long bytes = 0L;
+        for (CompletableFuture<MavenArtifact> resolved : inFlight.values()) {
+            final Path path = resolved.join().getPath();
+            if (path != null && Files.isRegularFile(path)) {
+                try {
+                    bytes += Files.size(path);
+                } catch (IOException ignore) {
+                    // Only used to report the throughput
+                }
+            }
+        }
+        final long elapsed = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        final double megabytes = bytes / (1024.0 * 1024.0);
+        log.info(String.format("Resolved %d artifact(s), %.1f MB, in %d ms with %d thread(s): %.1f artifacts/s, %.1f MB/s",
+                inFlight.size(), megabytes, elapsed, threadCount.get(), inFlight.size() * 1000.0 / elapsed,
+                megabytes * 1000.0 / elapsed));
+    }
+
+    private static String coordinates(final MavenArtifact artifact) {
+        return artifact.getGroupId() + ':' + artifact.getArtifactId() + ':' + artifact.getClassifier() + ':'
+                + artifact.getExtension() + ':' + artifact.getVersion();
+    }
+}
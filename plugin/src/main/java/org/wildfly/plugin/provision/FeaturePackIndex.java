@@ -0,0 +1,161 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.provision;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+
+/**
+ * The channel requirements read from archives which were checked for being a feature-pack. For each archive, the index
+ * records whether it is a feature-pack and the {@code resolution} declared in its
+ * {@code resources/wildfly/wildfly-channel.properties}, so the archive does not have to be opened again.
+ * <p>
+ * Entries are keyed by the path of the archive and are ignored once the size or the last modified time of the archive
+ * changes.
+ * </p>
+ */
+class FeaturePackIndex {
+    private static final String FEATURE_PACK = "feature-pack";
+    private static final String RESOLUTION = "resolution";
+    private static final String SIZE = "size";
+    private static final String LAST_MODIFIED = "last-modified";
+
+    private final Path file;
+    private final Map<String, ModelNode> entries = new ConcurrentHashMap<>();
+    private volatile boolean modified;
+
+    private FeaturePackIndex(final Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Loads the index.
+     *
+     * @param file the index file
+     *
+     * @return the index, empty if the file does not exist or cannot be read
+     */
+    static FeaturePackIndex load(final Path file) {
+        final FeaturePackIndex index = new FeaturePackIndex(file);
+        if (Files.isRegularFile(file)) {
+            try {
+                for (Property entry : ModelNode.fromJSONString(Files.readString(file)).asPropertyList()) {
+                    index.entries.put(entry.getName(), entry.getValue());
+                }
+            } catch (IOException | RuntimeException ignore) {
+                // Handled like an empty index, the file is replaced when the index is saved
+                index.entries.clear();
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the indexed requirement of the archive.
+     *
+     * @param archive the archive
+     *
+     * @return the requirement or {@code null} if the archive is not indexed or was modified since
+     *
+     * @throws IOException if the attributes of the archive cannot be read
+     */
+    Entry get(final Path archive) throws IOException {
+        final ModelNode entry = entries.get(archive.toString());
+        if (entry == null) {
+            return null;
+        }
+        final BasicFileAttributes attributes = Files.readAttributes(archive, BasicFileAttributes.class);
+        if (entry.get(SIZE).asLong() != attributes.size()
+                || entry.get(LAST_MODIFIED).asLong() != attributes.lastModifiedTime().toMillis()) {
+            return null;
+        }
+        return new Entry(entry.get(FEATURE_PACK).asBoolean(),
+                entry.hasDefined(RESOLUTION) ? entry.get(RESOLUTION).asString() : null);
+    }
+
+    /**
+     * Adds the requirement of the archive to the index.
+     *
+     * @param archive the archive
+     * @param entry   the requirement read from the archive
+     *
+     * @throws IOException if the attributes of the archive cannot be read
+     */
+    void put(final Path archive, final Entry entry) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(archive, BasicFileAttributes.class);
+        final ModelNode node = new ModelNode();
+        node.get(FEATURE_PACK).set(entry.featurePack);
+        if (entry.resolution != null) {
+            node.get(RESOLUTION).set(entry.resolution);
+        }
+        node.get(SIZE).set(attributes.size());
+        node.get(LAST_MODIFIED).set(attributes.lastModifiedTime().toMillis());
+        entries.put(archive.toString(), node);
+        modified = true;
+    }
+
+    /**
+     * Writes the index if it was modified.
+     *
+     * @throws IOException if the index cannot be written
+     */
+    void save() throws IOException {
+        if (!modified) {
+            return;
+        }
+        final ModelNode node = new ModelNode().setEmptyObject();
+        entries.forEach((name, entry) -> node.get(name).set(entry));
+        Files.createDirectories(file.getParent());
+        // Written to a temporary file, so concurrent builds never read a partially written index
+        final Path tmp = file.resolveSibling(".tmp-" + UUID.randomUUID());
+        try {
+            Files.writeString(tmp, node.toJSONString(false));
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        modified = false;
+    }
+
+    /**
+     * The channel requirement of an archive.
+     */
+    static class Entry {
+        private final boolean featurePack;
+        private final String resolution;
+
+        Entry(final boolean featurePack, final String resolution) {
+            this.featurePack = featurePack;
+            this.resolution = resolution;
+        }
+
+        boolean featurePack() {
+            return featurePack;
+        }
+
+        /**
+         * The {@code resolution} of the feature-pack.
+         *
+         * @return the resolution or {@code null} if the archive is not a feature-pack or does not declare one
+         */
+        String resolution() {
+            return resolution;
+        }
+    }
+}
@@ -494,15 +494,25 @@ public class PackageServerMojo extends AbstractProvisionServerMojo {
         return this.deployments = Map.copyOf(deploymentPaths);
     }
 
+    @Override
+    protected void addServerContentInputs(final List<String> inputs) throws IOException {
+        for (String path : extraServerContentDirs) {
+            ProvisioningFingerprint.addFiles(inputs, resolvePath(project, Paths.get(path)));
+        }
+        // The packaging scripts can change any file of the server, it is provisioned again when they change
+        inputs.addAll(getPackagingScriptInputs());
+    }
+
     @Override
     protected void serverProvisioned(Path jbossHome) throws MojoExecutionException, MojoFailureException {
+        final boolean upToDate = isServerUpToDate();
         try {
             if (StandardOutput.isFile(stdout)) {
                 // Delete it, we are appending to it.
                 Files.deleteIfExists(Paths.get(stdout));
             }
 
-            if (!extraServerContentDirs.isEmpty()) {
+            if (!upToDate && !extraServerContentDirs.isEmpty()) {
                 getLog().info("Copying extra content to server");
                 copyExtraContent(jbossHome);
             }
@@ -510,25 +520,45 @@ public class PackageServerMojo extends AbstractProvisionServerMojo {
             throw new MojoExecutionException(ex.getLocalizedMessage(), ex);
         }
 
+        // Handle the primary and the extra deployments
+        final Map<String, Path> deploymentPaths = new LinkedHashMap<>();
         if (!skipDeployment) {
             Path primaryDeployment = getDeploymentContent();
             if (primaryDeployment != null) {
-                deploy(primaryDeployment, getDeploymentTargetName());
+                deploymentPaths.put(getDeploymentTargetName(), primaryDeployment);
             }
-            // Handle extra deployments
             try {
-                Map<String, Path> extraPaths = getDeployments();
-                for (Entry<String, Path> p : extraPaths.entrySet()) {
-                    deploy(p.getValue(), p.getKey());
-                }
+                deploymentPaths.putAll(getDeployments());
             } catch (Exception ex) {
                 throw new MojoExecutionException(ex.getLocalizedMessage(), ex);
             }
         }
+        try {
+            final List<String> inputs = new ArrayList<>();
+            for (Entry<String, Path> p : deploymentPaths.entrySet()) {
+                inputs.add(p.getKey());
+                ProvisioningFingerprint.addFiles(inputs, p.getValue());
+            }
+            if (isStepRequired("deployments", inputs)) {
+                if (upToDate) {
+                    removePreviousDeployments(jbossHome);
+                }
+                for (Entry<String, Path> p : deploymentPaths.entrySet()) {
+                    deploy(p.getValue(), p.getKey());
+                }
+            } else {
+                getLog().info("The deployments are up-to-date");
+            }
+            recordDeployments(List.copyOf(deploymentPaths.keySet()));
+        } catch (IOException ex) {
+            throw new MojoExecutionException(ex.getLocalizedMessage(), ex);
+        }
 
         // CLI execution
         try {
-            if (!packagingScripts.isEmpty()) {
+            if (upToDate) {
+                getLog().info("The packaging scripts are up-to-date");
+            } else if (!packagingScripts.isEmpty()) {
                 getLog().info("Executing CLI commands and scripts");
                 for (CliSession session : packagingScripts) {
                     List<File> wrappedScripts = wrapOfflineScripts(session.getScripts());
@@ -563,6 +593,44 @@ public class PackageServerMojo extends AbstractProvisionServerMojo {
         }
     }
 
+    private List<String> getPackagingScriptInputs() throws IOException {
+        final List<String> inputs = new ArrayList<>();
+        inputs.add(serverConfig);
+        inputs.add(layersConfigurationFileName);
+        inputs.add(String.valueOf(stability));
+        for (CliSession session : packagingScripts) {
+            inputs.add("session");
+            if (session.getCommands() != null) {
+                inputs.addAll(session.getCommands());
+            }
+            if (session.getScripts() != null) {
+                for (File script : session.getScripts()) {
+                    if (script != null) {
+                        ProvisioningFingerprint.addFiles(inputs, resolvePath(project, script.toPath()));
+                    }
+                }
+            }
+            final List<File> propertiesFiles = resolveFiles(session.getPropertiesFiles());
+            if (propertiesFiles != null) {
+                for (File file : propertiesFiles) {
+                    ProvisioningFingerprint.addFiles(inputs, file.toPath());
+                }
+            }
+            if (session.getJavaOpts() != null) {
+                Collections.addAll(inputs, session.getJavaOpts());
+            }
+            inputs.add(String.valueOf(session.getResolveExpression()));
+        }
+        return inputs;
+    }
+
+    private void removePreviousDeployments(final Path jbossHome) throws IOException {
+        final Path deploymentsDir = jbossHome.resolve(STANDALONE).resolve("deployments");
+        for (String deployment : getPreviousDeployments()) {
+            IoUtils.recursiveDelete(deploymentsDir.resolve(deployment));
+        }
+    }
+
     private void attachJar(Path jarFile) {
         if (getLog().isDebugEnabled()) {
             getLog().debug("Attaching bootable jar " + jarFile + " as a project artifact with classifier "
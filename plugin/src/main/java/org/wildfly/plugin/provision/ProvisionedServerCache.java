@@ -0,0 +1,342 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.provision;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * A cache of provisioned servers shared by all builds using the same cache directory. Each server is stored in a
+ * directory named after the digest of the inputs it was provisioned from, so identical provisioning configurations
+ * share a single entry.
+ * <p>
+ * A cached server is copied to the provisioning directory in parallel. The JAR files of the modules are hard linked
+ * instead of copied if the file system supports it, as they are never modified once provisioned. When the cache grows
+ * beyond its maximum size, the least recently used servers are removed.
+ * </p>
+ * <p>
+ * The cache directory is locked while a server is copied from or added to the cache, so concurrent builds, in the same
+ * or in other processes, can share it.
+ * </p>
+ */
+class ProvisionedServerCache {
+    private static final String ENTRY_FILE = "entry.properties";
+    private static final String LOCK_FILE = ".lock";
+    private static final String SERVER_DIR = "server";
+    private static final String TMP_PREFIX = ".tmp-";
+    private static final String SIZE = "size";
+    // File locks are held by the JVM, threads of the same JVM must be locked out separately
+    private static final ReentrantLock LOCK = new ReentrantLock();
+
+    private final Path dir;
+    private final long maxSize;
+    private final Log log;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param dir     the cache directory
+     * @param maxSize the maximum size of the cache in bytes
+     * @param log     the log
+     */
+    ProvisionedServerCache(final Path dir, final long maxSize, final Log log) {
+        this.dir = dir;
+        this.maxSize = maxSize;
+        this.log = log;
+    }
+
+    /**
+     * Creates the key of a server from the inputs it is provisioned from. The order of the inputs is significant.
+     *
+     * @param inputs the inputs
+     *
+     * @return the key
+     */
+    static String key(final Collection<String> inputs) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String input : inputs) {
+                digest.update(input.getBytes(StandardCharsets.UTF_8));
+                // Separate the inputs so moving a character from one input to the next changes the key
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Copies the cached server to the target directory.
+     *
+     * @param key    the key of the server
+     * @param target the directory to copy the server to, which must not exist
+     *
+     * @return {@code true} if the server was found in the cache and copied, otherwise {@code false}
+     *
+     * @throws IOException if an error occurs copying the server
+     */
+    boolean materialize(final String key, final Path target) throws IOException {
+        final Path entry = dir.resolve(key);
+        if (Files.notExists(entry.resolve(ENTRY_FILE))) {
+            return false;
+        }
+        try (CacheLock ignored = lock()) {
+            if (Files.notExists(entry.resolve(ENTRY_FILE))) {
+                // Removed while waiting for the lock
+                return false;
+            }
+            final long start = System.nanoTime();
+            final long linked = copy(entry.resolve(SERVER_DIR), target, true);
+            Files.setLastModifiedTime(entry.resolve(ENTRY_FILE), FileTime.fromMillis(System.currentTimeMillis()));
+            log.debug(String.format("Copied server %s from the cache in %d ms, %d file(s) hard linked", key,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), linked));
+            return true;
+        }
+    }
+
+    /**
+     * Adds the provisioned server to the cache and removes the least recently used servers if the cache exceeds its
+     * maximum size.
+     *
+     * @param key    the key of the server
+     * @param server the provisioned server
+     *
+     * @throws IOException if an error occurs adding the server
+     */
+    void store(final String key, final Path server) throws IOException {
+        Files.createDirectories(dir);
+        // Copy the server without holding the lock, then move it in place
+        final Path tmp = dir.resolve(TMP_PREFIX + UUID.randomUUID());
+        try {
+            final Path tmpServer = tmp.resolve(SERVER_DIR);
+            copy(server, tmpServer, false);
+            final Properties properties = new Properties();
+            properties.setProperty(SIZE, Long.toString(size(tmpServer)));
+            try (Writer writer = Files.newBufferedWriter(tmp.resolve(ENTRY_FILE))) {
+                properties.store(writer, null);
+            }
+            try (CacheLock ignored = lock()) {
+                final Path entry = dir.resolve(key);
+                if (Files.notExists(entry.resolve(ENTRY_FILE))) {
+                    deleteRecursively(entry);
+                    try {
+                        Files.move(tmp, entry, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (AtomicMoveNotSupportedException e) {
+                        Files.move(tmp, entry);
+                    }
+                    log.debug(String.format("Added server %s to the cache %s", key, dir));
+                }
+                evict(key);
+            }
+        } finally {
+            deleteRecursively(tmp);
+        }
+    }
+
+    private void evict(final String keep) throws IOException {
+        final List<Entry> entries = new ArrayList<>();
+        long total = 0L;
+        try (Stream<Path> paths = Files.list(dir)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                final String name = path.getFileName().toString();
+                final Path entryFile = path.resolve(ENTRY_FILE);
+                if (name.startsWith(TMP_PREFIX)) {
+                    // Left by a build which was terminated while adding a server
+                    if (Files.getLastModifiedTime(path).toMillis() < System.currentTimeMillis()
+                            - TimeUnit.DAYS.toMillis(1L)) {
+                        deleteRecursively(path);
+                    }
+                } else if (Files.isRegularFile(entryFile)) {
+                    final Entry entry = new Entry(path, readSize(entryFile),
+                            Files.getLastModifiedTime(entryFile).toMillis());
+                    entries.add(entry);
+                    total += entry.size;
+                }
+            }
+        }
+        entries.sort(Comparator.comparingLong(e -> e.lastUsed));
+        for (Entry entry : entries) {
+            if (total <= maxSize) {
+                break;
+            }
+            if (entry.dir.getFileName().toString().equals(keep)) {
+                continue;
+            }
+            log.debug(String.format("Removing least recently used server %s from the cache", entry.dir.getFileName()));
+            // Remove the entry file first, so a partially deleted entry is not used
+            Files.delete(entry.dir.resolve(ENTRY_FILE));
+            deleteRecursively(entry.dir);
+            total -= entry.size;
+        }
+    }
+
+    private CacheLock lock() throws IOException {
+        Files.createDirectories(dir);
+        LOCK.lock();
+        try {
+            final FileChannel channel = FileChannel.open(dir.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE);
+            try {
+                return new CacheLock(channel, channel.lock());
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            LOCK.unlock();
+            throw e;
+        }
+    }
+
+    private static long copy(final Path source, final Path target, final boolean linkModules) throws IOException {
+        final List<Path> files = new ArrayList<>();
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs)
+                    throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                files.add(source.relativize(file));
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        final AtomicLong linked = new AtomicLong();
+        try {
+            files.parallelStream().forEach(relativePath -> {
+                final Path file = source.resolve(relativePath);
+                final Path targetFile = target.resolve(relativePath.toString());
+                try {
+                    if (linkModules && relativePath.startsWith("modules")
+                            && relativePath.getFileName().toString().endsWith(".jar")) {
+                        try {
+                            Files.createLink(targetFile, file);
+                            linked.incrementAndGet();
+                            return;
+                        } catch (UnsupportedOperationException | IOException ignore) {
+                            // Not supported by the file system or on another file system, copy the file
+                        }
+                    }
+                    Files.copy(file, targetFile, StandardCopyOption.COPY_ATTRIBUTES);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return linked.get();
+    }
+
+    private static long size(final Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile)
+                    .mapToLong(file -> {
+                        try {
+                            return Files.size(file);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .sum();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static long readSize(final Path entryFile) {
+        final Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(entryFile)) {
+            properties.load(reader);
+            return Long.parseLong(properties.getProperty(SIZE, "0"));
+        } catch (IOException | NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private static void deleteRecursively(final Path dir) throws IOException {
+        if (Files.notExists(dir)) {
+            return;
+        }
+        Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static class Entry {
+        private final Path dir;
+        private final long size;
+        private final long lastUsed;
+
+        private Entry(final Path dir, final long size, final long lastUsed) {
+            this.dir = dir;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    private static class CacheLock implements AutoCloseable {
+        private final FileChannel channel;
+        private final FileLock lock;
+
+        private CacheLock(final FileChannel channel, final FileLock lock) {
+            this.channel = channel;
+            this.lock = lock;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                lock.release();
+                channel.close();
+            } finally {
+                LOCK.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.provision;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * The digests of the inputs a provisioned server was built from, stored in the server directory next to the
+ * provisioning configuration. Each step of the build, for example provisioning the server or executing the CLI
+ * scripts, records the digest of its inputs so a later build can skip the steps whose inputs did not change.
+ */
+class ProvisioningFingerprint {
+    static final String FILE_NAME = ".wildfly-maven-plugin-fingerprint.json";
+
+    private static final String STEPS = "steps";
+    private static final String DEPLOYMENTS = "deployments";
+
+    private final ModelNode node;
+
+    private ProvisioningFingerprint(final ModelNode node) {
+        this.node = node;
+    }
+
+    /**
+     * Creates an empty fingerprint.
+     *
+     * @return the new fingerprint
+     */
+    static ProvisioningFingerprint create() {
+        return new ProvisioningFingerprint(new ModelNode().setEmptyObject());
+    }
+
+    /**
+     * Reads the fingerprint of the server.
+     *
+     * @param jbossHome the server directory
+     *
+     * @return the fingerprint, empty if the server has no fingerprint or it cannot be read
+     */
+    static ProvisioningFingerprint read(final Path jbossHome) {
+        final Path file = jbossHome.resolve(FILE_NAME);
+        if (Files.isRegularFile(file)) {
+            try {
+                return new ProvisioningFingerprint(ModelNode.fromJSONString(Files.readString(file)));
+            } catch (IOException | RuntimeException ignore) {
+                // Handled like a server without a fingerprint
+            }
+        }
+        return create();
+    }
+
+    /**
+     * Deletes the fingerprint of the server. Must be invoked before the server is modified, so a server modified by a
+     * failed build is not considered up-to-date.
+     *
+     * @param jbossHome the server directory
+     *
+     * @throws IOException if the fingerprint cannot be deleted
+     */
+    static void delete(final Path jbossHome) throws IOException {
+        Files.deleteIfExists(jbossHome.resolve(FILE_NAME));
+    }
+
+    /**
+     * Writes the fingerprint to the server directory.
+     *
+     * @param jbossHome the server directory
+     *
+     * @throws IOException if the fingerprint cannot be written
+     */
+    void write(final Path jbossHome) throws IOException {
+        Files.writeString(jbossHome.resolve(FILE_NAME), node.toJSONString(false));
+    }
+
+    /**
+     * The digest of the inputs of a step.
+     *
+     * @param step the name of the step
+     *
+     * @return the digest or {@code null} if the step was not recorded
+     */
+    String digest(final String step) {
+        final ModelNode steps = node.get(STEPS);
+        return steps.hasDefined(step) ? steps.get(step).asString() : null;
+    }
+
+    /**
+     * Records the digest of the inputs of a step.
+     *
+     * @param step   the name of the step
+     * @param digest the digest
+     */
+    void digest(final String step, final String digest) {
+        node.get(STEPS, step).set(digest);
+    }
+
+    /**
+     * The names of the files copied to the deployments directory.
+     *
+     * @return the file names
+     */
+    List<String> deployments() {
+        if (!node.hasDefined(DEPLOYMENTS)) {
+            return List.of();
+        }
+        return node.get(DEPLOYMENTS).asList().stream()
+                .map(ModelNode::asString)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Records the names of the files copied to the deployments directory.
+     *
+     * @param deployments the file names
+     */
+    void deployments(final List<String> deployments) {
+        final ModelNode list = node.get(DEPLOYMENTS).setEmptyList();
+        deployments.forEach(list::add);
+    }
+
+    /**
+     * Adds the relative paths and the content digests of the file, or of the files in the directory, to the inputs.
+     * Files which do not exist are added as missing.
+     *
+     * @param inputs the inputs to add to
+     * @param path   the file or directory
+     *
+     * @throws IOException if the files cannot be read
+     */
+    static void addFiles(final List<String> inputs, final Path path) throws IOException {
+        inputs.add(path.toString());
+        if (Files.notExists(path)) {
+            inputs.add("missing");
+            return;
+        }
+        final List<Path> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(path)) {
+            paths.filter(Files::isRegularFile).sorted().forEach(files::add);
+        }
+        for (Path file : files) {
+            inputs.add(path.relativize(file) + "=" + digestContent(file));
+        }
+    }
+
+    private static String digestContent(final Path file) throws IOException {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final byte[] buffer = new byte[8192];
+            try (InputStream in = Files.newInputStream(file)) {
+                int len;
+                while ((len = in.read(buffer)) > 0) {
+                    digest.update(buffer, 0, len);
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
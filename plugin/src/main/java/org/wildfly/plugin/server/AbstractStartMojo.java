@@ -9,8 +9,14 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
 
@@ -31,6 +37,7 @@ import org.jboss.galleon.universe.maven.repo.MavenRepoManager;
 import org.wildfly.core.launcher.CommandBuilder;
 import org.wildfly.core.launcher.Launcher;
 import org.wildfly.plugin.common.AbstractServerConnection;
+import org.wildfly.plugin.common.Environment;
 import org.wildfly.plugin.common.PropertyNames;
 import org.wildfly.plugin.common.StandardOutput;
 import org.wildfly.plugin.core.MavenRepositoriesEnricher;
@@ -102,7 +109,7 @@ public abstract class AbstractStartMojo extends AbstractServerConnection {
      * The timeout value to use when starting the server.
      */
     @Parameter(alias = "startup-timeout", defaultValue = "60", property = PropertyNames.STARTUP_TIMEOUT)
-    private long startupTimeout;
+    protected long startupTimeout;
 
     /**
      * The arguments to be passed to the server.
@@ -132,6 +139,9 @@ public abstract class AbstractStartMojo extends AbstractServerConnection {
     private Map<String, String> env;
 
     private final AtomicBoolean initialized = new AtomicBoolean();
+    private ExecutorService bootstrapExecutor;
+    private volatile boolean startAborted;
+    private volatile Process startingProcess;
 
     protected ServerManager serverManager;
     protected MavenRepoManager mavenRepoManager;
@@ -154,17 +164,33 @@ public abstract class AbstractStartMojo extends AbstractServerConnection {
         final Log log = getLog();
         init();
 
-        Path server = getServerHome();
-
-        // Determine how stdout should be consumed
+        // Create the server and close the client after the start. The process will continue running even after
+        // the maven process may have been finished
+        final ModelControllerClient client = createClient();
+        final Path server;
         try {
-            final StandardOutput out = standardOutput();
-            // Create the server and close the client after the start. The process will continue running even after
-            // the maven process may have been finished
-            final ModelControllerClient client = createClient();
+            // Checked before the server is provisioned, which may replace the server of the running process
             if (ServerManager.isRunning(client)) {
                 throw new MojoExecutionException(String.format("%s server is already running?", serverType));
             }
+            // Provisioning the server and checking the JVM do not depend on each other
+            final CompletableFuture<Path> serverHome = submitBootstrapTask(this::getServerHome);
+            final CompletableFuture<Boolean> modularJvm = submitBootstrapTask(
+                    () -> Environment.isModularJvm(javaHome == null ? null : Path.of(javaHome)));
+            server = awaitBootstrapTask(serverHome);
+            awaitBootstrapTask(modularJvm);
+        } catch (MojoExecutionException | MojoFailureException | RuntimeException e) {
+            try {
+                client.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+
+        // Determine how stdout should be consumed
+        try {
+            final StandardOutput out = standardOutput();
             final CommandBuilder commandBuilder = createCommandBuilder(server);
             log.info(String.format("%s server is starting up.", serverType));
             final Launcher launcher = Launcher.of(commandBuilder)
@@ -178,7 +204,15 @@ public abstract class AbstractStartMojo extends AbstractServerConnection {
             }
             out.getRedirect().ifPresent(launcher::redirectOutput);
 
+            if (startAborted) {
+                throw new MojoExecutionException("The server start has been aborted.");
+            }
             final Process process = launcher.launch();
+            startingProcess = process;
+            if (startAborted) {
+                process.destroyForcibly();
+                throw new MojoExecutionException("The server start has been aborted.");
+            }
             if (serverType == ServerType.DOMAIN) {
                 serverManager = ServerManager.builder().process(process).client(client).domain();
             } else {
@@ -218,6 +252,82 @@ public abstract class AbstractStartMojo extends AbstractServerConnection {
 
     protected abstract CommandBuilder createCommandBuilder(final Path jbossHome) throws MojoExecutionException;
 
+    /**
+     * Aborts a {@link #startServer(ServerType)} running in another thread. If the server process has already been
+     * launched it is destroyed, so the start fails without waiting for the startup timeout. Otherwise the process is
+     * not launched.
+     */
+    protected void abortServerStart() {
+        startAborted = true;
+        final Process process = startingProcess;
+        if (process != null) {
+            process.destroyForcibly();
+        }
+    }
+
+    /**
+     * Runs a task required to start the server, or to deploy to it, in the background. Tasks which do not depend on
+     * each other can be submitted together, so the time it takes to get the server running is the time of the slowest
+     * task instead of the time of all tasks.
+     *
+     * @param task the task to run
+     * @param <T>  the type of the result
+     *
+     * @return the result of the task, use {@link #awaitBootstrapTask(CompletableFuture)} to wait for it
+     */
+    protected synchronized <T> CompletableFuture<T> submitBootstrapTask(final Callable<T> task) {
+        if (bootstrapExecutor == null) {
+            final AtomicInteger count = new AtomicInteger();
+            bootstrapExecutor = Executors.newCachedThreadPool(r -> {
+                final Thread thread = new Thread(r, "wildfly-bootstrap-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        bootstrapExecutor.execute(() -> {
+            try {
+                result.complete(task.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Waits for a task submitted with {@link #submitBootstrapTask(Callable)} to complete.
+     *
+     * @param task the task to wait for
+     * @param <T>  the type of the result
+     *
+     * @return the result of the task
+     *
+     * @throws MojoExecutionException if the task failed or the current thread was interrupted
+     * @throws MojoFailureException   if the task failed with a {@link MojoFailureException}
+     */
+    protected static <T> T awaitBootstrapTask(final CompletableFuture<T> task)
+            throws MojoExecutionException, MojoFailureException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while waiting for the server to be prepared", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof MojoExecutionException) {
+                throw (MojoExecutionException) cause;
+            }
+            if (cause instanceof MojoFailureException) {
+                throw (MojoFailureException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new MojoExecutionException(cause.getLocalizedMessage(), cause);
+        }
+    }
+
     protected StandardOutput standardOutput() throws IOException {
         return StandardOutput.parse(null, false);
     }
@@ -0,0 +1,57 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests detecting a server running on this machine with {@link AbstractServerConnection#isLocalServer()}.
+ */
+public class AbstractServerConnectionTestCase {
+
+    @Test
+    public void testLoopback() {
+        Assertions.assertTrue(new TestConnection("localhost").isLocalServer());
+        Assertions.assertTrue(new TestConnection("127.0.0.1").isLocalServer());
+        Assertions.assertTrue(new TestConnection("::1").isLocalServer());
+    }
+
+    @Test
+    public void testUnresolvableHost() {
+        // The .invalid top level domain is reserved and never resolves
+        Assertions.assertFalse(new TestConnection("wildfly.invalid").isLocalServer());
+        Assertions.assertFalse(new TestConnection(null).isLocalServer());
+        Assertions.assertFalse(new TestConnection(" ").isLocalServer());
+    }
+
+    @Test
+    public void testRemoteAddress() {
+        // An address of the TEST-NET-1 block, which is not assigned to any machine
+        Assertions.assertFalse(new TestConnection("192.0.2.1").isLocalServer());
+    }
+
+    private static class TestConnection extends AbstractServerConnection {
+        private final String hostName;
+
+        private TestConnection(final String hostName) {
+            this.hostName = hostName;
+        }
+
+        @Override
+        public String goal() {
+            return "test";
+        }
+
+        @Override
+        protected String getManagementHostName() {
+            return hostName;
+        }
+
+        @Override
+        public void execute() {
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.deployment;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.dmr.ModelNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.wildfly.plugin.tools.Deployment;
+import org.wildfly.plugin.tools.DeploymentManager;
+import org.wildfly.plugin.tools.DeploymentResult;
+
+/**
+ * Tests creating managed and unmanaged deployments with {@link AbstractDeployment#createDeployment()}.
+ */
+public class AbstractDeploymentTestCase {
+
+    @TempDir
+    private Path dir;
+
+    private File archive;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        archive = Files.writeString(dir.resolve("example.war"), "war").toFile();
+    }
+
+    @Test
+    public void testManaged() throws Exception {
+        final ModelNode content = deployedContent(new TestDeployment("localhost", archive, false).createDeployment());
+        Assertions.assertTrue(content.hasDefined("input-stream-index"), content.toString());
+        Assertions.assertFalse(content.hasDefined("path"), content.toString());
+    }
+
+    @Test
+    public void testUnmanagedLocalServer() throws Exception {
+        final ModelNode content = deployedContent(new TestDeployment("localhost", archive, true).createDeployment());
+        Assertions.assertEquals(archive.getAbsolutePath(), content.get("path").asString());
+        Assertions.assertFalse(content.hasDefined("input-stream-index"), content.toString());
+    }
+
+    @Test
+    public void testUnmanagedRemoteServer() throws Exception {
+        // The content of an unmanaged deployment cannot be read by a server on another machine, it is uploaded
+        final ModelNode content = deployedContent(new TestDeployment("192.0.2.1", archive, true).createDeployment());
+        Assertions.assertTrue(content.hasDefined("input-stream-index"), content.toString());
+        Assertions.assertFalse(content.hasDefined("path"), content.toString());
+    }
+
+    /**
+     * Deploys the deployment to a client which records the operation and returns the content of the deployment.
+     */
+    private static ModelNode deployedContent(final Deployment deployment) throws Exception {
+        final ModelNode[] executed = new ModelNode[1];
+        final ModelControllerClient client = (ModelControllerClient) Proxy.newProxyInstance(
+                AbstractDeploymentTestCase.class.getClassLoader(), new Class<?>[] { ModelControllerClient.class },
+                (proxy, method, args) -> {
+                    if ("execute".equals(method.getName())) {
+                        final ModelNode op = args[0] instanceof Operation ? ((Operation) args[0]).getOperation()
+                                : (ModelNode) args[0];
+                        if (op.hasDefined("steps")) {
+                            executed[0] = op;
+                        }
+                        final ModelNode result = new ModelNode();
+                        result.get("outcome").set("success");
+                        result.get("result").setEmptyObject();
+                        return result;
+                    }
+                    if ("close".equals(method.getName())) {
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.toString());
+                });
+        final DeploymentResult result = DeploymentManager.create(client).deploy(deployment);
+        Assertions.assertTrue(result.successful(), result.getFailureMessage());
+        Assertions.assertNotNull(executed[0], "No deployment operation was executed");
+        for (ModelNode step : executed[0].get("steps").asList()) {
+            if (step.hasDefined("content")) {
+                return step.get("content").get(0);
+            }
+        }
+        throw new AssertionError("No content in the deployment operation " + executed[0]);
+    }
+
+    private static class TestDeployment extends AbstractDeployment {
+        private final String hostName;
+        private final File file;
+
+        private TestDeployment(final String hostName, final File file, final boolean unmanaged) throws Exception {
+            this.hostName = hostName;
+            this.file = file;
+            // Set by Maven from the configuration of the goal
+            final Field field = AbstractDeployment.class.getDeclaredField("unmanaged");
+            field.setAccessible(true);
+            field.setBoolean(this, unmanaged);
+        }
+
+        @Override
+        protected File file() {
+            return file;
+        }
+
+        @Override
+        public String goal() {
+            return "deploy";
+        }
+
+        @Override
+        protected String getManagementHostName() {
+            return hostName;
+        }
+
+        @Override
+        protected DeploymentResult executeDeployment(final DeploymentManager deploymentManager,
+                final Deployment deployment) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.dev;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests handing changes from the watcher to the build worker with the {@link ChangeQueue}.
+ */
+public class ChangeQueueTestCase {
+
+    private static final WatchHandler.Result RECOMPILE = new WatchHandler.Result() {
+        @Override
+        public boolean requiresRecompile() {
+            return true;
+        }
+    };
+
+    private static final WatchHandler.Result REPACKAGE = new WatchHandler.Result() {
+        @Override
+        public boolean requiresRepackage() {
+            return true;
+        }
+    };
+
+    private final Path java = Path.of("src", "main", "java", "Foo.java");
+    private final Path html = Path.of("src", "main", "webapp", "index.html");
+
+    @Test
+    public void testMergePending() throws Exception {
+        final ChangeQueue queue = new ChangeQueue();
+        queue.offer(new ChangeSet(), 1L);
+        queue.offer(changes(ENTRY_CREATE, java, RECOMPILE), 1L);
+        queue.offer(changes(ENTRY_MODIFY, html, REPACKAGE), 2L);
+        queue.offer(changes(ENTRY_MODIFY, java, RECOMPILE), 3L);
+        final ChangeSet changes = queue.take();
+        Assertions.assertEquals(1L, queue.detected());
+        Assertions.assertEquals(2, changes.size());
+        Assertions.assertEquals(ENTRY_CREATE, changes.changes().get(java));
+        Assertions.assertTrue(changes.requiresRecompile());
+        Assertions.assertTrue(changes.requiresRepackage());
+        Assertions.assertFalse(queue.isSuperseded());
+        queue.done();
+    }
+
+    @Test
+    public void testSupersede() throws Exception {
+        final ChangeQueue queue = new ChangeQueue();
+        queue.offer(changes(ENTRY_MODIFY, java, RECOMPILE), 1L);
+        final ChangeSet building = queue.take();
+        Assertions.assertFalse(queue.isSuperseded());
+
+        // A newer change while building
+        queue.offer(changes(ENTRY_DELETE, java, RECOMPILE), 2L);
+        Assertions.assertTrue(queue.isSuperseded());
+        queue.requeue(building, queue.detected());
+
+        final ChangeSet changes = queue.take();
+        Assertions.assertFalse(queue.isSuperseded());
+        Assertions.assertEquals(1L, queue.detected());
+        // The newer change takes precedence
+        Assertions.assertEquals(ENTRY_DELETE, changes.changes().get(java));
+        Assertions.assertTrue(changes.hasDeletions());
+        queue.done();
+
+        // Changes after the build completed start a new cycle
+        queue.offer(changes(ENTRY_MODIFY, html, REPACKAGE), 3L);
+        Assertions.assertFalse(queue.isSuperseded());
+    }
+
+    @Test
+    public void testTakeWaits() throws Exception {
+        final ChangeQueue queue = new ChangeQueue();
+        final CompletableFuture<ChangeSet> taken = CompletableFuture.supplyAsync(() -> {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Assertions.assertFalse(taken.isDone());
+        queue.offer(changes(ENTRY_MODIFY, html, REPACKAGE), 1L);
+        Assertions.assertEquals(1, taken.get(10, TimeUnit.SECONDS).size());
+    }
+
+    private static ChangeSet changes(final WatchEvent.Kind<Path> kind, final Path file,
+            final WatchHandler.Result result) {
+        final ChangeSet changes = new ChangeSet();
+        changes.add(kind, file, result);
+        return changes;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.dev;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests merging of changes in a {@link ChangeSet}.
+ */
+public class ChangeSetTestCase {
+
+    private static final WatchHandler.Result RECOMPILE = new WatchHandler.Result() {
+        @Override
+        public boolean requiresRecompile() {
+            return true;
+        }
+    };
+
+    private static final WatchHandler.Result REDEPLOY = new WatchHandler.Result() {
+        @Override
+        public boolean requiresRedeploy() {
+            return true;
+        }
+    };
+
+    @Test
+    public void testMergeResults() {
+        final ChangeSet changes = new ChangeSet();
+        Assertions.assertTrue(changes.isEmpty());
+        changes.add(ENTRY_MODIFY, Path.of("src", "main", "java", "Foo.java"), RECOMPILE);
+        changes.add(ENTRY_MODIFY, Path.of("src", "main", "webapp", "index.html"), REDEPLOY);
+        Assertions.assertEquals(2, changes.size());
+        Assertions.assertTrue(changes.requiresRecompile());
+        Assertions.assertTrue(changes.requiresRedeploy());
+        Assertions.assertFalse(changes.requiresRepackage());
+        Assertions.assertFalse(changes.requiresCopyResources());
+    }
+
+    @Test
+    public void testDirectCopy() throws Exception {
+        final WebAppResourceHandler handler = new WebAppResourceHandler(List.of());
+        final Path css = Path.of("src", "main", "webapp", "index.css");
+        final Path xml = Path.of("src", "main", "webapp", "WEB-INF", "web.xml");
+        final ChangeSet changes = new ChangeSet();
+        changes.add(ENTRY_MODIFY, css, handler.handle(null, null, css));
+        Assertions.assertTrue(changes.requiresRepackage());
+        Assertions.assertFalse(changes.requiresRedeploy());
+        Assertions.assertTrue(changes.allowsDirectCopy());
+
+        changes.add(ENTRY_MODIFY, xml, handler.handle(null, null, xml));
+        Assertions.assertTrue(changes.requiresRedeploy());
+        Assertions.assertFalse(changes.allowsDirectCopy());
+    }
+
+    @Test
+    public void testNoDirectCopyWithReactorModule() throws Exception {
+        final WebAppResourceHandler handler = new WebAppResourceHandler(List.of());
+        final Path css = Path.of("src", "main", "webapp", "index.css");
+        final Path module = Path.of("library", "src", "main", "java", "Foo.java");
+        final ChangeSet changes = new ChangeSet();
+        changes.add(ENTRY_MODIFY, css, handler.handle(null, null, css));
+        changes.add(ENTRY_MODIFY, module, new ReactorModuleHandler().handle(null, null, module));
+        Assertions.assertTrue(changes.requiresModuleRebuild());
+        Assertions.assertTrue(changes.requiresRedeploy());
+        Assertions.assertFalse(changes.allowsDirectCopy());
+
+        // The same once the changes are merged into another set
+        final ChangeSet merged = new ChangeSet();
+        merged.add(ENTRY_MODIFY, css, handler.handle(null, null, css));
+        merged.addAll(changes);
+        Assertions.assertFalse(merged.allowsDirectCopy());
+    }
+
+    @Test
+    public void testMergeKinds() {
+        final Path created = Path.of("Created.java");
+        final Path replaced = Path.of("Replaced.java");
+        final Path deleted = Path.of("Deleted.java");
+        final ChangeSet changes = new ChangeSet();
+        changes.add(ENTRY_CREATE, created, RECOMPILE);
+        changes.add(ENTRY_MODIFY, created, RECOMPILE);
+        changes.add(ENTRY_DELETE, replaced, RECOMPILE);
+        changes.add(ENTRY_CREATE, replaced, RECOMPILE);
+        Assertions.assertEquals(2, changes.size());
+        Assertions.assertEquals(ENTRY_CREATE, changes.changes().get(created));
+        Assertions.assertEquals(ENTRY_CREATE, changes.changes().get(replaced));
+        Assertions.assertFalse(changes.hasDeletions());
+
+        changes.add(ENTRY_MODIFY, deleted, RECOMPILE);
+        changes.add(ENTRY_DELETE, deleted, RECOMPILE);
+        Assertions.assertEquals(ENTRY_DELETE, changes.changes().get(deleted));
+        Assertions.assertTrue(changes.hasDeletions());
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.dev;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests reading the structure of class files with {@link ClassFileInfo}.
+ */
+public class ClassFileInfoTestCase {
+
+    private static final String ORIGINAL = "package org.example;\n" +
+            "public class Greeter {\n" +
+            "    private final String name = \"test\";\n" +
+            "    @Deprecated\n" +
+            "    public String greet() { return \"Hello \" + name; }\n" +
+            "}";
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    public void testMethodBodyChange() throws Exception {
+        final ClassFileInfo original = compile("original", ORIGINAL);
+        final ClassFileInfo changed = compile("changed", ORIGINAL.replace("\"Hello \" + name", "name.toUpperCase()"));
+        Assertions.assertEquals("org.example.Greeter", original.binaryName());
+        Assertions.assertTrue(original.hasSameStructure(changed));
+    }
+
+    @Test
+    public void testStructureChange() throws Exception {
+        final ClassFileInfo original = compile("original", ORIGINAL);
+        final ClassFileInfo newMethod = compile("method",
+                ORIGINAL.replace("\n}", "\n    public String other() { return name; }\n}"));
+        Assertions.assertFalse(original.hasSameStructure(newMethod));
+
+        final ClassFileInfo newAnnotation = compile("annotation",
+                ORIGINAL.replace("@Deprecated", "@Deprecated(since = \"1.0\")"));
+        Assertions.assertFalse(original.hasSameStructure(newAnnotation));
+
+        final ClassFileInfo newConstant = compile("constant", ORIGINAL.replace("\"test\"", "\"other\""));
+        Assertions.assertFalse(original.hasSameStructure(newConstant));
+    }
+
+    @Test
+    public void testReferencedPackages() throws Exception {
+        final ClassFileInfo original = compile("original", ORIGINAL);
+        Assertions.assertTrue(original.referencedPackages().contains("java/lang"));
+        Assertions.assertFalse(original.referencedPackages().contains("java/util/concurrent"));
+
+        final ClassFileInfo changed = compile("changed", ORIGINAL.replace("\"Hello \" + name",
+                "new java.util.concurrent.atomic.AtomicReference<>(name).get()"));
+        Assertions.assertTrue(original.hasSameStructure(changed));
+        Assertions.assertTrue(changed.referencedPackages().contains("java/util/concurrent/atomic"));
+    }
+
+    @Test
+    public void testModuleInfo() throws Exception {
+        final Path sourceDir = Files.createDirectories(dir.resolve("module").resolve("src"));
+        final Path outputDir = Files.createDirectories(dir.resolve("module").resolve("classes"));
+        final Path greeter = Files.writeString(Files.createDirectories(sourceDir.resolve("org/example"))
+                .resolve("Greeter.java"), ORIGINAL);
+        final Path moduleInfo = Files.writeString(sourceDir.resolve("module-info.java"),
+                "module org.example.greeter { exports org.example; uses java.lang.Runnable; }");
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assertions.assertEquals(0, compiler.run(null, null, null, "-d", outputDir.toString(), greeter.toString(),
+                moduleInfo.toString()));
+        final ClassFileInfo info = ClassFileInfo.read(outputDir.resolve("module-info.class"));
+        // The module and the exported package are not classes
+        Assertions.assertEquals(Set.of("java/lang/Runnable"), info.referencedClasses());
+        Assertions.assertEquals(Set.of("java/lang"), info.referencedPackages());
+    }
+
+    private ClassFileInfo compile(final String name, final String source) throws IOException {
+        final Path sourceDir = Files.createDirectories(dir.resolve(name).resolve("src"));
+        final Path outputDir = Files.createDirectories(dir.resolve(name).resolve("classes"));
+        final Path sourceFile = Files.writeString(sourceDir.resolve("Greeter.java"), source);
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assertions.assertEquals(0, compiler.run(null, null, null, "-d", outputDir.toString(), sourceFile.toString()));
+        return ClassFileInfo.read(outputDir.resolve("org").resolve("example").resolve("Greeter.class"));
+    }
+}
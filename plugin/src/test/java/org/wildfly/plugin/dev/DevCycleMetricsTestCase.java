@@ -0,0 +1,112 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.dev;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.jboss.dmr.ModelNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests recording the dev mode cycle times with the {@link DevCycleMetrics}.
+ */
+public class DevCycleMetricsTestCase {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    public void testHistogram() {
+        final DevCycleMetrics.LatencyHistogram histogram = new DevCycleMetrics.LatencyHistogram();
+        Assertions.assertEquals(0L, histogram.percentile(50));
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        Assertions.assertEquals(1000L, histogram.count());
+        assertWithin(500_000L, histogram.percentile(50));
+        assertWithin(990_000L, histogram.percentile(99));
+        Assertions.assertEquals(1_000_000L, histogram.percentile(100));
+
+        // Small values are exact
+        final DevCycleMetrics.LatencyHistogram small = new DevCycleMetrics.LatencyHistogram();
+        small.record(3L);
+        small.record(7L);
+        Assertions.assertEquals(3L, small.percentile(50));
+        Assertions.assertEquals(7L, small.percentile(100));
+
+        final DevCycleMetrics.LatencyHistogram large = new DevCycleMetrics.LatencyHistogram();
+        large.record(Long.MAX_VALUE);
+        Assertions.assertEquals(Long.MAX_VALUE, large.percentile(50));
+    }
+
+    @Test
+    public void testCycles() throws Exception {
+        final DevCycleMetrics metrics = new DevCycleMetrics();
+        metrics.enter(DevCycleMetrics.Stage.COMPILE);
+        Assertions.assertNull(metrics.complete(true));
+
+        metrics.begin(System.nanoTime());
+        metrics.discard();
+        Assertions.assertNull(metrics.complete(true));
+        Assertions.assertEquals(0, metrics.cycles());
+
+        metrics.begin(System.nanoTime() - 5_000_000L);
+        metrics.enter(DevCycleMetrics.Stage.COMPILE);
+        Thread.sleep(2L);
+        metrics.enter(DevCycleMetrics.Stage.DEPLOY);
+        final String summary = metrics.complete(true);
+        Assertions.assertTrue(summary.startsWith("Changes deployed in "), summary);
+        Assertions.assertTrue(summary.contains("detect "), summary);
+        Assertions.assertTrue(summary.contains("compile "), summary);
+        Assertions.assertFalse(summary.contains("hot-swap"), summary);
+
+        metrics.begin(System.nanoTime());
+        metrics.enter(DevCycleMetrics.Stage.PACKAGE);
+        Assertions.assertTrue(metrics.complete(false).startsWith("Failed to deploy changes"));
+        Assertions.assertEquals(2, metrics.cycles());
+        Assertions.assertEquals(1L, metrics.latency().count());
+
+        final Path file = dir.resolve("target/metrics.json");
+        metrics.write(file);
+        final ModelNode json = ModelNode.fromJSONString(Files.readString(file));
+        Assertions.assertEquals(2, json.get("cycles").asInt());
+        Assertions.assertEquals(1, json.get("failures").asInt());
+        Assertions.assertEquals(1L, json.get("latency", "count").asLong());
+        Assertions.assertTrue(json.get("latency", "min-ms").asDouble() >= 5.0);
+        Assertions.assertEquals(2L, json.get("stages", "detect", "count").asLong());
+        Assertions.assertEquals(1L, json.get("stages", "compile", "count").asLong());
+        Assertions.assertFalse(json.get("stages").hasDefined("hot-swap"));
+    }
+
+    @Test
+    public void testWrittenAfterEachCycle() throws Exception {
+        final Path file = dir.resolve("target/wildfly-dev-metrics.json");
+        final DevCycleMetrics metrics = new DevCycleMetrics(file, new SystemStreamLog());
+        metrics.begin(System.nanoTime());
+        metrics.discard();
+        Assertions.assertTrue(Files.notExists(file));
+
+        metrics.begin(System.nanoTime());
+        metrics.enter(DevCycleMetrics.Stage.COMPILE);
+        metrics.complete(true);
+        Assertions.assertTrue(Files.exists(file));
+        Assertions.assertEquals(1, ModelNode.fromJSONString(Files.readString(file)).get("cycles").asInt());
+
+        metrics.begin(System.nanoTime());
+        metrics.complete(false);
+        final ModelNode json = ModelNode.fromJSONString(Files.readString(file));
+        Assertions.assertEquals(2, json.get("cycles").asInt());
+        Assertions.assertEquals(1, json.get("failures").asInt());
+    }
+
+    private static void assertWithin(final long expected, final long actual) {
+        Assertions.assertTrue(Math.abs(expected - actual) <= expected * 0.07,
+                String.format("Expected %d to be within 7%% of %d", actual, expected));
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.dev;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests writing and reading the state of a detached dev mode session with the {@link DevSession}.
+ */
+public class DevSessionTestCase {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        final Path sources = Files.createDirectories(dir.resolve("src/main/java"));
+        final Path unchanged = Files.writeString(sources.resolve("Unchanged.java"), "class Unchanged {}");
+        final Path changed = Files.writeString(sources.resolve("Changed.java"), "class Changed {}");
+        final FileDigestCache digests = new FileDigestCache();
+        digests.seed(sources);
+
+        final Path jbossHome = dir.resolve("server");
+        final Path file = dir.resolve("target/wildfly-dev-session.json");
+        new DevSession(ProcessHandle.current().pid(), "localhost", 9990, jbossHome, "app.war", digests.toModelNode(),
+                Set.of("ejb-lite"), Set.of()).write(file);
+
+        final DevSession session = DevSession.read(file);
+        Assertions.assertNotNull(session);
+        Assertions.assertTrue(session.isServerAlive());
+        Assertions.assertTrue(session.matches("localhost", 9990, jbossHome, "app.war"));
+        Assertions.assertFalse(session.matches("localhost", 10090, jbossHome, "app.war"));
+        Assertions.assertFalse(session.matches("localhost", 9990, jbossHome, "other.war"));
+        Assertions.assertEquals(Set.of("ejb-lite"), session.decorators());
+        Assertions.assertEquals(Set.of(), session.excludedLayers());
+
+        // The loaded digests detect the changes made since the session was written
+        Files.writeString(changed, "class Changed { int x; }");
+        final FileDigestCache loaded = new FileDigestCache();
+        loaded.load(session.digests());
+        Assertions.assertFalse(loaded.hasChanged(unchanged));
+        Assertions.assertTrue(loaded.hasChanged(changed));
+    }
+
+    @Test
+    public void testNotScanned() throws Exception {
+        final Path file = dir.resolve("wildfly-dev-session.json");
+        new DevSession(1L, "localhost", 9990, dir, "app.war", new FileDigestCache().toModelNode(), null, null)
+                .write(file);
+        final DevSession session = DevSession.read(file);
+        Assertions.assertNotNull(session);
+        Assertions.assertNull(session.decorators());
+        Assertions.assertNull(session.excludedLayers());
+    }
+
+    @Test
+    public void testInvalid() throws Exception {
+        Assertions.assertNull(DevSession.read(dir.resolve("missing.json")));
+        Assertions.assertNull(DevSession.read(Files.writeString(dir.resolve("invalid.json"), "{ \"pid\" : ")));
+    }
+}
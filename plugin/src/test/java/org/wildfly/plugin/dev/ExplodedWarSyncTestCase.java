@@ -0,0 +1,125 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.dev;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the incremental synchronization of an exploded WAR.
+ */
+public class ExplodedWarSyncTestCase {
+
+    @TempDir
+    private Path baseDir;
+
+    private MavenProject project;
+    private Path webappSource;
+    private Path classes;
+    private Path exploded;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        webappSource = Files.createDirectories(baseDir.resolve("src/main/webapp"));
+        classes = Files.createDirectories(baseDir.resolve("target/classes"));
+        exploded = Files.createDirectories(baseDir.resolve("target/test.war"));
+        project = new MavenProject();
+        project.setFile(baseDir.resolve("pom.xml").toFile());
+        final Build build = new Build();
+        build.setDirectory(baseDir.resolve("target").toString());
+        build.setOutputDirectory(classes.toString());
+        project.setBuild(build);
+        project.setArtifacts(Set.of());
+    }
+
+    @Test
+    public void testSync() throws Exception {
+        Files.writeString(webappSource.resolve("index.html"), "<html/>");
+        Files.createDirectories(classes.resolve("org/example"));
+        Files.writeString(classes.resolve("org/example/Test.class"), "test");
+        final ExplodedWarSync sync = ExplodedWarSync.create(project, null, webappSource, exploded,
+                new SystemStreamLog());
+        Assertions.assertNotNull(sync);
+        sync.sync();
+        Assertions.assertEquals("<html/>", Files.readString(exploded.resolve("index.html")));
+        Assertions.assertEquals("test", Files.readString(exploded.resolve("WEB-INF/classes/org/example/Test.class")));
+
+        // Update a file, delete a file and add a new file
+        Files.writeString(webappSource.resolve("index.html"), "<html>changed</html>");
+        Files.delete(classes.resolve("org/example/Test.class"));
+        Files.writeString(classes.resolve("org/example/Other.class"), "other");
+        sync.sync();
+        Assertions.assertEquals("<html>changed</html>", Files.readString(exploded.resolve("index.html")));
+        Assertions.assertTrue(Files.notExists(exploded.resolve("WEB-INF/classes/org/example/Test.class")));
+        Assertions.assertEquals("other", Files.readString(exploded.resolve("WEB-INF/classes/org/example/Other.class")));
+    }
+
+    @Test
+    public void testExcludes() throws Exception {
+        Files.writeString(webappSource.resolve("index.html"), "<html/>");
+        Files.writeString(webappSource.resolve("notes.txt"), "excluded");
+        final Xpp3Dom config = new Xpp3Dom("configuration");
+        final Xpp3Dom excludes = new Xpp3Dom("warSourceExcludes");
+        excludes.setValue("*.txt");
+        config.addChild(excludes);
+        final ExplodedWarSync sync = ExplodedWarSync.create(project, config, webappSource, exploded,
+                new SystemStreamLog());
+        Assertions.assertNotNull(sync);
+        sync.sync();
+        Assertions.assertTrue(Files.exists(exploded.resolve("index.html")));
+        Assertions.assertTrue(Files.notExists(exploded.resolve("notes.txt")));
+    }
+
+    @Test
+    public void testCopy() throws Exception {
+        final Path webResources = Files.createDirectories(baseDir.resolve("src/main/resources-web"));
+        Files.writeString(webResources.resolve("overridden.css"), "web-resource");
+        Files.writeString(webappSource.resolve("overridden.css"), "webapp");
+        Files.writeString(webappSource.resolve("notes.txt"), "excluded");
+        final Path css = Files.writeString(webappSource.resolve("index.css"), "body {}");
+        final Xpp3Dom config = new Xpp3Dom("configuration");
+        final Xpp3Dom excludes = new Xpp3Dom("warSourceExcludes");
+        excludes.setValue("*.txt");
+        config.addChild(excludes);
+        final Xpp3Dom resources = new Xpp3Dom("webResources");
+        final Xpp3Dom resource = new Xpp3Dom("resource");
+        final Xpp3Dom directory = new Xpp3Dom("directory");
+        directory.setValue("src/main/resources-web");
+        resource.addChild(directory);
+        resources.addChild(resource);
+        config.addChild(resources);
+        final ExplodedWarSync sync = ExplodedWarSync.create(project, config, webappSource, exploded,
+                new SystemStreamLog());
+        Assertions.assertNotNull(sync);
+        sync.sync();
+
+        Files.writeString(css, "body { margin: 0; }");
+        Files.writeString(webappSource.resolve("overridden.css"), "webapp changed");
+        Files.writeString(webappSource.resolve("notes.txt"), "changed");
+        Assertions.assertEquals(1, sync.copy(List.of(css, webappSource.resolve("overridden.css"),
+                webappSource.resolve("notes.txt"))));
+        Assertions.assertEquals("body { margin: 0; }", Files.readString(exploded.resolve("index.css")));
+        Assertions.assertEquals("web-resource", Files.readString(exploded.resolve("overridden.css")));
+        Assertions.assertTrue(Files.notExists(exploded.resolve("notes.txt")));
+    }
+
+    @Test
+    public void testUnsupportedConfiguration() {
+        final Xpp3Dom config = new Xpp3Dom("configuration");
+        config.addChild(new Xpp3Dom("overlays"));
+        Assertions.assertNull(ExplodedWarSync.create(project, config, webappSource, exploded, new SystemStreamLog()));
+    }
+}
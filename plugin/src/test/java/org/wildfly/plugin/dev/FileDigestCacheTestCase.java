@@ -0,0 +1,84 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.dev;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests detecting content changes with the {@link FileDigestCache}.
+ */
+public class FileDigestCacheTestCase {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    public void testHasChanged() throws Exception {
+        final Path file = Files.writeString(dir.resolve("index.html"), "<html/>");
+        final FileDigestCache cache = new FileDigestCache();
+        cache.seed(dir);
+        Assertions.assertFalse(cache.hasChanged(file));
+
+        // Only the last modified time changes
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10_000L));
+        Assertions.assertFalse(cache.hasChanged(file));
+
+        // Rewrite the same content
+        Files.writeString(file, "<html/>");
+        Assertions.assertFalse(cache.hasChanged(file));
+
+        Files.writeString(file, "<html>changed</html>");
+        Assertions.assertTrue(cache.hasChanged(file));
+        Assertions.assertFalse(cache.hasChanged(file));
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        final Path classes = Files.createDirectories(dir.resolve("classes/org/example"));
+        final Path foo = Files.write(classes.resolve("Foo.class"), new byte[] { 1, 2, 3 });
+        Files.write(classes.resolve("Bar.class"), new byte[] { 4, 5, 6 });
+        final FileDigestCache cache = new FileDigestCache();
+        cache.seed(dir.resolve("classes"));
+        Assertions.assertFalse(cache.update(dir.resolve("classes")));
+
+        // The class is compiled again to the same bytes
+        Files.delete(foo);
+        Files.write(foo, new byte[] { 1, 2, 3 });
+        Files.setLastModifiedTime(foo, FileTime.fromMillis(System.currentTimeMillis() + 10_000L));
+        Assertions.assertFalse(cache.update(dir.resolve("classes")));
+
+        Files.write(foo, new byte[] { 1, 2, 4 });
+        Assertions.assertTrue(cache.update(dir.resolve("classes")));
+        Assertions.assertFalse(cache.update(dir.resolve("classes")));
+
+        Files.write(classes.resolve("Foo$1.class"), new byte[] { 7 });
+        Assertions.assertTrue(cache.update(dir.resolve("classes")));
+
+        Files.delete(classes.resolve("Bar.class"));
+        Assertions.assertTrue(cache.update(dir.resolve("classes")));
+        Assertions.assertFalse(cache.update(dir.resolve("classes")));
+
+        cache.clear();
+        Assertions.assertTrue(cache.update(dir.resolve("classes")));
+    }
+
+    @Test
+    public void testUnknownFile() throws Exception {
+        final FileDigestCache cache = new FileDigestCache();
+        final Path file = Files.writeString(dir.resolve("new.txt"), "new");
+        Assertions.assertTrue(cache.hasChanged(file));
+        Assertions.assertFalse(cache.hasChanged(file));
+
+        cache.remove(file);
+        Assertions.assertTrue(cache.hasChanged(file));
+        Assertions.assertTrue(cache.hasChanged(dir));
+    }
+}
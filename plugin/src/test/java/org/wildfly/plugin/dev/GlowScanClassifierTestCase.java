@@ -0,0 +1,91 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.dev;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests detecting layer relevant changes with the {@link GlowScanClassifier}.
+ */
+public class GlowScanClassifierTestCase {
+
+    private static final String SOURCE = "package org.example;\n" +
+            "public class Greeter {\n" +
+            "    public String greet() { return \"Hello\"; }\n" +
+            "}";
+
+    @TempDir
+    private Path dir;
+
+    private Path deployment;
+    private Path sourceFile;
+    private long lastModified;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        deployment = Files.createDirectories(dir.resolve("target/test.war"));
+        Files.createDirectories(deployment.resolve("WEB-INF/lib"));
+        Files.writeString(deployment.resolve("index.css"), "body {}");
+        Files.writeString(deployment.resolve("WEB-INF/web.xml"), "<web-app/>");
+        sourceFile = Files.writeString(Files.createDirectories(dir.resolve("src")).resolve("Greeter.java"), SOURCE);
+        compile(SOURCE);
+    }
+
+    @Test
+    public void testRequiresRescan() throws Exception {
+        final GlowScanClassifier classifier = new GlowScanClassifier();
+        Assertions.assertTrue(classifier.requiresRescan(deployment));
+        Assertions.assertFalse(classifier.requiresRescan(deployment));
+
+        // Static content changes
+        Files.writeString(deployment.resolve("index.css"), "body { margin: 0; }");
+        Assertions.assertFalse(classifier.requiresRescan(deployment));
+
+        // Method body changes
+        compile(SOURCE.replace("\"Hello\"", "\"Hello World\""));
+        Assertions.assertFalse(classifier.requiresRescan(deployment));
+
+        // A new annotation
+        compile(SOURCE.replace("public class", "@Deprecated public class"));
+        Assertions.assertTrue(classifier.requiresRescan(deployment));
+
+        // A new referenced package
+        compile(SOURCE.replace("\"Hello\"", "new java.util.concurrent.atomic.AtomicInteger().toString()"));
+        Assertions.assertTrue(classifier.requiresRescan(deployment));
+
+        // Deployment descriptor changes
+        Files.writeString(deployment.resolve("WEB-INF/web.xml"), "<web-app version=\"6.0\"/>");
+        Assertions.assertTrue(classifier.requiresRescan(deployment));
+
+        // A new library
+        Files.writeString(deployment.resolve("WEB-INF/lib/test.jar"), "jar");
+        Assertions.assertTrue(classifier.requiresRescan(deployment));
+        Assertions.assertFalse(classifier.requiresRescan(deployment));
+
+        classifier.reset();
+        Assertions.assertTrue(classifier.requiresRescan(deployment));
+    }
+
+    private void compile(final String source) throws Exception {
+        Files.writeString(sourceFile, source);
+        final Path classes = deployment.resolve("WEB-INF/classes");
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assertions.assertEquals(0, compiler.run(null, null, null, "-d", classes.toString(), sourceFile.toString()));
+        // Make sure the change is seen even if the file system has a coarse timestamp resolution
+        final Path classFile = classes.resolve("org/example/Greeter.class");
+        lastModified = Math.max(lastModified + 1_000L, Files.getLastModifiedTime(classFile).toMillis());
+        Files.setLastModifiedTime(classFile, FileTime.fromMillis(lastModified));
+    }
+}
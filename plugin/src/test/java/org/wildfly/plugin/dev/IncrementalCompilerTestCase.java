@@ -0,0 +1,130 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.dev;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests compiling sources with the {@link IncrementalCompiler}.
+ */
+public class IncrementalCompilerTestCase {
+
+    private static final String GREETER = "package org.example;\n" +
+            "public class Greeter {\n" +
+            "    public String greet(String name) { return \"Hello \" + name; }\n" +
+            "}";
+
+    private static final String CLIENT = "package org.example;\n" +
+            "public class Client {\n" +
+            "    public String call() { return new Greeter().greet(\"test\"); }\n" +
+            "}";
+
+    @TempDir
+    private Path baseDir;
+
+    private Path sourceDir;
+    private Path outputDir;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        sourceDir = Files.createDirectories(baseDir.resolve("src/main/java/org/example"));
+        outputDir = baseDir.resolve("target/classes");
+        Files.writeString(sourceDir.resolve("Greeter.java"), GREETER);
+        Files.writeString(sourceDir.resolve("Client.java"), CLIENT);
+    }
+
+    @Test
+    public void testMethodBodyChange() throws Exception {
+        try (IncrementalCompiler compiler = create()) {
+            compiler.compileAll();
+            final Path client = outputDir.resolve("org/example/Client.class");
+            Assertions.assertTrue(Files.exists(client));
+            final FileTime lastModified = FileTime.fromMillis(0L);
+            Files.setLastModifiedTime(client, lastModified);
+
+            // Only the changed source should be compiled
+            final Path greeter = Files.writeString(sourceDir.resolve("Greeter.java"),
+                    GREETER.replace("\"Hello \" + name", "name"));
+            compiler.compile(List.of(greeter), List.of());
+            Assertions.assertEquals(lastModified, Files.getLastModifiedTime(client));
+        }
+    }
+
+    @Test
+    public void testSignatureChange() throws Exception {
+        try (IncrementalCompiler compiler = create()) {
+            compiler.compileAll();
+            // The dependent source no longer compiles, which proves it was compiled again
+            final Path greeter = Files.writeString(sourceDir.resolve("Greeter.java"),
+                    GREETER.replace("greet(", "welcome("));
+            Assertions.assertThrows(MojoExecutionException.class, () -> compiler.compile(List.of(greeter), List.of()));
+        }
+    }
+
+    @Test
+    public void testDeletedSource() throws Exception {
+        Files.writeString(sourceDir.resolve("Other.java"), "package org.example;\n" +
+                "public class Other {\n" +
+                "    private final Runnable task = () -> { };\n" +
+                "    class Inner { }\n" +
+                "}");
+        try (IncrementalCompiler compiler = create()) {
+            compiler.compileAll();
+            Assertions.assertTrue(Files.exists(outputDir.resolve("org/example/Other$Inner.class")));
+            final Path other = sourceDir.resolve("Other.java");
+            Files.delete(other);
+            compiler.compile(List.of(), List.of(other));
+            Assertions.assertTrue(Files.notExists(outputDir.resolve("org/example/Other.class")));
+            Assertions.assertTrue(Files.notExists(outputDir.resolve("org/example/Other$Inner.class")));
+            Assertions.assertTrue(Files.exists(outputDir.resolve("org/example/Client.class")));
+        }
+    }
+
+    @Test
+    public void testFailureKeepsPreviousClasses() throws Exception {
+        try (IncrementalCompiler compiler = create()) {
+            compiler.compileAll();
+            final Path greeterClass = outputDir.resolve("org/example/Greeter.class");
+            final Path clientClass = outputDir.resolve("org/example/Client.class");
+            final byte[] greeterBytes = Files.readAllBytes(greeterClass);
+            final byte[] clientBytes = Files.readAllBytes(clientClass);
+
+            // The changed source compiles, the dependent source does not
+            final Path greeter = Files.writeString(sourceDir.resolve("Greeter.java"),
+                    GREETER.replace("greet(", "welcome("));
+            Assertions.assertThrows(MojoExecutionException.class, () -> compiler.compile(List.of(greeter), List.of()));
+            Assertions.assertArrayEquals(greeterBytes, Files.readAllBytes(greeterClass));
+            Assertions.assertArrayEquals(clientBytes, Files.readAllBytes(clientClass));
+
+            // The index is rebuilt, so fixing the source compiles the dependent source again
+            Files.writeString(sourceDir.resolve("Greeter.java"), GREETER.replace("greet(String name)",
+                    "greet(String name, String greeting)").replace("\"Hello \"", "greeting"));
+            Assertions.assertThrows(MojoExecutionException.class, () -> compiler.compile(List.of(greeter), List.of()));
+            Files.writeString(sourceDir.resolve("Greeter.java"), GREETER);
+            compiler.compile(List.of(greeter), List.of());
+            Assertions.assertTrue(Files.exists(greeterClass));
+            Assertions.assertTrue(Files.exists(clientClass));
+        }
+    }
+
+    private IncrementalCompiler create() throws Exception {
+        final IncrementalCompiler compiler = IncrementalCompiler.create(new SystemStreamLog(),
+                new Xpp3Dom("configuration"), List.of(baseDir.resolve("src/main/java")), List.of(), List.of(),
+                outputDir, baseDir.resolve("target/generated-sources/annotations"));
+        Assertions.assertNotNull(compiler);
+        return compiler;
+    }
+}
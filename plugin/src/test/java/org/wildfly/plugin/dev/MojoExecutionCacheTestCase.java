@@ -0,0 +1,164 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.dev;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.BuildPluginManager;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.configuration.xml.XmlPlexusConfiguration;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests reusing prepared goal executions with the {@link MojoExecutionCache}.
+ */
+public class MojoExecutionCacheTestCase {
+
+    @TempDir
+    private Path dir;
+
+    private final AtomicInteger descriptorLookups = new AtomicInteger();
+    private final List<MavenSession> executedSessions = new ArrayList<>();
+    private final List<MojoExecution> executions = new ArrayList<>();
+    private MavenSession session;
+    private MavenProject project;
+    private Path pom;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        pom = Files.writeString(dir.resolve("pom.xml"), "<project/>");
+        project = new MavenProject();
+        project.setGroupId("org.example");
+        project.setArtifactId("app");
+        project.setVersion("1.0");
+        project.setFile(pom.toFile());
+        session = createSession(project);
+    }
+
+    @Test
+    public void testReuse() throws Exception {
+        final MojoExecutionCache cache = new MojoExecutionCache(createPluginManager(), session);
+        final Plugin plugin = plugin("maven-compiler-plugin");
+        final AtomicInteger configurations = new AtomicInteger();
+        final MojoExecutionCache.ConfigurationFactory factory = () -> {
+            configurations.incrementAndGet();
+            final Xpp3Dom config = new Xpp3Dom("configuration");
+            final Xpp3Dom release = new Xpp3Dom("release");
+            release.setValue("17");
+            config.addChild(release);
+            return config;
+        };
+        cache.prepare(project, plugin, "compile", factory);
+        cache.execute(project, plugin, "compile", factory);
+        cache.execute(project, plugin, "compile", factory);
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertEquals(1, descriptorLookups.get());
+        Assertions.assertEquals(1, configurations.get());
+        Assertions.assertEquals(2, executions.size());
+        Assertions.assertSame(executions.get(0), executions.get(1));
+        // The configuration is merged with the defaults of the goal
+        final Xpp3Dom config = executions.get(0).getConfiguration();
+        Assertions.assertEquals("17", config.getChild("release").getValue());
+        Assertions.assertEquals("${project.build.outputDirectory}", config.getChild("outputDirectory").getValue());
+        Assertions.assertSame(session, executedSessions.get(0));
+
+        // The POM did not change
+        Assertions.assertTrue(cache.invalidateIfChanged().isEmpty());
+        Assertions.assertEquals(1, cache.size());
+
+        Files.setLastModifiedTime(pom, FileTime.fromMillis(Files.getLastModifiedTime(pom).toMillis() + 10_000L));
+        Assertions.assertEquals(List.of(pom), List.copyOf(cache.invalidateIfChanged()));
+        Assertions.assertEquals(0, cache.size());
+        cache.execute(project, plugin, "compile", factory);
+        Assertions.assertEquals(2, descriptorLookups.get());
+        Assertions.assertEquals(2, configurations.get());
+    }
+
+    @Test
+    public void testOtherProject() throws Exception {
+        final MojoExecutionCache cache = new MojoExecutionCache(createPluginManager(), session);
+        final MavenProject module = new MavenProject();
+        module.setGroupId("org.example");
+        module.setArtifactId("library");
+        module.setVersion("1.0");
+        final Plugin plugin = plugin("maven-resources-plugin");
+        cache.execute(module, plugin, "resources", () -> new Xpp3Dom("configuration"));
+        cache.execute(project, plugin, "resources", () -> new Xpp3Dom("configuration"));
+        Assertions.assertEquals(2, cache.size());
+        // The goal of the module is executed with the module as the current project
+        Assertions.assertSame(module, executedSessions.get(0).getCurrentProject());
+        Assertions.assertSame(project, executedSessions.get(1).getCurrentProject());
+        Assertions.assertSame(project, session.getCurrentProject());
+    }
+
+    private BuildPluginManager createPluginManager() {
+        return (BuildPluginManager) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { BuildPluginManager.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getMojoDescriptor":
+                            descriptorLookups.incrementAndGet();
+                            return descriptor((Plugin) args[0], (String) args[1]);
+                        case "getPluginRealm":
+                            return null;
+                        case "executeMojo":
+                            executedSessions.add((MavenSession) args[0]);
+                            executions.add((MojoExecution) args[1]);
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.toString());
+                    }
+                });
+    }
+
+    private static MojoDescriptor descriptor(final Plugin plugin, final String goal) {
+        final PluginDescriptor pluginDescriptor = new PluginDescriptor();
+        pluginDescriptor.setGroupId(plugin.getGroupId());
+        pluginDescriptor.setArtifactId(plugin.getArtifactId());
+        pluginDescriptor.setVersion(plugin.getVersion());
+        final MojoDescriptor descriptor = new MojoDescriptor();
+        descriptor.setGoal(goal);
+        descriptor.setPluginDescriptor(pluginDescriptor);
+        final XmlPlexusConfiguration config = new XmlPlexusConfiguration("configuration");
+        final XmlPlexusConfiguration outputDirectory = new XmlPlexusConfiguration("outputDirectory");
+        outputDirectory.setValue("${project.build.outputDirectory}");
+        config.addChild(outputDirectory);
+        descriptor.setMojoConfiguration(config);
+        return descriptor;
+    }
+
+    private static Plugin plugin(final String artifactId) {
+        final Plugin plugin = new Plugin();
+        plugin.setGroupId("org.apache.maven.plugins");
+        plugin.setArtifactId(artifactId);
+        plugin.setVersion("1.0");
+        return plugin;
+    }
+
+    // All the constructors of the MavenSession are deprecated, Maven creates the session the same way
+    @SuppressWarnings("deprecation")
+    private static MavenSession createSession(final MavenProject project) {
+        final MavenSession session = new MavenSession(null, null, new DefaultMavenExecutionRequest(),
+                new DefaultMavenExecutionResult());
+        session.setCurrentProject(project);
+        return session;
+    }
+}
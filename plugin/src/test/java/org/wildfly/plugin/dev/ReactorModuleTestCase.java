@@ -0,0 +1,108 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.dev;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarFile;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Resource;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests finding and packaging the {@link ReactorModule reactor modules} of a deployment.
+ */
+public class ReactorModuleTestCase {
+
+    @TempDir
+    private Path baseDir;
+
+    private MavenProject war;
+    private MavenProject library;
+    private Artifact artifact;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        library = createProject("library", "jar");
+        library.addCompileSourceRoot(Files.createDirectories(baseDir.resolve("library/src/main/java")).toString());
+        library.addCompileSourceRoot(baseDir.resolve("library/target/generated-sources/annotations").toString());
+        final Resource resource = new Resource();
+        resource.setDirectory(baseDir.resolve("library/src/main/resources").toString());
+        library.addResource(resource);
+        war = createProject("app", "war");
+        artifact = new DefaultArtifact("org.example", "library", "1.0", Artifact.SCOPE_COMPILE, "jar", null,
+                new DefaultArtifactHandler("jar"));
+        final Artifact other = new DefaultArtifact("org.example", "other", "1.0", Artifact.SCOPE_COMPILE, "jar", null,
+                new DefaultArtifactHandler("jar"));
+        final Artifact provided = new DefaultArtifact("org.example", "provided", "1.0", Artifact.SCOPE_PROVIDED, "jar",
+                null, new DefaultArtifactHandler("jar"));
+        war.setArtifacts(Set.of(artifact, other, provided));
+    }
+
+    @Test
+    public void testFind() {
+        final List<ReactorModule> modules = ReactorModule.find(war,
+                List.of(war, library, createProject("other", "pom"), createProject("provided", "jar")));
+        Assertions.assertEquals(1, modules.size());
+        final ReactorModule module = modules.get(0);
+        Assertions.assertSame(library, module.project());
+        // Generated sources are not watched
+        Assertions.assertEquals(Set.of(baseDir.resolve("library/src/main/java"),
+                baseDir.resolve("library/src/main/resources")), module.watchedDirectories());
+        Assertions.assertTrue(module.contains(baseDir.resolve("library/src/main/java/org/example/Test.java")));
+        Assertions.assertTrue(module.isResource(baseDir.resolve("library/src/main/resources/test.properties")));
+        Assertions.assertFalse(module.contains(baseDir.resolve("app/src/main/java/org/example/Test.java")));
+    }
+
+    @Test
+    public void testUpdateLibrary() throws Exception {
+        final ReactorModule module = ReactorModule.find(war, List.of(library)).get(0);
+        final Path classes = Files.createDirectories(baseDir.resolve("library/target/classes/org/example"));
+        Files.writeString(classes.resolve("Test.class"), "test");
+        final Path exploded = Files.createDirectories(baseDir.resolve("app/target/app.war"));
+
+        // No library in the exploded deployment
+        Assertions.assertFalse(module.updateLibrary(exploded));
+
+        final Path lib = Files.createDirectories(exploded.resolve("WEB-INF/lib")).resolve("library-1.0.jar");
+        Files.writeString(lib, "not a jar");
+        final Path artifactFile = baseDir.resolve("library/target/library-1.0.jar");
+        Files.writeString(artifactFile, "not a jar");
+        artifact.setFile(artifactFile.toFile());
+        Assertions.assertTrue(module.updateLibrary(exploded));
+        try (JarFile jarFile = new JarFile(lib.toFile())) {
+            Assertions.assertNotNull(jarFile.getManifest());
+            Assertions.assertNotNull(jarFile.getEntry("org/example/"));
+            Assertions.assertEquals("test",
+                    new String(jarFile.getInputStream(jarFile.getEntry("org/example/Test.class")).readAllBytes()));
+        }
+        // The artifact of the module belongs to the build of the module
+        Assertions.assertEquals("not a jar", Files.readString(artifactFile));
+    }
+
+    private MavenProject createProject(final String artifactId, final String packaging) {
+        final MavenProject project = new MavenProject();
+        project.setGroupId("org.example");
+        project.setArtifactId(artifactId);
+        project.setVersion("1.0");
+        project.setPackaging(packaging);
+        project.setFile(baseDir.resolve(artifactId).resolve("pom.xml").toFile());
+        final Build build = new Build();
+        build.setDirectory(baseDir.resolve(artifactId).resolve("target").toString());
+        build.setOutputDirectory(baseDir.resolve(artifactId).resolve("target/classes").toString());
+        project.setBuild(build);
+        return project;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.dev;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.helpers.ClientConstants;
+import org.jboss.dmr.ModelNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the operations sent to the server by the {@link RemoteContentSync}.
+ */
+public class RemoteContentSyncTestCase {
+
+    @TempDir
+    private Path dir;
+
+    private final List<Operation> operations = new ArrayList<>();
+
+    @Test
+    public void testUpdate() throws Exception {
+        final Path war = Files.createDirectories(dir.resolve("test"));
+        Files.writeString(war.resolve("index.html"), "<html/>");
+        Files.writeString(war.resolve("index.css"), "body {}");
+        Files.createDirectories(war.resolve("WEB-INF"));
+        Files.writeString(war.resolve("WEB-INF/web.xml"), "<web-app/>");
+
+        final RemoteContentSync sync = RemoteContentSync.explode(createClient(), "test.war", new SystemStreamLog());
+        Assertions.assertEquals(List.of("composite"), operationNames());
+        sync.record(war);
+        Assertions.assertEquals(0, sync.update(war));
+        Assertions.assertEquals(List.of("composite"), operationNames());
+
+        // Rewriting the same content does not send anything
+        operations.clear();
+        Files.writeString(war.resolve("index.html"), "<html/>");
+        Files.setLastModifiedTime(war.resolve("index.html"), FileTime.fromMillis(System.currentTimeMillis() + 10_000L));
+        Assertions.assertEquals(0, sync.update(war));
+        Assertions.assertTrue(operations.isEmpty());
+
+        Files.writeString(war.resolve("index.css"), "body { margin: 0; }");
+        Files.writeString(war.resolve("app.js"), "let x;");
+        Files.delete(war.resolve("WEB-INF/web.xml"));
+        Assertions.assertEquals(3, sync.update(war));
+        Assertions.assertEquals(List.of("remove-content", "add-content"), operationNames());
+
+        final ModelNode remove = operations.get(0).getOperation();
+        Assertions.assertEquals(List.of("WEB-INF/web.xml"), values(remove.get("paths")));
+        final Operation add = operations.get(1);
+        Assertions.assertEquals(2, add.getInputStreams().size());
+        Assertions.assertEquals(List.of("app.js", "index.css"),
+                add.getOperation().get("content").asList().stream()
+                        .map(n -> n.get("target-path").asString())
+                        .sorted()
+                        .collect(Collectors.toList()));
+        add.close();
+    }
+
+    @Test
+    public void testUnrecorded() throws Exception {
+        final Path war = Files.createDirectories(dir.resolve("test"));
+        Files.writeString(war.resolve("index.html"), "<html/>");
+        final RemoteContentSync sync = RemoteContentSync.explode(createClient(), "test.war", new SystemStreamLog());
+        operations.clear();
+        // Without a recorded state all files are sent
+        Assertions.assertEquals(1, sync.update(war));
+        Assertions.assertEquals(List.of("add-content"), operationNames());
+        operations.get(0).close();
+    }
+
+    private ModelControllerClient createClient() {
+        return (ModelControllerClient) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { ModelControllerClient.class }, (proxy, method, args) -> {
+                    if ("execute".equals(method.getName()) && args[0] instanceof Operation) {
+                        operations.add((Operation) args[0]);
+                        final ModelNode result = new ModelNode();
+                        result.get(ClientConstants.OUTCOME).set(ClientConstants.SUCCESS);
+                        return result;
+                    }
+                    throw new UnsupportedOperationException(method.toString());
+                });
+    }
+
+    private List<String> operationNames() {
+        return operations.stream()
+                .map(op -> op.getOperation().get(ClientConstants.OP).asString())
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> values(final ModelNode list) {
+        return list.asList().stream().map(ModelNode::asString).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.dev;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests removing the files built from deleted sources with the {@link StaleOutputRemover}.
+ */
+public class StaleOutputRemoverTestCase {
+
+    @TempDir
+    private Path baseDir;
+
+    private Path sources;
+    private Path resources;
+    private Path classes;
+    private Path webappClasses;
+    private StaleOutputRemover remover;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        sources = Files.createDirectories(baseDir.resolve("src/main/java"));
+        resources = Files.createDirectories(baseDir.resolve("src/main/resources"));
+        classes = Files.createDirectories(baseDir.resolve("target/classes"));
+        webappClasses = Files.createDirectories(baseDir.resolve("target/app/WEB-INF/classes"));
+        remover = new StaleOutputRemover(new SystemStreamLog())
+                .addSources(sources, classes, webappClasses)
+                .addFiles(resources, classes, webappClasses);
+    }
+
+    @Test
+    public void testRemoveClass() throws Exception {
+        for (Path dir : new Path[] { classes, webappClasses }) {
+            createFile(dir.resolve("org/example/Foo.class"));
+            createFile(dir.resolve("org/example/Foo$Inner.class"));
+            createFile(dir.resolve("org/example/Foo$1.class"));
+            createFile(dir.resolve("org/example/FooBar.class"));
+        }
+        Assertions.assertEquals(6, remover.remove(sources.resolve("org/example/Foo.java")));
+        for (Path dir : new Path[] { classes, webappClasses }) {
+            Assertions.assertFalse(Files.exists(dir.resolve("org/example/Foo.class")));
+            Assertions.assertFalse(Files.exists(dir.resolve("org/example/Foo$Inner.class")));
+            Assertions.assertFalse(Files.exists(dir.resolve("org/example/Foo$1.class")));
+            Assertions.assertTrue(Files.exists(dir.resolve("org/example/FooBar.class")));
+        }
+    }
+
+    @Test
+    public void testRemoveResource() throws Exception {
+        createFile(classes.resolve("META-INF/beans.xml"));
+        createFile(classes.resolve("app.properties"));
+        Assertions.assertEquals(1, remover.remove(resources.resolve("META-INF/beans.xml")));
+        Assertions.assertFalse(Files.exists(classes.resolve("META-INF/beans.xml")));
+        Assertions.assertTrue(Files.exists(classes.resolve("app.properties")));
+        // A resource is not mistaken for a source
+        Assertions.assertEquals(0, remover.remove(resources.resolve("Foo.java")));
+    }
+
+    @Test
+    public void testRemoveDirectory() throws Exception {
+        createFile(classes.resolve("org/example/api/Api.class"));
+        createFile(classes.resolve("org/example/api/impl/ApiImpl.class"));
+        createFile(classes.resolve("org/example/Foo.class"));
+        Assertions.assertEquals(4, remover.remove(sources.resolve("org/example/api")));
+        Assertions.assertFalse(Files.exists(classes.resolve("org/example/api")));
+        Assertions.assertTrue(Files.exists(classes.resolve("org/example/Foo.class")));
+    }
+
+    @Test
+    public void testIgnoreUnmapped() throws Exception {
+        createFile(classes.resolve("Foo.class"));
+        Assertions.assertEquals(0, remover.remove(baseDir.resolve("src/test/java/Foo.java")));
+        Assertions.assertEquals(0, remover.remove(sources));
+        Assertions.assertTrue(Files.exists(classes.resolve("Foo.class")));
+    }
+
+    private static void createFile(final Path file) throws Exception {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, file.getFileName().toString());
+    }
+}
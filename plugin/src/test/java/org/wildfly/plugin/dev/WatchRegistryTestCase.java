@@ -0,0 +1,117 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.dev;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests registering directories and recovering changes with the {@link WatchRegistry}.
+ */
+public class WatchRegistryTestCase {
+
+    private static final WatchHandler HANDLER = (context, event, file) -> new WatchHandler.Result() {
+    };
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    public void testRegister() throws Exception {
+        final Path excluded = Files.createDirectories(dir.resolve("target/classes"));
+        Files.createDirectories(dir.resolve("src/main/java/org/example"));
+        try (
+                WatchService watcher = FileSystems.getDefault().newWatchService();
+                WatchRegistry registry = new WatchRegistry(watcher, excluded::equals)) {
+            Assertions.assertTrue(registry.register(dir, HANDLER));
+            Assertions.assertTrue(registry.isRegistered(dir.resolve("src/main/java/org/example")));
+            Assertions.assertTrue(registry.isRegistered(dir.resolve("target")));
+            Assertions.assertFalse(registry.isRegistered(excluded));
+            final int size = registry.size();
+
+            // Registering again should not register any new directories
+            Assertions.assertFalse(registry.register(dir.resolve("src"), HANDLER));
+            Assertions.assertEquals(size, registry.size());
+
+            Files.createDirectories(dir.resolve("src/main/java/org/example/other"));
+            Assertions.assertTrue(registry.register(dir.resolve("src/main/java/org/example"), HANDLER));
+            Assertions.assertEquals(size + 1, registry.size());
+        }
+    }
+
+    @Test
+    public void testRescan() throws Exception {
+        final Path pkg = Files.createDirectories(dir.resolve("org/example"));
+        final Path modified = Files.writeString(pkg.resolve("Modified.java"), "class Modified {}");
+        final Path deleted = Files.writeString(pkg.resolve("Deleted.java"), "class Deleted {}");
+        Files.writeString(pkg.resolve("Unchanged.java"), "class Unchanged {}");
+        final Path removedDir = Files.createDirectories(dir.resolve("org/removed"));
+        try (
+                WatchService watcher = FileSystems.getDefault().newWatchService();
+                WatchRegistry registry = new WatchRegistry(watcher, (path) -> false)) {
+            registry.register(dir, HANDLER);
+
+            Files.writeString(modified, "class Modified { int x; }");
+            Files.setLastModifiedTime(modified, FileTime.fromMillis(System.currentTimeMillis() + 10_000L));
+            Files.delete(deleted);
+            final Path created = Files.writeString(pkg.resolve("Created.java"), "class Created {}");
+            final Path createdDir = Files.createDirectories(dir.resolve("org/created"));
+            Files.delete(removedDir);
+
+            final Map<Path, ?> changes = registry.rescan(List.of(dir))
+                    .stream()
+                    .collect(Collectors.toMap(WatchRegistry.Change::file, WatchRegistry.Change::kind));
+            Assertions.assertEquals(Map.of(
+                    modified, ENTRY_MODIFY,
+                    deleted, ENTRY_DELETE,
+                    created, ENTRY_CREATE,
+                    createdDir, ENTRY_CREATE,
+                    removedDir, ENTRY_DELETE), changes);
+            Assertions.assertFalse(registry.isRegistered(removedDir));
+
+            // The snapshot has been updated, there should be no further changes
+            registry.register(createdDir, HANDLER);
+            Assertions.assertTrue(registry.rescan(List.of(dir)).isEmpty());
+        }
+    }
+
+    @Test
+    public void testCompare() throws Exception {
+        final Path pkg = Files.createDirectories(dir.resolve("org/example"));
+        final Path kept = Files.writeString(pkg.resolve("Kept.java"), "class Kept {}");
+        final Path created = Files.writeString(pkg.resolve("Created.java"), "class Created {}");
+        final Path deleted = pkg.resolve("Deleted.java");
+        final Path deletedDir = dir.resolve("org/removed/Removed.java");
+        final Path outside = dir.getParent().resolve("Outside.java");
+        try (
+                WatchService watcher = FileSystems.getDefault().newWatchService();
+                WatchRegistry registry = new WatchRegistry(watcher, (path) -> false)) {
+            registry.register(pkg, HANDLER);
+
+            final Map<Path, ?> changes = registry.compare(Set.of(kept, deleted, deletedDir, outside))
+                    .stream()
+                    .collect(Collectors.toMap(WatchRegistry.Change::file, WatchRegistry.Change::kind));
+            Assertions.assertEquals(Map.of(
+                    kept, ENTRY_MODIFY,
+                    created, ENTRY_CREATE,
+                    deleted, ENTRY_DELETE), changes);
+        }
+    }
+}
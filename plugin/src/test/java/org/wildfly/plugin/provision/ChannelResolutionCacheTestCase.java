@@ -0,0 +1,66 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.provision;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests persisting the channel resolutions with the {@link ChannelResolutionCache}.
+ */
+public class ChannelResolutionCacheTestCase {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        final Path jar = Files.writeString(dir.resolve("example-1.0.jar"), "jar");
+        final String resolvedKey = ChannelResolutionCache.key("org.example", "example", null, "jar");
+        final String missingKey = ChannelResolutionCache.key("org.example", "other", "sources", "jar");
+        final ChannelResolutionCache cache = ChannelResolutionCache.load(dir.resolve("cache"), "digest");
+        Assertions.assertNull(cache.get(resolvedKey));
+        Assertions.assertFalse(cache.isMissing(missingKey));
+        cache.put(resolvedKey, "1.0", jar);
+        cache.putMissing(missingKey);
+        cache.save();
+
+        final ChannelResolutionCache loaded = ChannelResolutionCache.load(dir.resolve("cache"), "digest");
+        final ChannelResolutionCache.Resolved resolved = loaded.get(resolvedKey);
+        Assertions.assertNotNull(resolved);
+        Assertions.assertEquals("1.0", resolved.version());
+        Assertions.assertEquals(jar, resolved.path());
+        Assertions.assertTrue(loaded.isMissing(missingKey));
+        Assertions.assertFalse(loaded.isMissing(resolvedKey));
+
+        // Another manifest digest must not see the results
+        final ChannelResolutionCache other = ChannelResolutionCache.load(dir.resolve("cache"), "other-digest");
+        Assertions.assertNull(other.get(resolvedKey));
+        Assertions.assertFalse(other.isMissing(missingKey));
+    }
+
+    @Test
+    public void testDeletedFile() throws Exception {
+        final Path jar = Files.writeString(dir.resolve("example-1.0.jar"), "jar");
+        final String key = ChannelResolutionCache.key("org.example", "example", null, "jar");
+        final ChannelResolutionCache cache = ChannelResolutionCache.load(dir.resolve("cache"), "digest");
+        cache.put(key, "1.0", jar);
+        cache.save();
+        Files.delete(jar);
+        Assertions.assertNull(ChannelResolutionCache.load(dir.resolve("cache"), "digest").get(key));
+    }
+
+    @Test
+    public void testInvalidFile() throws Exception {
+        Files.createDirectories(dir.resolve("cache"));
+        Files.writeString(dir.resolve("cache/digest.json"), "{ invalid");
+        final ChannelResolutionCache cache = ChannelResolutionCache.load(dir.resolve("cache"), "digest");
+        Assertions.assertNull(cache.get(ChannelResolutionCache.key("org.example", "example", null, "jar")));
+    }
+}
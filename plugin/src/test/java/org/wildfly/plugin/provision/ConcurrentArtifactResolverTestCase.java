@@ -0,0 +1,85 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.provision;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.jboss.galleon.universe.maven.MavenArtifact;
+import org.jboss.galleon.universe.maven.MavenUniverseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests resolving artifacts concurrently with the {@link ConcurrentArtifactResolver}.
+ */
+public class ConcurrentArtifactResolverTestCase {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    public void testDuplicatesResolvedOnce() throws Exception {
+        final Map<String, AtomicInteger> resolutions = new ConcurrentHashMap<>();
+        final ConcurrentArtifactResolver resolver = new ConcurrentArtifactResolver(4, artifact -> {
+            resolutions.computeIfAbsent(artifact.getArtifactId(), key -> new AtomicInteger()).incrementAndGet();
+            // Resolved like a channel would, the version is only known once the artifact is resolved
+            artifact.setVersion("1.0." + artifact.getArtifactId().length());
+            try {
+                artifact.setPath(Files.writeString(dir.resolve(artifact.getArtifactId() + ".jar"), "jar"));
+            } catch (IOException e) {
+                throw new MavenUniverseException(e.getLocalizedMessage(), e);
+            }
+        }, new SystemStreamLog());
+        final MavenArtifact first = artifact("example");
+        final MavenArtifact duplicate = artifact("example");
+        final MavenArtifact other = artifact("other-example");
+        resolver.resolveAll(List.of(first, duplicate, other));
+
+        Assertions.assertEquals(1, resolutions.get("example").get());
+        Assertions.assertEquals(1, resolutions.get("other-example").get());
+        for (MavenArtifact artifact : List.of(first, duplicate)) {
+            Assertions.assertEquals("1.0.7", artifact.getVersion());
+            Assertions.assertEquals(dir.resolve("example.jar"), artifact.getPath());
+        }
+        Assertions.assertEquals("1.0.13", other.getVersion());
+        Assertions.assertEquals(dir.resolve("other-example.jar"), other.getPath());
+    }
+
+    @Test
+    public void testFailure() {
+        final MavenUniverseException failure = new MavenUniverseException("Failed to resolve example");
+        final ConcurrentArtifactResolver resolver = new ConcurrentArtifactResolver(2, artifact -> {
+            if ("example".equals(artifact.getArtifactId())) {
+                throw failure;
+            }
+        }, new SystemStreamLog());
+        final MavenUniverseException thrown = Assertions.assertThrows(MavenUniverseException.class,
+                () -> resolver.resolveAll(List.of(artifact("other"), artifact("example"))));
+        Assertions.assertSame(failure, thrown);
+
+        // Unexpected exceptions are reported as a resolution failure as well
+        final ConcurrentArtifactResolver failing = new ConcurrentArtifactResolver(2, artifact -> {
+            throw new IllegalStateException("Unexpected");
+        }, new SystemStreamLog());
+        final MavenUniverseException unexpected = Assertions.assertThrows(MavenUniverseException.class,
+                () -> failing.resolveAll(List.of(artifact("example"))));
+        Assertions.assertInstanceOf(IllegalStateException.class, unexpected.getCause());
+    }
+
+    private static MavenArtifact artifact(final String artifactId) {
+        return new MavenArtifact()
+                .setGroupId("org.example")
+                .setArtifactId(artifactId)
+                .setExtension(MavenArtifact.EXT_JAR);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.provision;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests indexing the channel requirements of archives with the {@link FeaturePackIndex}.
+ */
+public class FeaturePackIndexTestCase {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        final Path featurePack = Files.writeString(dir.resolve("feature-pack.zip"), "feature-pack");
+        final Path other = Files.writeString(dir.resolve("other.zip"), "other");
+        final Path file = dir.resolve("cache/feature-packs.json");
+        final FeaturePackIndex index = FeaturePackIndex.load(file);
+        Assertions.assertNull(index.get(featurePack));
+        index.put(featurePack, new FeaturePackIndex.Entry(true, "REQUIRED"));
+        index.put(other, new FeaturePackIndex.Entry(false, null));
+        index.save();
+
+        final FeaturePackIndex loaded = FeaturePackIndex.load(file);
+        final FeaturePackIndex.Entry entry = loaded.get(featurePack);
+        Assertions.assertNotNull(entry);
+        Assertions.assertTrue(entry.featurePack());
+        Assertions.assertEquals("REQUIRED", entry.resolution());
+        final FeaturePackIndex.Entry otherEntry = loaded.get(other);
+        Assertions.assertNotNull(otherEntry);
+        Assertions.assertFalse(otherEntry.featurePack());
+        Assertions.assertNull(otherEntry.resolution());
+    }
+
+    @Test
+    public void testModifiedArchive() throws Exception {
+        final Path featurePack = Files.writeString(dir.resolve("feature-pack.zip"), "feature-pack");
+        Files.setLastModifiedTime(featurePack, FileTime.fromMillis(1_000L));
+        final Path file = dir.resolve("cache/feature-packs.json");
+        final FeaturePackIndex index = FeaturePackIndex.load(file);
+        index.put(featurePack, new FeaturePackIndex.Entry(true, "REQUIRED"));
+        index.save();
+
+        Files.writeString(featurePack, "feature-pack");
+        Files.setLastModifiedTime(featurePack, FileTime.fromMillis(2_000L));
+        Assertions.assertNull(FeaturePackIndex.load(file).get(featurePack));
+    }
+}
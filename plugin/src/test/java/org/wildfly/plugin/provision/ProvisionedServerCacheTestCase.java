@@ -0,0 +1,85 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.provision;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests storing and copying servers with the {@link ProvisionedServerCache}.
+ */
+public class ProvisionedServerCacheTestCase {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    public void testKey() {
+        Assertions.assertEquals(ProvisionedServerCache.key(List.of("a", "b")),
+                ProvisionedServerCache.key(List.of("a", "b")));
+        Assertions.assertNotEquals(ProvisionedServerCache.key(List.of("a", "b")),
+                ProvisionedServerCache.key(List.of("b", "a")));
+        Assertions.assertNotEquals(ProvisionedServerCache.key(List.of("ab", "")),
+                ProvisionedServerCache.key(List.of("a", "b")));
+    }
+
+    @Test
+    public void testStoreAndMaterialize() throws Exception {
+        final Path server = createServer(dir.resolve("provisioned"), 10);
+        final ProvisionedServerCache cache = new ProvisionedServerCache(dir.resolve("cache"), Long.MAX_VALUE,
+                new SystemStreamLog());
+        final Path target = dir.resolve("target/server");
+        Assertions.assertFalse(cache.materialize("key", target));
+        Assertions.assertTrue(Files.notExists(target));
+
+        cache.store("key", server);
+        Assertions.assertTrue(cache.materialize("key", target));
+        for (String file : List.of("bin/standalone.sh", "standalone/configuration/standalone.xml",
+                "modules/system/layers/base/org/example/main/example.jar")) {
+            Assertions.assertEquals(Files.readString(server.resolve(file)), Files.readString(target.resolve(file)));
+        }
+        // Modifying the copy must not modify the cached server
+        Files.writeString(target.resolve("standalone/configuration/standalone.xml"), "<server changed/>");
+        final Path other = dir.resolve("other/server");
+        Assertions.assertTrue(cache.materialize("key", other));
+        Assertions.assertEquals(Files.readString(server.resolve("standalone/configuration/standalone.xml")),
+                Files.readString(other.resolve("standalone/configuration/standalone.xml")));
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws Exception {
+        final Path cacheDir = dir.resolve("cache");
+        // Each server is 30 bytes, the cache can hold two servers
+        final ProvisionedServerCache cache = new ProvisionedServerCache(cacheDir, 60L, new SystemStreamLog());
+        cache.store("first", createServer(dir.resolve("first"), 10));
+        cache.store("second", createServer(dir.resolve("second"), 10));
+        Files.setLastModifiedTime(cacheDir.resolve("first/entry.properties"), FileTime.fromMillis(1_000L));
+        Files.setLastModifiedTime(cacheDir.resolve("second/entry.properties"), FileTime.fromMillis(2_000L));
+        // Using the first server makes the second server the least recently used
+        Assertions.assertTrue(cache.materialize("first", dir.resolve("target/first")));
+
+        cache.store("third", createServer(dir.resolve("third"), 10));
+        Assertions.assertTrue(Files.exists(cacheDir.resolve("first")));
+        Assertions.assertTrue(Files.notExists(cacheDir.resolve("second")));
+        Assertions.assertTrue(Files.exists(cacheDir.resolve("third")));
+    }
+
+    private static Path createServer(final Path dir, final int size) throws Exception {
+        final Path bin = Files.createDirectories(dir.resolve("bin"));
+        Files.writeString(bin.resolve("standalone.sh"), "x".repeat(size));
+        final Path config = Files.createDirectories(dir.resolve("standalone/configuration"));
+        Files.writeString(config.resolve("standalone.xml"), "<server/>" + "x".repeat(size - 9));
+        final Path module = Files.createDirectories(dir.resolve("modules/system/layers/base/org/example/main"));
+        Files.writeString(module.resolve("example.jar"), "j".repeat(size));
+        return dir;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.plugin.provision;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests recording the inputs of a provisioned server with the {@link ProvisioningFingerprint}.
+ */
+public class ProvisioningFingerprintTestCase {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        final Path server = Files.createDirectories(dir.resolve("server"));
+        Assertions.assertNull(ProvisioningFingerprint.read(server).digest("server"));
+
+        final ProvisioningFingerprint fingerprint = ProvisioningFingerprint.create();
+        fingerprint.digest("server", "abc");
+        fingerprint.digest("deployments", "def");
+        fingerprint.deployments(List.of("app.war", "lib.jar"));
+        fingerprint.write(server);
+
+        final ProvisioningFingerprint read = ProvisioningFingerprint.read(server);
+        Assertions.assertEquals("abc", read.digest("server"));
+        Assertions.assertEquals("def", read.digest("deployments"));
+        Assertions.assertNull(read.digest("packaging-scripts"));
+        Assertions.assertEquals(List.of("app.war", "lib.jar"), read.deployments());
+
+        ProvisioningFingerprint.delete(server);
+        Assertions.assertNull(ProvisioningFingerprint.read(server).digest("server"));
+        Assertions.assertEquals(List.of(), ProvisioningFingerprint.read(server).deployments());
+    }
+
+    @Test
+    public void testAddFiles() throws Exception {
+        final Path content = Files.createDirectories(dir.resolve("extra/standalone/configuration"));
+        final Path file = Files.writeString(content.resolve("logging.properties"), "level=INFO");
+        final List<String> inputs = addFiles(dir.resolve("extra"));
+        Assertions.assertEquals(inputs, addFiles(dir.resolve("extra")));
+
+        Files.writeString(file, "level=DEBUG");
+        final List<String> changed = addFiles(dir.resolve("extra"));
+        Assertions.assertNotEquals(inputs, changed);
+
+        Files.writeString(content.resolve("other.properties"), "");
+        Assertions.assertNotEquals(changed, addFiles(dir.resolve("extra")));
+
+        Assertions.assertNotEquals(addFiles(dir.resolve("missing")), addFiles(dir.resolve("extra")));
+    }
+
+    private static List<String> addFiles(final Path path) throws Exception {
+        final List<String> inputs = new ArrayList<>();
+        ProvisioningFingerprint.addFiles(inputs, path);
+        return inputs;
+    }
+}